@@ -0,0 +1,141 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.core.api.game.GameConstants;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.game.territory.GameTerritory;
+import com.riskrieg.core.api.game.territory.TerritoryType;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClaimRollsBenchmark { // One claim batch: every defender territory bordering the attacker is attacked once
+
+  private static final int NATIONS = 4;
+
+  @Param({"10", "30"})
+  public int side; // The map is a side by side grid with diagonal borders, so 100 and 900 territories
+
+  private final GameConstants constants = GameConstants.standard();
+  private MapGraph graph;
+  private Set<Claim> claims;
+  private NationIdentifier attacker;
+  private NationIdentifier defender;
+  private List<TerritoryIdentity> targets;
+
+  @Setup
+  public void setup() {
+    int size = side * side;
+    TerritoryIdentity[] identities = new TerritoryIdentity[size];
+    int[][] neighbors = new int[size][];
+    for (int v = 0; v < size; v++) {
+      identities[v] = new TerritoryIdentity("t" + v);
+      int row = v / side;
+      int column = v % side;
+      List<Integer> adjacent = new ArrayList<>();
+      for (int dr = -1; dr <= 1; dr++) {
+        for (int dc = -1; dc <= 1; dc++) {
+          int r = row + dr;
+          int c = column + dc;
+          if ((dr != 0 || dc != 0) && r >= 0 && r < side && c >= 0 && c < side) {
+            adjacent.add(r * side + c);
+          }
+        }
+      }
+      neighbors[v] = adjacent.stream().mapToInt(Integer::intValue).toArray();
+    }
+    graph = MapGraph.build("benchmark", identities, neighbors);
+
+    NationIdentifier[] nations = new NationIdentifier[NATIONS];
+    for (int i = 0; i < NATIONS; i++) {
+      nations[i] = new NationIdentifier("n" + i);
+    }
+    attacker = nations[0];
+    defender = nations[1];
+    claims = new HashSet<>();
+    for (int v = 0; v < size; v++) {
+      if (v % 7 == 6) {
+        continue; // Leave some territories unclaimed
+      }
+      int owner = (v % side) * NATIONS / side; // Vertical bands, so every nation borders the next
+      TerritoryType type = v % side == owner * side / NATIONS && (v / side) % 5 == 0 ? TerritoryType.CAPITAL : TerritoryType.NORMAL;
+      claims.add(new Claim(nations[owner], new GameTerritory(identities[v], type)));
+    }
+
+    targets = new ArrayList<>();
+    for (Claim claim : claims) {
+      if (!claim.identifier().equals(defender)) {
+        continue;
+      }
+      int v = graph.indexOf(claim.territory().identity());
+      for (int edge = graph.start(v); edge < graph.end(v); edge++) {
+        TerritoryIdentity neighbor = graph.identity(graph.target(edge));
+        if (claims.stream().anyMatch(other -> other.identifier().equals(attacker) && other.territory().identity().equals(neighbor))) {
+          targets.add(claim.territory().identity());
+          break;
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void legacySets(Blackhole blackhole) {
+    for (TerritoryIdentity target : targets) {
+      blackhole.consume(LegacyRolls.rolls(graph, claims, attacker, defender, target, constants));
+    }
+  }
+
+  @Benchmark
+  public void snapshotPerBatch(Blackhole blackhole) { // Best case, no attack in the batch succeeds
+    ClaimSnapshot snapshot = ClaimSnapshot.of(graph, claims);
+    for (TerritoryIdentity target : targets) {
+      blackhole.consume(snapshot.rolls(attacker, defender, target, constants));
+    }
+  }
+
+  @Benchmark
+  public void snapshotPerAttack(Blackhole blackhole) { // Worst case, every attack succeeds and the next one rebuilds
+    for (TerritoryIdentity target : targets) {
+      blackhole.consume(ClaimSnapshot.of(graph, claims).rolls(attacker, defender, target, constants));
+    }
+  }
+
+}
@@ -35,11 +35,17 @@ public class BotConstants {
   /* Bot Paths */
   public static final String AUTH_PATH = "res/auth/";
   public static final String CONFIG_PATH = "res/config/";
+  public static final String LOG_PATH = "res/logs/";
+  public static final String RECORDING_PATH = "res/recordings/";
+  public static final String GAME_CONFIG_PATH = CONFIG_PATH + "game/";
 
   /* Riskrieg Paths */
   public static final String REPOSITORY_PATH = "res/";
   @Deprecated
   public static final String SAVE_PATH = REPOSITORY_PATH + "saves/";
+  public static final String SEED_PATH = REPOSITORY_PATH + "seeds/";
+  public static final String STATS_PATH = REPOSITORY_PATH + "stats/";
+  public static final String LEADERBOARD_PATH = REPOSITORY_PATH + "leaderboard/";
   public static final String MAP_PATH = REPOSITORY_PATH + "maps/";
   public static final String MAP_METADATA_PATH = MAP_PATH + "metadata/";
 
@@ -24,10 +24,13 @@ import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.commands.Ping;
 import com.riskrieg.bot.command.commands.riskrieg.Leave;
 import com.riskrieg.bot.command.commands.riskrieg.general.Help;
+import com.riskrieg.bot.command.commands.riskrieg.general.Leaderboard;
 import com.riskrieg.bot.command.commands.riskrieg.general.Maps;
+import com.riskrieg.bot.command.commands.riskrieg.general.Neighbors;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.AdjustConfig;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.owner.AddMap;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.owner.AdjustMap;
+import com.riskrieg.bot.command.commands.riskrieg.restricted.owner.Profiler;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.server.End;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.server.Kick;
 import com.riskrieg.bot.command.commands.riskrieg.restricted.server.Services;
@@ -40,10 +43,14 @@ import com.riskrieg.bot.command.commands.riskrieg.setup.Join;
 import com.riskrieg.bot.command.commands.riskrieg.setup.MapSelect;
 import com.riskrieg.bot.command.commands.riskrieg.setup.Start;
 import com.riskrieg.bot.command.handler.InteractionHandler;
+import com.riskrieg.bot.leaderboard.Leaderboards;
 import com.riskrieg.bot.listener.InteractionListener;
 import com.riskrieg.bot.listener.ReadyListener;
 import com.riskrieg.bot.service.AutomaticPingService;
 import com.riskrieg.bot.service.AutomaticSkipService;
+import com.riskrieg.bot.service.MetricsService;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.lang.LocalizationRegistry;
 import com.riskrieg.core.util.io.RkJsonUtil;
 
 import java.awt.*;
@@ -52,8 +59,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Set;
 
-public class Main { // TODO: Add command that lets you see a territory's neighbors
-  // TODO: Add command that lets players change their name
+public class Main { // TODO: Add command that lets players change their name
 
   public static void main(String[] args) {
     registerFonts();
@@ -69,12 +75,16 @@ public class Main { // TODO: Add command that lets you see a territory's neighbo
       InteractionHandler handler = new InteractionHandler(auth.ownerId());
 
       AutomaticPingService pingService = new AutomaticPingService();
+      MapIndex.refreshCatalog();
+      LocalizationRegistry.get(); // Load every command bundle once, before any commandData() is built
+      Leaderboards.load(); // Replays the results log here rather than on the first /leaderboard or game end
 
       Set<Command> commands = Set.of(
           new Ping(),
 
           new Help(),
           new Maps(),
+          new Neighbors(),
 
           new Create(),
           new Join(),
@@ -82,11 +92,13 @@ public class Main { // TODO: Add command that lets you see a territory's neighbo
           new Start(),
 
           new ClaimCommand(),
+          new Odds(),
           new Skip(),
           new Turn(),
           new Palette(),
 
           new Stats(),
+          new Leaderboard(),
 
           new Ally(),
           new Unally(),
@@ -100,6 +112,7 @@ public class Main { // TODO: Add command that lets you see a territory's neighbo
 
           new AddMap(),
           new AdjustMap(),
+          new Profiler(),
 
           new AdjustConfig(),
 
@@ -117,7 +130,8 @@ public class Main { // TODO: Add command that lets you see a territory's neighbo
       // Register services
       bot.registerServices(
               pingService,
-              new AutomaticSkipService()
+              new AutomaticSkipService(),
+              new MetricsService(handler.admissionController())
       );
 
       bot.start();
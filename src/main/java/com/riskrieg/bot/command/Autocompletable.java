@@ -0,0 +1,26 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command;
+
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+
+public interface Autocompletable { // Discord gives autocomplete about 3 seconds, so implementations must answer from memory
+
+  void autocomplete(CommandAutoCompleteInteractionEvent event);
+
+}
@@ -22,17 +22,21 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.game.GameLifecycle;
+import com.riskrieg.bot.stats.Statistics;
 import com.riskrieg.bot.util.ConfigUtil;
+import com.riskrieg.bot.util.MapReply;
 import com.riskrieg.bot.util.MessageUtil;
-import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.TurnSummary;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.game.EndReason;
 import com.riskrieg.core.api.game.GamePhase;
-import com.riskrieg.core.api.game.entity.nation.Nation;
 import com.riskrieg.core.api.game.entity.player.Player;
-import com.riskrieg.core.api.game.mode.Brawl;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.core.api.identifier.PlayerIdentifier;
@@ -47,7 +51,6 @@ import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEve
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 public class Leave implements Command {
@@ -59,7 +62,9 @@ public class Leave implements Command {
         "Leave the current game.",
         "leave", "forfeit")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(2)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -101,68 +106,51 @@ public class Leave implements Command {
       }
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
             Optional<Player> leavingPlayer = game.getPlayer(PlayerIdentifier.of(member.getId()));
             if (leavingPlayer.isPresent()) {
               game.removePlayer(leavingPlayer.get().identifier()).queue(success -> {
                 game.update(false).queue(updateEvent -> {
+                  Statistics.recordRemoval(guild.getId(), game);
                   EmbedBuilder embedBuilder = new EmbedBuilder();
                   embedBuilder.setColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor());
                   embedBuilder.setTitle("Leave");
                   embedBuilder.setDescription("**" + leavingPlayer.get().name() + "** has left the game.");
-
-                  var messageAction = hook.sendMessageEmbeds(embedBuilder.build()); // Determine if map should be sent before sending
-
                   if (game.map() != null) {
                     embedBuilder.setImage("attachment://map.png");
-                    messageAction = hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), "map.png"));
                   }
 
-                  var finalMessageAction = messageAction;
-                  hook.sendMessage(genericSuccess).queue(success2 -> {
-                    finalMessageAction.queue(message -> {
-                      StringBuilder description = new StringBuilder();
-                      if (updateEvent.endReason().equals(EndReason.NONE)) {
-                        if (game.map() != null) {
-                          var currentPlayer = updateEvent.currentPlayer();
-                          if (game.phase().equals(GamePhase.ACTIVE) && currentPlayer.isPresent()) {
-                            Optional<Nation> optCurrent = game.getNation(currentPlayer.get().identifier());
-                            String claimStr = "They may claim an unknown amount of territories this turn.";
-                            if (optCurrent.isPresent()) {
-                              long allowedClaimAmount;
-                              if (game.getClass() == Brawl.class && game.claims().size() != game.map().vertices().size()) {
-                                allowedClaimAmount = 1;
-                              } else {
-                                allowedClaimAmount = optCurrent.get()
-                                    .getAllowedClaimAmount(game.claims(), game.constants(), game.map(), game.getAllies(optCurrent.get().identifier()));
-                              }
-                              claimStr = "They may claim " + allowedClaimAmount + " " + (allowedClaimAmount == 1 ? "territory" : "territories") + " this turn.";
-                            }
-                            embedBuilder.setFooter("It is " + currentPlayer.get().name() + "'s turn. " + claimStr);
+                  var currentPlayer = updateEvent.currentPlayer();
+                  if (updateEvent.endReason().equals(EndReason.NONE)) {
+                    TurnSummary turn = GameIndex.update(game).turn();
+                    if (game.map() != null && game.phase().equals(GamePhase.ACTIVE) && currentPlayer.isPresent()) {
+                      embedBuilder.setFooter(turn.footer());
+                    }
+                    MapReply.start(hook, genericSuccess, game, trace)
+                        .persist(save -> group.saveGame(game).queue(save::end, save::end))
+                        .send(embedBuilder.build(), "map.png")
+                        .thenRun(() -> {
+                          if (game.map() != null) {
+                            currentPlayer.ifPresent(player -> ConfigUtil.sendMentionIfEnabled(hook, player.identifier().toString()));
                           }
-                          message.editMessageEmbeds(embedBuilder.build())
-                              .queue(success3 -> currentPlayer.ifPresent(player -> ConfigUtil.sendMentionIfEnabled(hook, player.identifier().toString())));
-                        }
-                        group.saveGame(game).queue();
-                      } else {
-                        var currentPlayer = updateEvent.currentPlayer();
-                        switch (updateEvent.endReason()) {
-                          case NO_PLAYERS -> description.append("There are no players left in the game, so the game has ended.").append("\n");
-                          case DEFEAT ->
-                              description.append("**").append(currentPlayer.isPresent() ? currentPlayer.get().name() : "The remaining player").append("** has won the game!");
-                          case STALEMATE -> description.append("A stalemate has been reached! The game is now over.");
-                          case ALLIED_VICTORY -> description.append("Allied victory! The remaining players have won the game.");
-                          default -> description.append("The game is now over.");
-                        }
-                        embedBuilder.addField("Game Ended", description.toString(), false);
-                        embedBuilder.setFooter("Thank you for playing!");
-                        message.editMessageEmbeds(embedBuilder.build()).queue();
-                        group.deleteGame(GameIdentifier.of(event.getChannel().getId())).queue();
-                      }
-                    });
-                  });
-
+                        });
+                  } else {
+                    StringBuilder description = new StringBuilder();
+                    switch (updateEvent.endReason()) {
+                      case NO_PLAYERS -> description.append("There are no players left in the game, so the game has ended.").append("\n");
+                      case DEFEAT ->
+                          description.append("**").append(currentPlayer.isPresent() ? currentPlayer.get().name() : "The remaining player").append("** has won the game!");
+                      case STALEMATE -> description.append("A stalemate has been reached! The game is now over.");
+                      case ALLIED_VICTORY -> description.append("Allied victory! The remaining players have won the game.");
+                      default -> description.append("The game is now over.");
+                    }
+                    embedBuilder.addField("Game Ended", description.toString(), false);
+                    embedBuilder.setFooter("Thank you for playing!");
+                    MapReply.start(hook, genericSuccess, game, trace).send(embedBuilder.build(), "map.png");
+                    GameLifecycle.ended(group, guild.getId(), game, updateEvent.endReason(), updateEvent.currentPlayer());
+                  }
 
                 }, failure -> {
                   hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue();
@@ -0,0 +1,133 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.commands.riskrieg.general;
+
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.settings.Settings;
+import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.leaderboard.Board;
+import com.riskrieg.bot.leaderboard.Leaderboards;
+import com.riskrieg.bot.leaderboard.Standing;
+import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.bot.util.lang.RkLocalizationFunction;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.palette.RkpPalette;
+import java.util.List;
+import java.util.Locale;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+
+public class Leaderboard implements Command {
+
+  private static final int PAGE_SIZE = 10;
+
+  private final Settings settings;
+
+  public Leaderboard() {
+    this.settings = new StandardSettings(
+        "Show the players with the most wins.",
+        "leaderboard")
+        .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
+        .makeGuildOnly();
+  }
+
+  @NonNull
+  @Override
+  public Settings settings() {
+    return settings;
+  }
+
+  @Override
+  public CommandData commandData() {
+    OptionData scope = new OptionData(OptionType.STRING, "scope", "Show this server's leaderboard or the global one.", false)
+        .addChoice("Server", "server")
+        .addChoice("Global", "global");
+    OptionData mode = new OptionData(OptionType.STRING, "mode", "Only count games of one mode.", false)
+        .addChoice("Conquest", "conquest")
+        .addChoice("Regicide", "regicide")
+        .addChoice("Brawl", "brawl");
+    OptionData page = new OptionData(OptionType.INTEGER, "page", "The page to show.", false)
+        .setMinValue(1);
+
+    return Commands.slash(settings().name(), settings().description()).addOptions(scope, mode, page)
+        .setGuildOnly(true)
+        .setLocalizationFunction(
+            RkLocalizationFunction.fromExternalBundles(this,
+                DiscordLocale.ENGLISH_US
+            ).build()
+        );
+  }
+
+  @Override
+  public void execute(SlashCommandInteractionEvent event) {
+    event.deferReply(true).queue(hook -> {
+
+      // Guard clauses
+      Guild guild = event.getGuild();
+      if (guild == null) {
+        hook.sendMessage(MessageUtil.error(settings, "Invalid guild.")).queue();
+        return;
+      }
+
+      OptionMapping scopeOpt = event.getOption("scope");
+      boolean global = scopeOpt != null && scopeOpt.getAsString().equals("global");
+      OptionMapping modeOpt = event.getOption("mode");
+      String mode = modeOpt == null ? Leaderboards.ALL_MODES : modeOpt.getAsString();
+      OptionMapping pageOpt = event.getOption("page");
+      int page = pageOpt == null ? 1 : Math.max(1, pageOpt.getAsInt());
+
+      // Command execution
+      Board board = Leaderboards.board(global ? Leaderboards.GLOBAL : guild.getId(), mode);
+      if (board.players() == 0) {
+        hook.sendMessage(MessageUtil.error(settings, "No games have been finished here yet.")).queue();
+        return;
+      }
+      int pages = (board.players() + PAGE_SIZE - 1) / PAGE_SIZE;
+      page = Math.min(page, pages);
+
+      List<Standing> standings = board.page(page - 1, PAGE_SIZE);
+      StringBuilder description = new StringBuilder();
+      int rank = (page - 1) * PAGE_SIZE;
+      for (Standing standing : standings) {
+        rank++;
+        description.append("`#").append(rank).append("` **").append(standing.name()).append("**: ")
+            .append(standing.wins()).append(standing.wins() == 1 ? " win" : " wins").append(" in ")
+            .append(standing.played()).append(standing.played() == 1 ? " game" : " games")
+            .append(String.format(Locale.US, " (%.0f%%)", standing.winRate() * 100.0)).append("\n");
+      }
+
+      EmbedBuilder embedBuilder = new EmbedBuilder();
+      embedBuilder.setColor(settings.embedColor());
+      embedBuilder.setTitle((global ? "Global" : guild.getName()) + " | " + Riskrieg.NAME + " Leaderboard"
+          + (mode.equals(Leaderboards.ALL_MODES) ? "" : " (" + mode.substring(0, 1).toUpperCase(Locale.ROOT) + mode.substring(1) + ")"));
+      embedBuilder.setDescription(description.toString());
+      embedBuilder.setFooter(String.format(Locale.US, "Page %d of %d. %d %s finished, %.1f turns on average.", page, pages, board.games(),
+          board.games() == 1 ? "game" : "games", board.averageTurns()));
+      hook.sendMessageEmbeds(embedBuilder.build()).queue();
+    });
+  }
+
+}
@@ -0,0 +1,192 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.commands.riskrieg.general;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.settings.Settings;
+import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.bot.util.index.FuzzyIndex;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.lang.RkLocalizationFunction;
+import com.riskrieg.bot.util.view.NeighborView;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import com.riskrieg.core.api.identifier.GroupIdentifier;
+import com.riskrieg.palette.RkpPalette;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.utils.FileUpload;
+
+public class Neighbors implements Command, Autocompletable {
+
+  private static final int MAX_MAP_DISTANCE = 2;
+
+  private final Settings settings;
+
+  public Neighbors() {
+    this.settings = new StandardSettings(
+        "See which territories border a territory.",
+        "neighbors")
+        .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
+        .makeGuildOnly()
+        .withCost(2)
+        .makeRenderHeavy();
+  }
+
+  @NonNull
+  @Override
+  public Settings settings() {
+    return settings;
+  }
+
+  @Override
+  public CommandData commandData() {
+    OptionData territory = new OptionData(OptionType.STRING, "territory", "Specify the territory to look up.", true)
+        .setAutoComplete(true);
+    OptionData map = new OptionData(OptionType.STRING, "map", "Specify a map, otherwise the map selected in this channel is used.", false)
+        .setAutoComplete(true);
+
+    return Commands.slash(settings().name(), settings().description()).addOptions(territory, map)
+        .setGuildOnly(true)
+        .setLocalizationFunction(
+            RkLocalizationFunction.fromExternalBundles(this,
+                DiscordLocale.ENGLISH_US
+            ).build()
+        );
+  }
+
+  @Override
+  public void execute(SlashCommandInteractionEvent event) {
+    event.deferReply(true).queue(hook -> {
+
+      // Guard clauses
+      Guild guild = event.getGuild();
+      if (guild == null) {
+        hook.sendMessage(MessageUtil.error(settings, "Invalid guild.")).queue();
+        return;
+      }
+
+      OptionMapping territoryOpt = event.getOption("territory");
+      String territory = territoryOpt == null ? "" : territoryOpt.getAsString().trim().toUpperCase(Locale.ROOT);
+      if (territory.isEmpty()) {
+        hook.sendMessage(MessageUtil.error(settings, "Please specify a territory.")).queue();
+        return;
+      }
+
+      // Command execution
+      OptionMapping mapOpt = event.getOption("map");
+      if (mapOpt != null) {
+        Optional<FuzzyIndex.Match> match = MapIndex.codenames().closest(mapOpt.getAsString().trim().toLowerCase(Locale.ROOT), MAX_MAP_DISTANCE);
+        if (match.isEmpty()) {
+          hook.sendMessage(MessageUtil.error(settings, "Could not find a map with that name.")).queue();
+          return;
+        }
+        reply(hook, match.get().value(), territory);
+        return;
+      }
+
+      MapIndex.Territories known = GameIndex.lookup(guild.getId(), event.getChannel().getId()).territories();
+      if (known != null) {
+        reply(hook, known.codename(), territory);
+        return;
+      }
+      Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+            if (game.map() == null) {
+              hook.sendMessage(MessageUtil.error(settings, "No map has been selected in this channel, so please specify one.")).queue();
+              return;
+            }
+            reply(hook, game.map().codename(), territory);
+          }, failure -> hook.sendMessage(MessageUtil.error(settings, "There is no game in this channel, so please specify a map.")).queue()
+      ), failure -> hook.sendMessage(MessageUtil.error(settings, "There is no game in this channel, so please specify a map.")).queue());
+
+    });
+  }
+
+  private void reply(InteractionHook hook, String codename, String territory) {
+    Optional<NeighborView.Result> result;
+    try {
+      result = NeighborView.render(codename, territory);
+    } catch (IOException e) {
+      hook.sendMessage(MessageUtil.error(settings, e.getMessage())).queue();
+      return;
+    }
+    if (result.isEmpty()) {
+      hook.sendMessage(MessageUtil.error(settings, "There is no territory named **" + territory + "** on that map.")).queue();
+      return;
+    }
+
+    List<String> neighbors = result.get().neighbors();
+    String fileName = codename + "-" + territory + ".png";
+    EmbedBuilder embedBuilder = new EmbedBuilder();
+    embedBuilder.setColor(settings.embedColor());
+    embedBuilder.setTitle("Neighbors of " + territory);
+    embedBuilder.setDescription(neighbors.isEmpty() ? "**" + territory + "** does not border any territories."
+        : "**" + territory + "** borders " + neighbors.size() + " " + (neighbors.size() == 1 ? "territory" : "territories") + ": " + String.join(", ", neighbors));
+    embedBuilder.setImage("attachment://" + fileName);
+    embedBuilder.setFooter("Map: " + codename);
+    hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(result.get().image(), fileName)).queue();
+  }
+
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    String value = event.getFocusedOption().getValue();
+    switch (event.getFocusedOption().getName()) {
+      case "map" -> {
+        List<String> choices = MapIndex.catalog().search(value.toLowerCase(Locale.ROOT), OptionData.MAX_CHOICES);
+        if (choices.isEmpty()) {
+          choices = MapIndex.codenames().search(value.toLowerCase(Locale.ROOT), MAX_MAP_DISTANCE, OptionData.MAX_CHOICES).stream().map(FuzzyIndex.Match::value).toList();
+        }
+        event.replyChoiceStrings(choices).queue();
+      }
+      case "territory" -> {
+        Optional<MapIndex.Territories> territories = Optional.empty();
+        OptionMapping mapOpt = event.getOption("map");
+        if (mapOpt != null) {
+          territories = MapIndex.codenames().closest(mapOpt.getAsString().trim().toLowerCase(Locale.ROOT), MAX_MAP_DISTANCE)
+              .flatMap(match -> MapIndex.cachedTerritories(match.value()));
+        } else if (event.getGuild() != null) {
+          territories = Optional.ofNullable(GameIndex.lookup(event.getGuild().getId(), event.getChannel().getId()).territories());
+        }
+        event.replyChoiceStrings(territories.map(known -> known.names().search(value.trim().toUpperCase(Locale.ROOT), OptionData.MAX_CHOICES)).orElse(List.of())).queue();
+      }
+      default -> event.replyChoices().queue();
+    }
+  }
+
+}
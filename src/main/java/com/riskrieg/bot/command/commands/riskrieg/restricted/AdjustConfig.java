@@ -26,7 +26,12 @@ import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
 import com.riskrieg.bot.config.BotConfig;
 import com.riskrieg.bot.config.ServerConfig;
+import com.riskrieg.bot.util.LiveBoards;
 import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.core.util.io.RkJsonUtil;
 import com.riskrieg.palette.RkpPalette;
 import java.io.IOException;
@@ -73,6 +78,12 @@ public class AdjustConfig implements Command {
     server.addOptions(serverConfigItems.setRequired(true));
     server.addOption(OptionType.BOOLEAN, "enabled", "Select whether this config item should be enabled or disabled.", true);
 
+    SubcommandData game = new SubcommandData("game", "Manage the configuration settings for the game in this channel.");
+    OptionData gameConfigItems = new OptionData(OptionType.STRING, "item", "Select a game config item.")
+        .addChoice("liveBoard", "liveBoard");
+    game.addOptions(gameConfigItems.setRequired(true));
+    game.addOption(OptionType.BOOLEAN, "enabled", "Select whether this config item should be enabled or disabled.", true);
+
     SubcommandData bot = new SubcommandData("bot", "Owner only. Manage the bot configuration settings.");
     OptionData botConfigItems = new OptionData(OptionType.STRING, "item", "Select a bot config item.")
         .addChoice("registerCommandsOnStartup", "registerCommandsOnStartup");
@@ -80,7 +91,7 @@ public class AdjustConfig implements Command {
     bot.addOption(OptionType.BOOLEAN, "enabled", "Select whether this config item should be enabled or disabled.", true);
 
     return Commands.slash(settings().name(), settings().description())
-        .addSubcommands(server, bot)
+        .addSubcommands(server, game, bot)
         .setGuildOnly(true);
   }
 
@@ -127,6 +138,7 @@ public class AdjustConfig implements Command {
       switch (subcommandName) {
         default -> hook.sendMessage(MessageUtil.error(settings, "Invalid subcommand.")).queue();
         case "server" -> processServerConfig(hook, member, guild, configItemName, enabled);
+        case "game" -> processGameConfig(hook, member, guild, event.getChannel().getId(), configItemName, enabled);
         case "bot" -> processBotConfig(hook, member, configItemName, enabled);
       }
 
@@ -170,6 +182,30 @@ public class AdjustConfig implements Command {
     }
   }
 
+  private void processGameConfig(InteractionHook hook, Member member, Guild guild, String channelId, String configItemName, boolean enabled) {
+    if (member.hasPermission(Permission.MANAGE_CHANNEL)) {
+      Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(channelId)).queue(game -> {
+        switch (configItemName) {
+          default -> hook.sendMessage(MessageUtil.error(settings, "Unknown config item name.")).queue();
+          case "liveBoard" -> {
+            try {
+              LiveBoards.setEnabled(guild.getId(), channelId, enabled);
+              hook.sendMessage(MessageUtil.success(settings, enabled
+                  ? "Live board enabled. The pinned board will appear after the next turn."
+                  : "Live board disabled. Maps will be posted each turn again.")).queue();
+            } catch (IOException e) {
+              hook.sendMessage(MessageUtil.error(settings, "Could not write new values to config.")).queue();
+            }
+          }
+        }
+      }, failure -> hook.sendMessage(MessageUtil.error(settings, "Could not find game in this channel.")).queue()),
+          failure -> hook.sendMessage(MessageUtil.error(settings, "Could not find game in this channel.")).queue());
+    } else {
+      hook.sendMessage(MessageUtil.error(settings, "Insufficient permissions to use this command.")).queue();
+    }
+  }
+
   private void processBotConfig(InteractionHook hook, Member member, String configItemName, boolean enabled) {
     try {
       Auth auth = RkJsonUtil.read(Path.of(BotConstants.AUTH_PATH + "auth.json"), DefaultAuth.class);
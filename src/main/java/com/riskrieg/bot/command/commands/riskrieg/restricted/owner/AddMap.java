@@ -22,22 +22,13 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.util.MapIngest;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.OptionDataUtil;
 import com.riskrieg.bot.util.ParseUtil;
-import com.riskrieg.codec.decode.RkmDecoder;
-import com.riskrieg.codec.encode.RkmEncoder;
-import com.riskrieg.core.util.io.RkJsonUtil;
-import com.riskrieg.map.RkmMap;
-import com.riskrieg.map.RkmMetadata;
 import com.riskrieg.map.metadata.Alignment;
-import com.riskrieg.map.metadata.Availability;
-import com.riskrieg.map.metadata.Flavor;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
-import java.net.URL;
-import java.nio.file.Path;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
@@ -45,6 +36,7 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.utils.FileUpload;
 
 public class AddMap implements Command {
 
@@ -57,7 +49,9 @@ public class AddMap implements Command {
         "Owner only. Add a new map to the game.",
         "addmap")
         .withColor(BotConstants.MOD_CMD_COLOR)
-        .makeOwnerOnly();
+        .makeOwnerOnly()
+        .withCost(5)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -93,34 +87,22 @@ public class AddMap implements Command {
         var hAlign = ParseUtil.parseHorizontalAlignment(hAlignOpt.getAsString());
         boolean overwrite = overwriteOpt != null && overwriteOpt.getAsBoolean();
 
-        try {
-          RkmMap map = new RkmDecoder().decode(new URL(mapFileOpt.getAsAttachment().getUrl()));
-          boolean metadataExists = ParseUtil.parseMapNameExact(Path.of(BotConstants.MAP_METADATA_PATH), map.codename())
-              .isPresent();
-          if (metadataExists && !overwrite) {
-            hook.sendMessage(MessageUtil.error(settings, "A map with that name already exists.")).queue();
+        Attachment attachment = mapFileOpt.getAsAttachment();
+        MapIngest.ingest(attachment.getUrl(), attachment.getSize(), overwrite, new Alignment(vAlign, hAlign)).whenComplete((result, failure) -> {
+          if (failure != null) {
+            hook.sendMessage(MessageUtil.error(settings, MapIngest.describe(failure))).queue();
             return;
           }
-
-          RkmEncoder encoder = new RkmEncoder();
-          OutputStream outputStream = new FileOutputStream(BotConstants.MAP_PATH + map.codename() + ".rkm");
-
-          encoder.encode(map, outputStream);
-          outputStream.close();
-
-          Alignment alignment = new Alignment(vAlign, hAlign);
-          RkmMetadata metadata = new RkmMetadata(Flavor.COMMUNITY, Availability.COMING_SOON, alignment);
-          RkJsonUtil.write(Path.of(BotConstants.MAP_METADATA_PATH + map.codename() + ".json"), RkmMetadata.class,
-              metadata);
-
-          hook.sendMessage(MessageUtil.success(settings, "Successfully added map: **" + map.displayName() + "**\n"
-                  + "Overwritten: **" + overwrite + "**\n"
-                  + "Flavor: **" + metadata.flavor().toString() + "**\n"
-                  + "Availability: **" + metadata.availability().name() + "**\n"))
-              .queue();
-        } catch (Exception e) {
-          hook.sendMessage(MessageUtil.error(settings, "Invalid map file.")).queue();
-        }
+          String description = "Successfully added map: **" + result.map().displayName() + "**\n"
+              + "Overwritten: **" + result.overwritten() + "**\n"
+              + "Flavor: **" + result.metadata().flavor().toString() + "**\n"
+              + "Availability: **" + result.metadata().availability().name() + "**\n";
+          if (result.thumbnail() == null) {
+            hook.sendMessage(MessageUtil.success(settings, description)).queue();
+          } else {
+            hook.sendMessage(MessageUtil.success(settings, description, FileUpload.fromData(result.thumbnail(), result.map().codename() + ".png"))).queue();
+          }
+        });
       } else {
         hook.sendMessage(MessageUtil.error(settings, "Invalid arguments.")).queue();
       }
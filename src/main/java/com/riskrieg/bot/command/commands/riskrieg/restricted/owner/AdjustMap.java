@@ -25,6 +25,7 @@ import com.riskrieg.bot.command.settings.StandardSettings;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.OptionDataUtil;
 import com.riskrieg.bot.util.ParseUtil;
+import com.riskrieg.bot.util.index.MapIndex;
 import com.riskrieg.codec.decode.RkmDecoder;
 import com.riskrieg.core.util.io.RkJsonUtil;
 import com.riskrieg.map.RkmMap;
@@ -140,6 +141,7 @@ public class AdjustMap implements Command {
             if (currentMetadata != null) {
               currentMetadata = currentMetadata.withAvailability(availability);
               RkJsonUtil.write(Path.of(BotConstants.MAP_METADATA_PATH + map.get().codename() + ".json"), RkmMetadata.class, currentMetadata);
+              MapIndex.refreshCatalog();
               hook.sendMessage(MessageUtil.success(settings,
                   "Availability for " + map.get().codename() + " has successfully been adjusted to " + availability.name() + ".")).queue();
             } else {
@@ -182,7 +184,7 @@ public class AdjustMap implements Command {
       return Optional.empty();
     }
     try {
-      var closestName = ParseUtil.parseMapCodename(Path.of(BotConstants.MAP_METADATA_PATH), mapping.getAsString());
+      var closestName = ParseUtil.parseMapCodename(mapping.getAsString());
       if (closestName.isPresent()) {
         return Optional.of(new RkmDecoder().decode(Path.of(BotConstants.MAP_PATH + closestName.get() + ".rkm")));
       }
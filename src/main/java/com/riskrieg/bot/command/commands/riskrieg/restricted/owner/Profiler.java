@@ -0,0 +1,113 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.commands.riskrieg.restricted.owner;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.settings.Settings;
+import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.metrics.jfr.Recordings;
+import com.riskrieg.bot.util.MessageUtil;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+
+public class Profiler implements Command {
+
+  private final Settings settings;
+
+  public Profiler() {
+    this.settings = new StandardSettings(
+        "Owner only. Control JDK Flight Recorder recordings of the bot.",
+        "profiler")
+        .withColor(BotConstants.MOD_CMD_COLOR)
+        .makeOwnerOnly();
+  }
+
+  @NonNull
+  @Override
+  public Settings settings() {
+    return settings;
+  }
+
+  @Override
+  public CommandData commandData() {
+    SubcommandData start = new SubcommandData("start", "Start a recording.");
+    start.addOptions(new OptionData(OptionType.INTEGER, "minutes", "Stop and write the recording to disk automatically after this many minutes.", false)
+        .setRequiredRange(1, 60));
+
+    SubcommandData dump = new SubcommandData("dump", "Write the running recording to disk without stopping it.");
+    SubcommandData stop = new SubcommandData("stop", "Stop the running recording and write it to disk.");
+
+    return Commands.slash(settings().name(), settings().description())
+        .addSubcommands(start, dump, stop)
+        .setDefaultPermissions(DefaultMemberPermissions.DISABLED);
+  }
+
+  @Override
+  public void execute(SlashCommandInteractionEvent event) {
+    event.deferReply(true).queue(hook -> {
+
+      String subcommandName = event.getSubcommandName();
+      if (subcommandName == null) {
+        hook.sendMessage(MessageUtil.error(settings, "Invalid subcommand.")).queue();
+        return;
+      }
+
+      try {
+        switch (subcommandName) {
+          default -> hook.sendMessage(MessageUtil.error(settings, "Invalid subcommand.")).queue();
+          case "start" -> {
+            OptionMapping minutesOpt = event.getOption("minutes");
+            Duration duration = minutesOpt == null ? null : Duration.ofMinutes(minutesOpt.getAsLong());
+            Optional<Path> destination = Recordings.start(duration);
+            if (destination.isPresent()) {
+              hook.sendMessage(MessageUtil.success(settings,
+                  "Recording started. It will be written to `" + destination.get() + "` after " + duration.toMinutes() + " minutes.")).queue();
+            } else {
+              hook.sendMessage(MessageUtil.success(settings, "Recording started. Use `/profiler dump` or `/profiler stop` to write it to disk.")).queue();
+            }
+          }
+          case "dump" -> {
+            Path path = Recordings.dump();
+            hook.sendMessage(MessageUtil.success(settings, "Recording written to `" + path + "`.")).queue();
+          }
+          case "stop" -> {
+            Path path = Recordings.stop();
+            hook.sendMessage(MessageUtil.success(settings, "Recording stopped and written to `" + path + "`.")).queue();
+          }
+        }
+      } catch (IllegalStateException e) {
+        hook.sendMessage(MessageUtil.error(settings, e.getMessage())).queue();
+      } catch (Exception e) {
+        hook.sendMessage(MessageUtil.error(settings, "Recording failed: " + e.getMessage())).queue();
+      }
+
+    });
+  }
+
+}
@@ -22,10 +22,12 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.game.GameLifecycle;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.game.EndReason;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.palette.RkpPalette;
@@ -40,6 +42,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Optional;
 
 public class End implements Command {
 
@@ -87,7 +90,11 @@ public class End implements Command {
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
       api.retrieveGroup(GroupIdentifier.of(guild.getId()))
           .queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
-                if (group.deleteGame(GameIdentifier.of(event.getChannel().getId())).complete()) {
+                GameLifecycle.ended(group, guild.getId(), game, EndReason.NONE, Optional.empty(), deleted -> { // A forced end still counts as a played game
+                  if (!deleted) {
+                    hook.sendMessage(MessageUtil.error(settings, "Unable to end game.")).queue();
+                    return;
+                  }
                   EmbedBuilder embedBuilder = new EmbedBuilder();
                   embedBuilder.setColor(settings.embedColor());
                   embedBuilder.setTitle("Game Ended");
@@ -97,9 +104,7 @@ public class End implements Command {
                   hook.sendMessage(MessageUtil.success(settings, "You have ended the game.")).queue(success -> {
                     hook.sendMessageEmbeds(embedBuilder.build()).queue();
                   });
-                } else {
-                  hook.sendMessage(MessageUtil.error(settings, "Unable to end game.")).queue();
-                }
+                });
               }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
           ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
 
@@ -19,22 +19,32 @@
 package com.riskrieg.bot.command.commands.riskrieg.running;
 
 import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.config.GameSeed;
+import com.riskrieg.bot.game.GameLifecycle;
+import com.riskrieg.bot.game.Seeds;
 import com.riskrieg.bot.game.StandardAttack;
-import com.riskrieg.bot.util.ConfigUtil;
+import com.riskrieg.bot.game.TerritoryExpression;
+import com.riskrieg.bot.stats.Statistics;
+import com.riskrieg.bot.util.MapReply;
 import com.riskrieg.bot.util.MessageUtil;
-import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.index.TurnSummary;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.game.ClaimOverride;
-import com.riskrieg.core.api.game.entity.nation.Nation;
 import com.riskrieg.core.api.game.entity.player.Player;
 import com.riskrieg.core.api.game.event.ClaimEvent;
 import com.riskrieg.core.api.game.event.UpdateEvent;
-import com.riskrieg.core.api.game.mode.Brawl;
 import com.riskrieg.core.api.game.territory.Claim;
 import com.riskrieg.core.api.game.territory.GameTerritory;
 import com.riskrieg.core.api.identifier.GameIdentifier;
@@ -43,16 +53,15 @@ import com.riskrieg.core.api.identifier.PlayerIdentifier;
 import com.riskrieg.map.territory.TerritoryIdentity;
 import com.riskrieg.palette.RkpPalette;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
@@ -60,10 +69,9 @@ import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
-public class ClaimCommand implements Command {
+public class ClaimCommand implements Command, Autocompletable {
 
   private final Settings settings;
 
@@ -72,7 +80,9 @@ public class ClaimCommand implements Command {
         "Claim some territory.",
         "claim", "attack", "take")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(3)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -83,7 +93,8 @@ public class ClaimCommand implements Command {
 
   @Override
   public CommandData commandData() {
-    OptionData territories = new OptionData(OptionType.STRING, "territories", "Specify which territories you would like to claim.", true);
+    OptionData territories = new OptionData(OptionType.STRING, "territories", "Specify which territories you would like to claim.", true)
+        .setAutoComplete(true);
     OptionData override = new OptionData(OptionType.STRING, "override", "Override the default claim functionality.", false)
         .addChoice("Auto", "auto")
         .addChoice("Exact", "exact");
@@ -117,9 +128,17 @@ public class ClaimCommand implements Command {
       }
 
       OptionMapping territoriesOpt = event.getOption("territories");
-      List<TerritoryIdentity> territoryList = territoriesOpt == null ? Collections.emptyList() : parseTerritoryList(territoriesOpt.getAsString());
+      TerritoryExpression.Result parsed = TerritoryExpression.parse(territoriesOpt == null ? "" : territoriesOpt.getAsString());
 
-      TerritoryIdentity[] territories = territoryList.toArray(TerritoryIdentity[]::new);
+      MapIndex.Territories known = GameIndex.lookup(guild.getId(), event.getChannel().getId()).territories();
+      if (known != null) { // Reject unknown territories before the game is loaded whenever the map is already indexed
+        parsed = parsed.validate(known);
+      }
+      if (!parsed.isValid()) {
+        hook.sendMessage(MessageUtil.error(settings, parsed.describeErrors())).queue();
+        return;
+      }
+      final TerritoryExpression.Result expression = parsed;
 
       OptionMapping overrideOpt = event.getOption("override");
       ClaimOverride override = overrideOpt == null ? ClaimOverride.NONE : switch (overrideOpt.getAsString()) {
@@ -129,10 +148,32 @@ public class ClaimCommand implements Command {
       };
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      if (trace.expired()) {
+        return;
+      }
+      Span load = trace.begin(Stage.LOAD);
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
-            game.claim(new StandardAttack(), PlayerIdentifier.of(member.getId()), override, territories).queue(claimEvent -> {
+            load.end();
+            if (game.map() != null && (known == null || !known.codename().equals(game.map().codename()))) {
+              TerritoryExpression.Result checked = expression.validate(MapIndex.territories(game.map()));
+              if (!checked.isValid()) {
+                trace.finish();
+                hook.sendMessage(MessageUtil.error(settings, checked.describeErrors())).queue();
+                return;
+              }
+            }
+            if (trace.expired()) {
+              return;
+            }
+            Span logic = trace.begin(Stage.LOGIC);
+            GameSeed seed = Seeds.load(guild.getId(), event.getChannel().getId(), !game.claims().isEmpty());
+            Map<TerritoryIdentity, Claim> before = Statistics.owners(game);
+            game.claim(new StandardAttack(Seeds.generator(seed)), PlayerIdentifier.of(member.getId()), override, expression.identities()).queue(claimEvent -> {
               game.update(true).queue(updateEvent -> {
+                logic.end();
+                Statistics.recordClaim(guild.getId(), game, before, claimEvent, updateEvent);
 
                 String fileName = game.map().codename() + ".png";
                 EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -141,97 +182,81 @@ public class ClaimCommand implements Command {
                 embedBuilder.setDescription(buildTurnDescription(claimEvent, updateEvent));
                 embedBuilder.setImage("attachment://" + fileName);
 
-                switch (game.phase()) {
+                switch (game.phase()) { // Render, acknowledgement and save all start here, the map follows once it is encoded
                   case ENDED -> {
                     embedBuilder.setFooter("Thank you for playing!");
 
-                    hook.sendMessage(genericSuccess).queue(success -> {
-                      hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                      group.deleteGame(GameIdentifier.of(event.getChannel().getId())).queue();
-                    });
+                    MapReply.start(hook, genericSuccess, game, trace).send(embedBuilder.build(), fileName);
+                    GameLifecycle.ended(group, guild.getId(), game, updateEvent.endReason(), updateEvent.currentPlayer());
                   }
                   case ACTIVE -> {
-                    var currentPlayer = updateEvent.currentPlayer();
-                    Optional<Nation> optCurrent = currentPlayer.flatMap(player -> game.getNation(player.identifier()));
-                    String claimStr = "They may claim an unknown amount of territories this turn.";
-                    if (optCurrent.isPresent()) {
-                      long allowedClaimAmount;
-                      if (game.getClass() == Brawl.class && game.claims().size() != game.map().vertices().size()) {
-                        allowedClaimAmount = 1;
-                      } else {
-                        allowedClaimAmount = optCurrent.get().getAllowedClaimAmount(game.claims(), game.constants(), game.map(), game.getAllies(optCurrent.get().identifier()));
-                      }
-                      claimStr = "They may claim " + allowedClaimAmount + " " + (allowedClaimAmount == 1 ? "territory" : "territories") + " this turn.";
-                    }
-                    embedBuilder.setFooter("It is " + (currentPlayer.isPresent() ? currentPlayer.get().name() : "someone") + "'s turn. " + claimStr);
+                    TurnSummary turn = GameIndex.update(game).turn(); // The turn has advanced, so this is the one place the summary is computed
+                    embedBuilder.setFooter(turn.footer());
 
-                    if (ConfigUtil.canMention(hook)) {
-                      hook.sendMessage(genericSuccess).queue(success -> {
-                        currentPlayer.ifPresent(player -> ConfigUtil.sendWithMention(hook, player.identifier().id(), message -> {
-                          message.editMessageEmbeds(embedBuilder.build()).setFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                        }));
-                      });
-                    } else {
-                      hook.sendMessage(genericSuccess).queue(success -> {
-                        hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                      });
-                    }
-                    group.saveGame(game).queue();
+                    MapReply.start(hook, genericSuccess, game, trace)
+                        .persist(save -> group.saveGame(game).queue(saved -> { // The seed only advances once the game it belongs to is on disk
+                          Seeds.saveLater(seed.next());
+                          save.end();
+                        }, save::end))
+                        .sendWithMention(updateEvent.currentPlayer().map(player -> player.identifier().id()).orElse(null), embedBuilder.build(), fileName);
                   }
                   case SETUP -> {
                     embedBuilder.setFooter("");
 
-                    hook.sendMessage(genericSuccess).queue(success -> {
-                      hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                    });
-                    group.saveGame(game).queue();
+                    GameIndex.update(game);
+                    MapReply.start(hook, genericSuccess, game, trace)
+                        .persist(save -> group.saveGame(game).queue(saved -> { // The seed only advances once the game it belongs to is on disk
+                          Seeds.saveLater(seed.next());
+                          save.end();
+                        }, save::end))
+                        .send(embedBuilder.build(), fileName);
                   }
                 }
 
-              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
-            }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
-          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+              }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
+            }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
+          }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue())
+      ), trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
 
     });
   }
 
-  private List<TerritoryIdentity> parseTerritoryList(String input) {
-    List<TerritoryIdentity> territoryList = new ArrayList<>();
-    String[] territoryArray = input.toUpperCase(Locale.ROOT).split("[\s,|/\\\\]+"); // toUppercase() so we don't have to worry about lowercase letters
-    for (String territoryString : territoryArray) {
-      if (territoryString.matches("\\d+[a-zA-Z]\\.\\.\\d+[a-zA-Z]")) { // Parse range
-        String[] range = territoryString.split("\\.\\.");
-        String lhs = range[0].trim();
-        String rhs = range[1].trim();
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    completeTerritories(event);
+  }
 
-        if (!lhs.isBlank() && !rhs.isBlank() && lhs.length() >= 2 && rhs.length() >= 2) {
-          char lhsLetter = lhs.charAt(lhs.length() - 1);
-          char rhsLetter = rhs.charAt(rhs.length() - 1);
-          if (lhsLetter == rhsLetter) {
-            try {
-              int lowerBound = Integer.parseInt(lhs.substring(0, lhs.length() - 1));
-              int upperBound = Integer.parseInt(rhs.substring(0, rhs.length() - 1));
-              if (lowerBound > upperBound) {
-                int temp = upperBound;
-                upperBound = lowerBound;
-                lowerBound = temp;
-              }
-              for (int i = lowerBound; i <= upperBound; i++) {
-                String territoryId = i + String.valueOf(lhsLetter);
-                territoryList.add(new TerritoryIdentity(territoryId));
-              }
-            } catch (NumberFormatException e) {
-              return List.of();
-            }
-          }
-        }
+  static void completeTerritories(CommandAutoCompleteInteractionEvent event) { // Shared with other commands that take a territory expression
+    Guild guild = event.getGuild();
+    if (guild == null || !event.getFocusedOption().getName().equals("territories")) {
+      event.replyChoices().queue();
+      return;
+    }
+    GameIndex.Snapshot snapshot = GameIndex.lookup(guild.getId(), event.getChannel().getId());
+    if (snapshot.territories() == null) {
+      event.replyChoices().queue();
+      return;
+    }
 
-      } else if (!territoryString.isBlank()) {
-        territoryList.add(new TerritoryIdentity(territoryString));
+    String input = event.getFocusedOption().getValue();
+    int split = -1;
+    for (int i = input.length() - 1; i >= 0 && split < 0; i--) {
+      if (TerritoryExpression.isSeparator(input.charAt(i))) {
+        split = i;
       }
     }
-    return territoryList;
+    String head = input.substring(0, split + 1); // Everything already typed is kept, only the last entry is completed
+    String partial = input.substring(split + 1);
+    Set<String> alreadyListed = Set.copyOf(TerritoryExpression.parse(head).territories());
+    TurnSummary turn = snapshot.turn();
+    Set<String> claimable = turn.isTurnOf(event.getUser().getId()) ? turn.frontier() : snapshot.claimableBy(event.getUser().getId());
+
+    List<String> choices = snapshot.territories().names()
+        .search(partial, OptionData.MAX_CHOICES, territory -> claimable.contains(territory) && !alreadyListed.contains(territory)).stream()
+        .map(territory -> head + territory)
+        .filter(choice -> choice.length() <= OptionData.MAX_CHOICE_VALUE_LENGTH)
+        .toList();
+    event.replyChoiceStrings(choices).queue();
   }
 
   private String buildTurnDescription(ClaimEvent claimEvent, UpdateEvent updateEvent) {
@@ -0,0 +1,206 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.commands.riskrieg.running;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.settings.Settings;
+import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.game.AllianceMatrix;
+import com.riskrieg.bot.game.AttackOdds;
+import com.riskrieg.bot.game.ClaimSnapshot;
+import com.riskrieg.bot.game.TerritoryExpression;
+import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.lang.RkLocalizationFunction;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.game.GamePhase;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.entity.player.Player;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import com.riskrieg.core.api.identifier.GroupIdentifier;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import com.riskrieg.palette.RkpPalette;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+
+public class Odds implements Command, Autocompletable {
+
+  private static final int MAX_LISTED = 25;
+
+  private final Settings settings;
+
+  public Odds() {
+    this.settings = new StandardSettings(
+        "Preview the odds of a claim without making it.",
+        "odds")
+        .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
+        .makeGuildOnly();
+  }
+
+  @NonNull
+  @Override
+  public Settings settings() {
+    return settings;
+  }
+
+  @Override
+  public CommandData commandData() {
+    OptionData territories = new OptionData(OptionType.STRING, "territories", "Specify which territories you would like to preview.", true)
+        .setAutoComplete(true);
+
+    return Commands.slash(settings().name(), settings().description()).addOptions(territories)
+        .setGuildOnly(true)
+        .setLocalizationFunction(
+            RkLocalizationFunction.fromExternalBundles(this,
+                DiscordLocale.ENGLISH_US
+            ).build()
+        );
+  }
+
+  @Override
+  public void execute(SlashCommandInteractionEvent event) {
+    event.deferReply(true).queue(hook -> {
+
+      // Guard clauses
+      Member member = event.getMember();
+      if (member == null) {
+        hook.sendMessage(MessageUtil.error(settings, "Could not find member.")).queue();
+        return;
+      }
+
+      Guild guild = event.getGuild();
+      if (guild == null) {
+        hook.sendMessage(MessageUtil.error(settings, "Invalid guild.")).queue();
+        return;
+      }
+
+      OptionMapping territoriesOpt = event.getOption("territories");
+      TerritoryExpression.Result parsed = TerritoryExpression.parse(territoriesOpt == null ? "" : territoriesOpt.getAsString());
+      MapIndex.Territories known = GameIndex.lookup(guild.getId(), event.getChannel().getId()).territories();
+      if (known != null) {
+        parsed = parsed.validate(known);
+      }
+      if (!parsed.isValid()) {
+        hook.sendMessage(MessageUtil.error(settings, parsed.describeErrors())).queue();
+        return;
+      }
+      final TerritoryExpression.Result expression = parsed;
+
+      // Command execution, read-only so the game is never saved
+      Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+            if (!game.phase().equals(GamePhase.ACTIVE) || game.map() == null) {
+              hook.sendMessage(MessageUtil.error(settings, "The game must be in the active phase to use this command.")).queue();
+              return;
+            }
+            if (known == null || !known.codename().equals(game.map().codename())) {
+              TerritoryExpression.Result checked = expression.validate(MapIndex.territories(game.map()));
+              if (!checked.isValid()) {
+                hook.sendMessage(MessageUtil.error(settings, checked.describeErrors())).queue();
+                return;
+              }
+            }
+            Optional<Nation> attacker = game.nations().stream().filter(nation -> nation.leaderIdentifier().id().equals(member.getId())).findAny();
+            if (attacker.isEmpty()) {
+              hook.sendMessage(MessageUtil.error(settings, "You are not in this game.")).queue();
+              return;
+            }
+
+            Map<NationIdentifier, Nation> nations = new HashMap<>();
+            game.nations().forEach(nation -> nations.put(nation.identifier(), nation));
+            Map<TerritoryIdentity, NationIdentifier> owners = new HashMap<>();
+            for (Claim claim : game.claims()) {
+              owners.put(claim.territory().identity(), claim.identifier());
+            }
+            AllianceMatrix alliances = AllianceMatrix.of(game);
+            ClaimSnapshot snapshot = ClaimSnapshot.of(game.map(), game.claims());
+
+            StringBuilder description = new StringBuilder();
+            double expected = 0.0;
+            int listed = 0;
+            for (TerritoryIdentity territory : expression.identities()) {
+              NationIdentifier owner = owners.get(territory);
+              String line;
+              if (owner == null) {
+                expected += 1.0;
+                line = "Unclaimed, **100%**";
+              } else if (owner.equals(attacker.get().identifier())) {
+                line = "Already yours";
+              } else if (alliances.allied(attacker.get().identifier(), owner)) {
+                line = "Held by an ally";
+              } else {
+                ClaimSnapshot.Rolls rolls = snapshot.rolls(attacker.get().identifier(), owner, territory, game.constants());
+                double probability = AttackOdds.successProbability(rolls);
+                expected += probability;
+                line = "**" + percent(probability) + "** (" + rolls.attackRolls() + "d" + rolls.attackSides() + " vs " + rolls.defenseRolls() + "d" + rolls.defenseSides() + ")";
+                Nation defender = nations.get(owner);
+                if (defender != null) {
+                  line += " against " + game.getPlayer(defender.leaderIdentifier()).map(Player::name).orElse("someone");
+                }
+              }
+              if (listed++ < MAX_LISTED) {
+                description.append("**").append(territory).append("**: ").append(line).append("\n");
+              }
+            }
+            if (listed > MAX_LISTED) {
+              description.append("...and ").append(listed - MAX_LISTED).append(" more.\n");
+            }
+
+            EmbedBuilder embedBuilder = new EmbedBuilder();
+            embedBuilder.setColor(settings.embedColor());
+            embedBuilder.setTitle("Claim Odds | " + game.map().displayName());
+            embedBuilder.setDescription(description.toString());
+            embedBuilder.setFooter(String.format(Locale.US, "Expected captures: %.1f of %d. Each territory is evaluated against the current board.", expected, listed));
+            hook.sendMessageEmbeds(embedBuilder.build()).queue();
+          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
+      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+
+    });
+  }
+
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    ClaimCommand.completeTerritories(event);
+  }
+
+  private static String percent(double probability) {
+    return String.format(Locale.US, "%.1f%%", probability * 100.0);
+  }
+
+}
@@ -25,17 +25,18 @@ import com.riskrieg.bot.command.settings.StandardSettings;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.OptionDataUtil;
 import com.riskrieg.bot.util.PaletteUtil;
+import com.riskrieg.bot.util.Palettes;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
-import com.riskrieg.codec.decode.RkpDecoder;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.core.api.identifier.PlayerIdentifier;
 import com.riskrieg.palette.RkpPalette;
-import java.net.URL;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
@@ -100,7 +101,7 @@ public class Palette implements Command {
 
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
 
-      Optional<RkpPalette> optPalette = getPalette(event);
+      Optional<CompletableFuture<RkpPalette>> optPalette = getPalette(event);
       if (optPalette.isEmpty()) {
         api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
               hook.sendMessage(MessageUtil.success(settings, "The current palette is **" + game.palette().name() + "**.",
@@ -109,53 +110,50 @@ public class Palette implements Command {
         ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
         return;
       }
-      final RkpPalette palette = optPalette.get();
 
       // Command execution
-      api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
-            if (game.players().stream().anyMatch(player -> player.identifier().equals(PlayerIdentifier.of(member.getId())))) {
-              game.setPalette(palette).queue(success -> {
-                if(success) {
-                  hook.sendMessage(genericSuccess).queue(success2 -> {
-                    hook.sendMessage(MessageUtil.success(settings, "The palette was successfully updated to **" + palette.name() + "**.",
-                            FileUpload.fromData(PaletteUtil.generatePaletteDisplay(game.palette()), "palette-display.png"))).queue();
-                  });
+      optPalette.get().whenComplete((palette, paletteFailure) -> {
+        if (paletteFailure != null) { // A bad upload is reported instead of quietly switching to the default palette
+          hook.sendMessage(MessageUtil.error(settings, Palettes.describe(paletteFailure))).queue();
+          return;
+        }
+        try { // A throw in here would otherwise be swallowed by the future and leave the deferred reply unanswered
+          api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+                if (game.players().stream().anyMatch(player -> player.identifier().equals(PlayerIdentifier.of(member.getId())))) {
+                  game.setPalette(palette).queue(success -> {
+                    if(success) {
+                      hook.sendMessage(genericSuccess).queue(success2 -> {
+                        hook.sendMessage(MessageUtil.success(settings, "The palette was successfully updated to **" + palette.name() + "**.",
+                                FileUpload.fromData(PaletteUtil.generatePaletteDisplay(game.palette()), "palette-display.png"))).queue();
+                      });
+                    }
+                    GameIndex.update(game);
+                    group.saveGame(game).queue();
+                  }, failure -> {hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue();
+                    System.out.println("failure");});
+                } else {
+                  hook.sendMessage(MessageUtil.error(settings, "Palettes can only be selected by players in the game.")).queue();
                 }
-                group.saveGame(game).queue();
-              }, failure -> {hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue();
-                System.out.println("failure");});
-            } else {
-              hook.sendMessage(MessageUtil.error(settings, "Palettes can only be selected by players in the game.")).queue();
-            }
-          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
+          ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+        } catch (RuntimeException e) {
+          hook.sendMessage(MessageUtil.error(settings, e.getMessage())).queue();
+        }
+      });
 
     });
   }
 
-  private Optional<RkpPalette> getPalette(SlashCommandInteractionEvent event) {
+  private Optional<CompletableFuture<RkpPalette>> getPalette(SlashCommandInteractionEvent event) {
     OptionMapping paletteOpt = event.getOption("palette");
     OptionMapping paletteOverride = event.getOption("file");
     if (paletteOpt == null && paletteOverride == null) {
       return Optional.empty();
     }
-
-    RkpPalette palette = paletteOpt == null ? RkpPalette.standard16() : switch (paletteOpt.getAsString().toLowerCase()) {
-      case "original" -> RkpPalette.original16();
-      case "desatur" -> RkpPalette.desatur8();
-      case "pollen" -> RkpPalette.pollen8();
-      case "gothic" -> RkpPalette.gothic6();
-      default -> RkpPalette.standard16();
-    };
-
     if (paletteOverride != null) {
-      try {
-        palette = new RkpDecoder().decode(new URL(paletteOverride.getAsAttachment().getUrl()));
-      } catch (Exception e) {
-        palette = RkpPalette.standard16();
-      }
+      return Optional.of(Palettes.fromAttachment(paletteOverride.getAsAttachment()));
     }
-    return Optional.of(palette);
+    return Optional.of(CompletableFuture.completedFuture(Palettes.preset(paletteOpt.getAsString())));
   }
 
 }
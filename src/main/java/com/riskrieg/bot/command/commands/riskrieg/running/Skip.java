@@ -22,22 +22,24 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
-import com.riskrieg.bot.util.ConfigUtil;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.stats.Statistics;
+import com.riskrieg.bot.util.MapReply;
 import com.riskrieg.bot.util.MessageUtil;
-import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.TurnSummary;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
-import com.riskrieg.core.api.game.Game;
-import com.riskrieg.core.api.game.entity.nation.Nation;
 import com.riskrieg.core.api.game.event.UpdateEvent;
-import com.riskrieg.core.api.game.mode.Brawl;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.core.api.identifier.PlayerIdentifier;
 import com.riskrieg.palette.RkpPalette;
 import java.nio.file.Path;
-import java.util.Optional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
@@ -46,10 +48,8 @@ import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.DiscordLocale;
-import net.dv8tion.jda.api.interactions.InteractionHook;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 public class Skip implements Command {
@@ -61,7 +61,9 @@ public class Skip implements Command {
         "Skip your turn, or skip the current player's turn if you have the 'Timeout Members' permission.",
         "skip")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(3)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -103,53 +105,57 @@ public class Skip implements Command {
       // TODO: Handle allied victory state -- Not strictly necessary, but would be a nice touch
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      if (trace.expired()) {
+        return;
+      }
+      Span load = trace.begin(Stage.LOAD);
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+            load.end();
             if (member.hasPermission(Permission.MODERATE_MEMBERS)) { // Force-skip
+              if (trace.expired()) {
+                return;
+              }
+              Span logic = trace.begin(Stage.LOGIC);
               game.update(true).queue(updateEvent -> {
+                logic.end();
+                Statistics.recordSkip(guild.getId(), game, updateEvent);
 
-                sendSkipMessage(hook, genericSuccess, game, updateEvent);
-                group.saveGame(game).queue();
+                TurnSummary turn = GameIndex.update(game).turn();
+                MapReply.start(hook, genericSuccess, game, trace)
+                    .persist(save -> group.saveGame(game).queue(save::end, save::end))
+                    .sendWithMention(updateEvent.currentPlayer().map(player -> player.identifier().id()).orElse(null), skipMessage(updateEvent, turn), "map.png");
 
-              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+              }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
             } else { // Self-skip
               var currentPlayer = game.getCurrentPlayer();
               if (currentPlayer.isPresent() && currentPlayer.get().identifier().equals(PlayerIdentifier.of(member.getId()))) {
+                if (trace.expired()) {
+                  return;
+                }
+                Span logic = trace.begin(Stage.LOGIC);
                 game.update(true).queue(updateEvent -> {
+                  logic.end();
+                  Statistics.recordSkip(guild.getId(), game, updateEvent);
 
-                  sendSkipMessage(hook, genericSuccess, game, updateEvent);
-                  group.saveGame(game).queue();
+                  TurnSummary turn = GameIndex.update(game).turn();
+                  MapReply.start(hook, genericSuccess, game, trace)
+                      .persist(save -> group.saveGame(game).queue(save::end, save::end))
+                      .sendWithMention(updateEvent.currentPlayer().map(player -> player.identifier().id()).orElse(null), skipMessage(updateEvent, turn), "map.png");
 
-                }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+                }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
               } else {
                 hook.sendMessage(MessageUtil.error(settings, "You do not have permission to skip this player.")).queue();
               }
             }
-          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+          }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue())
+      ), trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
 
     });
   }
 
-  private void sendSkipMessage(InteractionHook hook, MessageCreateData genericSuccess, Game game, UpdateEvent updateEvent) {
-    if (ConfigUtil.canMention(hook)) {
-      hook.sendMessage(genericSuccess).queue(success -> {
-        updateEvent.currentPlayer().ifPresent(currentPlayer -> {
-          ConfigUtil.sendWithMention(hook, currentPlayer.identifier().id(), message -> {
-            message.editMessageEmbeds(skipMessage(game, updateEvent))
-                .setFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), "map.png")).queue();
-          });
-        });
-      });
-    } else {
-      hook.sendMessage(genericSuccess).queue(success -> {
-        hook.sendMessageEmbeds(skipMessage(game, updateEvent))
-            .addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), "map.png")).queue();
-      });
-    }
-  }
-
-  private MessageEmbed skipMessage(Game game, UpdateEvent updateEvent) {
+  private MessageEmbed skipMessage(UpdateEvent updateEvent, TurnSummary turn) {
     var previousPlayer = updateEvent.previousPlayer();
     var currentPlayer = updateEvent.currentPlayer();
     EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -159,18 +165,7 @@ public class Skip implements Command {
     embedBuilder.setImage("attachment://map.png");
 
     if (currentPlayer.isPresent()) {
-      Optional<Nation> optCurrent = game.getNation(currentPlayer.get().identifier());
-      String claimStr = "They may claim an unknown amount of territories this turn.";
-      if (optCurrent.isPresent()) {
-        long allowedClaimAmount;
-        if (game.getClass() == Brawl.class && game.claims().size() != game.map().vertices().size()) {
-          allowedClaimAmount = 1;
-        } else {
-          allowedClaimAmount = optCurrent.get().getAllowedClaimAmount(game.claims(), game.constants(), game.map(), game.getAllies(optCurrent.get().identifier()));
-        }
-        claimStr = "They may claim " + allowedClaimAmount + " " + (allowedClaimAmount == 1 ? "territory" : "territories") + " this turn.";
-      }
-      embedBuilder.setFooter("It is " + currentPlayer.get().name() + "'s turn. " + claimStr);
+      embedBuilder.setFooter(turn.footer());
     }
 
     return embedBuilder.build();
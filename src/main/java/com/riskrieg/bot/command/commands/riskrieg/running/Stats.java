@@ -19,11 +19,16 @@
 package com.riskrieg.bot.command.commands.riskrieg.running;
 
 import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.stats.GameStats;
+import com.riskrieg.bot.stats.PlayerStats;
+import com.riskrieg.bot.stats.Statistics;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.ParseUtil;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
@@ -33,19 +38,27 @@ import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.palette.RkpColor;
 import com.riskrieg.palette.RkpPalette;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 
-public class Stats implements Command { // TODO: Add ally count
+public class Stats implements Command, Autocompletable { // TODO: Add ally count
+
+  private static final int MAX_STANDINGS = 15;
 
   private final Settings settings;
 
@@ -66,7 +79,7 @@ public class Stats implements Command { // TODO: Add ally count
   @Override
   public CommandData commandData() {
     return Commands.slash(settings().name(), settings().description())
-        .addOption(OptionType.STRING, "color", "Provide a color from the current game palette.", false)
+        .addOption(OptionType.STRING, "color", "Provide a color from the current game palette.", false, true)
         .setGuildOnly(true)
         .setLocalizationFunction(
             RkLocalizationFunction.fromExternalBundles(this,
@@ -99,19 +112,35 @@ public class Stats implements Command { // TODO: Add ally count
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
             if (game.phase().equals(GamePhase.ACTIVE)) {
+              Optional<GameStats> stats = Statistics.get(guild.getId(), event.getChannel().getId());
               if (colorStr.isEmpty()) { // General stats
-                // TODO: Implement
-                hook.sendMessage(MessageUtil.error(settings, "This isn't implemented yet. Please select a color.")).queue();
+                hook.sendMessageEmbeds(gameStatsEmbed(game.map() == null ? "Game" : game.map().displayName(), stats)).queue();
               } else { // Specific player stats
                 RkpColor chosenColor = ParseUtil.parseColor(colorStr.get(), game.palette());
                 var nation = game.getNation(chosenColor);
                 if (nation.isPresent()) {
                   var player = game.getPlayer(nation.get().leaderIdentifier());
                   if (player.isPresent()) {
+                    Optional<PlayerStats> playerStats = stats.map(gameStats -> gameStats.players().get(player.get().identifier().id()));
                     EmbedBuilder embedBuilder = new EmbedBuilder();
                     embedBuilder.setColor(chosenColor.toAwtColor());
                     embedBuilder.setTitle(player.get().name() + " | " + Riskrieg.NAME + " Statistics");
-                    embedBuilder.addField("Territories", nation.get().getClaimedTerritories(game.claims()).size() + "", true);
+                    if (playerStats.isPresent()) {
+                      PlayerStats ps = playerStats.get();
+                      embedBuilder.addField("Territories", ps.held() + "", true);
+                      embedBuilder.addField("Peak", ps.peak() + "", true);
+                      embedBuilder.addField("Claimed", ps.claimed() + "", true);
+                      embedBuilder.addField("Attacks Won", ps.attacksWon() + "", true);
+                      embedBuilder.addField("Attacks Lost", ps.attacksLost() + "", true);
+                      embedBuilder.addField("Capitals Taken", ps.capitalsTaken() + "", true);
+                      embedBuilder.addField("Defended", ps.defended() + "", true);
+                      embedBuilder.addField("Territories Lost", ps.territoriesLost() + "", true);
+                      if (ps.history().size() > 1) {
+                        embedBuilder.addField("Territories Over Time", sparkline(ps.history()), false);
+                      }
+                    } else { // Nothing recorded for this player yet
+                      embedBuilder.addField("Territories", nation.get().getClaimedTerritories(game.claims()).size() + "", true);
+                    }
                     hook.sendMessageEmbeds(embedBuilder.build()).queue();
                   } else {
                     hook.sendMessage(MessageUtil.error(settings, "No player with that color could be found.")).queue();
@@ -129,4 +158,56 @@ public class Stats implements Command { // TODO: Add ally count
     });
   }
 
+  private MessageEmbed gameStatsEmbed(String mapName, Optional<GameStats> stats) {
+    EmbedBuilder embedBuilder = new EmbedBuilder();
+    embedBuilder.setColor(settings.embedColor());
+    embedBuilder.setTitle(mapName + " | " + Riskrieg.NAME + " Statistics");
+    if (stats.isEmpty()) {
+      embedBuilder.setDescription("No turns have been played yet.");
+      return embedBuilder.build();
+    }
+    GameStats gameStats = stats.get();
+    embedBuilder.addField("Turns", gameStats.turns() + "", true);
+    embedBuilder.addField("Claims", gameStats.claims() + "", true);
+    embedBuilder.addField("Capitals Taken", gameStats.capitalsTaken() + "", true);
+    String successRate = gameStats.attacks() == 0 ? "" : String.format(Locale.US, " (%.0f%%)", 100.0 * gameStats.attacksWon() / gameStats.attacks());
+    embedBuilder.addField("Attacks Won", gameStats.attacksWon() + "/" + gameStats.attacks() + successRate, true);
+
+    StringBuilder standings = new StringBuilder();
+    gameStats.players().values().stream()
+        .sorted(Comparator.comparingInt(PlayerStats::held).reversed().thenComparing(PlayerStats::name))
+        .limit(MAX_STANDINGS)
+        .forEach(player -> {
+          standings.append("**").append(player.name()).append("**: ").append(player.held()).append(player.held() == 1 ? " territory" : " territories")
+              .append(" (peak ").append(player.peak()).append(")");
+          if (player.defeatedOnTurn() >= 0) {
+            standings.append(", defeated on turn ").append(player.defeatedOnTurn());
+          }
+          standings.append("\n");
+        });
+    embedBuilder.setDescription(standings.toString());
+    return embedBuilder.build();
+  }
+
+  private static String sparkline(List<Integer> history) {
+    final String bars = "\u2581\u2582\u2583\u2584\u2585\u2586\u2587\u2588"; // Block elements, lowest to highest
+    int max = history.stream().mapToInt(Integer::intValue).max().orElse(0);
+    StringBuilder sb = new StringBuilder();
+    for (int value : history) {
+      sb.append(bars.charAt(max == 0 ? 0 : Math.min(bars.length() - 1, value * (bars.length() - 1) / max)));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    Guild guild = event.getGuild();
+    if (guild == null || !event.getFocusedOption().getName().equals("color")) {
+      event.replyChoices().queue();
+      return;
+    }
+    GameIndex.Snapshot snapshot = GameIndex.lookup(guild.getId(), event.getChannel().getId());
+    event.replyChoiceStrings(snapshot.colors(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES, true)).queue();
+  }
+
 }
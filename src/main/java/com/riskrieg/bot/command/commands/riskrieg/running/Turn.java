@@ -22,13 +22,19 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.util.AttachmentCache;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.TurnSummary;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.game.GamePhase;
-import com.riskrieg.core.api.game.mode.Brawl;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.palette.RkpPalette;
@@ -41,7 +47,6 @@ import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEve
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 public class Turn implements Command {
@@ -53,7 +58,9 @@ public class Turn implements Command {
         "Look at the current state of the map and see whose turn it is.",
         "turn")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(2)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -93,8 +100,14 @@ public class Turn implements Command {
       }
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      if (trace.expired()) {
+        return;
+      }
+      Span load = trace.begin(Stage.LOAD);
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+            load.end();
             if (game.phase().equals(GamePhase.ACTIVE)) {
               String fileName = game.map().codename() + ".png";
               EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -102,29 +115,23 @@ public class Turn implements Command {
               embedBuilder.setTitle(game.map().displayName());
               embedBuilder.setImage("attachment://" + fileName);
 
-              var currentNation = game.getCurrentNation();
-              var currentPlayer = game.getCurrentPlayer();
-              if (currentNation.isPresent() && currentPlayer.isPresent()) {
-                long allowedClaimAmount;
-                if (game.getClass() == Brawl.class && game.claims().size() != game.map().vertices().size()) {
-                  allowedClaimAmount = 1;
-                } else {
-                  allowedClaimAmount = currentNation.get().getAllowedClaimAmount(game.claims(), game.constants(), game.map(), game.getAllies(currentNation.get().identifier()));
-                }
-
-                String claimStr = "They may claim " + allowedClaimAmount + " " + (allowedClaimAmount == 1 ? "territory" : "territories") + " this turn.";
-                embedBuilder.setFooter("It is " + currentPlayer.get().name() + "'s turn. " + claimStr);
+              TurnSummary turn = GameIndex.turn(game);
+              if (turn.playerId() != null && turn.allowedClaims() != TurnSummary.UNKNOWN) {
+                embedBuilder.setFooter(turn.footer());
               }
 
               hook.sendMessage(genericSuccess).queue(success -> {
-                hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
+                byte[] mapImage = RiskriegUtil.constructMapImageData(game, trace);
+                Span upload = trace.begin(Stage.UPLOAD);
+                trace.complete();
+                AttachmentCache.send(hook, embedBuilder.build(), mapImage, fileName, upload);
               });
 
             } else {
               hook.sendMessage(MessageUtil.error(settings, "The game must be in an active state to use this command.")).queue();
             }
-          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+          }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue())
+      ), trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
 
     });
   }
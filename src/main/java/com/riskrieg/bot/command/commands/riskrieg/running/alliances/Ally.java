@@ -22,11 +22,16 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.game.GameLifecycle;
+import com.riskrieg.bot.util.MapReply;
 import com.riskrieg.bot.util.MessageUtil;
-import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.game.EndReason;
 import com.riskrieg.core.api.game.feature.alliance.AllianceStatus;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
@@ -44,8 +49,8 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import java.util.Optional;
 
 public class Ally implements Command {
 
@@ -109,6 +114,7 @@ public class Ally implements Command {
       }
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
             game.ally(PlayerIdentifier.of(requester.getId()), PlayerIdentifier.of(requestee.getId())).queue(allianceEvent -> {
@@ -129,10 +135,8 @@ public class Ally implements Command {
                   embedBuilder.setImage("attachment://" + fileName);
                   embedBuilder.setFooter("Thank you for playing!");
 
-                  hook.sendMessage(genericSuccess).queue(success -> {
-                    hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                    group.deleteGame(GameIdentifier.of(event.getChannel().getId())).queue();
-                  });
+                  MapReply.start(hook, genericSuccess, game, trace).send(embedBuilder.build(), fileName); // A failed render only drops the image, the game is cleaned up regardless
+                  GameLifecycle.ended(group, guild.getId(), game, EndReason.ALLIED_VICTORY, Optional.empty());
                 }
                 default -> {
                   if (allianceEvent.status().equals(AllianceStatus.COMPLETE)) {
@@ -146,7 +150,7 @@ public class Ally implements Command {
                   embedBuilder.setTimestamp(Instant.now());
                   hook.sendMessage(genericSuccess).queue(success -> {
                     hook.sendMessageEmbeds(embedBuilder.build()).queue();
-                    group.saveGame(game).queue();
+                    group.saveGame(game).queue(saved -> GameIndex.update(game)); // The index only follows the game once the change is on disk
                   });
                 }
               }
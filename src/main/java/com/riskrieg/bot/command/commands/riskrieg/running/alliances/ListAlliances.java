@@ -19,37 +19,27 @@
 
 package com.riskrieg.bot.command.commands.riskrieg.running.alliances;
 
-import com.mxgraph.layout.mxCircleLayout;
-import com.mxgraph.util.mxCellRenderer;
-import com.mxgraph.util.mxConstants;
-import com.mxgraph.view.mxGraph;
 import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
-import com.riskrieg.bot.util.ImageUtil;
+import com.riskrieg.bot.game.AllianceMatrix;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
+import com.riskrieg.bot.util.view.AllianceView;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.game.Game;
 import com.riskrieg.core.api.game.entity.nation.Nation;
 import com.riskrieg.core.api.game.entity.player.Player;
 import com.riskrieg.core.api.game.feature.Feature;
-import com.riskrieg.core.api.game.feature.alliance.AllianceStatus;
 import com.riskrieg.core.api.identifier.GameIdentifier;
 import com.riskrieg.core.api.identifier.GroupIdentifier;
 import com.riskrieg.core.api.identifier.PlayerIdentifier;
-import com.riskrieg.palette.RkpColor;
 import com.riskrieg.palette.RkpPalette;
-import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 import java.nio.file.Path;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
@@ -74,7 +64,9 @@ public class ListAlliances implements Command {
         "List your current allies and pending alliance requests.",
         "alliances")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(2)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -159,9 +151,11 @@ public class ListAlliances implements Command {
               StringBuilder outgoingRequests = new StringBuilder();
               StringBuilder incomingRequests = new StringBuilder();
 
-              var alliedPlayers = getAlliedPlayers(nation, game);
-              var outgoingRequestPlayers = getOutgoingRequests(nation, game);
-              var incomingRequestPlayers = getIncomingRequests(nation, game);
+              AllianceMatrix alliances = AllianceMatrix.of(game);
+              String leaderId = nation.leaderIdentifier().id();
+              var alliedPlayers = players(alliances.allies(leaderId), game);
+              var outgoingRequestPlayers = players(alliances.outgoing(leaderId), game);
+              var incomingRequestPlayers = players(alliances.incoming(leaderId), game);
 
               for (Player ally : alliedPlayers) {
                 alliedSb.append("**").append(ally.name()).append("**").append("\n");
@@ -202,40 +196,12 @@ public class ListAlliances implements Command {
     ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
   }
 
-  private Set<Player> getAlliedPlayers(Nation nation, Game game) {
-    Set<Player> alliedPlayers = new HashSet<>();
-
-    Set<Nation> alliedNations = game.getAllies(nation.identifier());
-    for (Nation n : alliedNations) {
-      var p = game.getPlayer(n.leaderIdentifier());
-      p.ifPresent(alliedPlayers::add);
+  private List<Player> players(List<String> leaderIds, Game game) {
+    List<Player> result = new ArrayList<>(leaderIds.size());
+    for (String leaderId : leaderIds) {
+      game.getPlayer(PlayerIdentifier.of(leaderId)).ifPresent(result::add);
     }
-
-    return Collections.unmodifiableSet(alliedPlayers);
-  }
-
-  private Set<Player> getOutgoingRequests(Nation nation, Game game) {
-    Set<PlayerIdentifier> identifiers = new HashSet<>();
-
-    game.nations().forEach(n -> {
-      if (game.allianceStatus(nation.identifier(), n.identifier()).equals(AllianceStatus.OUTGOING)) {
-        identifiers.add(n.leaderIdentifier());
-      }
-    });
-
-    return new HashSet<>(game.players()).stream().filter(p -> identifiers.contains(p.identifier())).collect(Collectors.toUnmodifiableSet());
-  }
-
-  private Set<Player> getIncomingRequests(Nation nation, Game game) {
-    Set<PlayerIdentifier> identifiers = new HashSet<>();
-
-    game.nations().forEach(n -> {
-      if (game.allianceStatus(nation.identifier(), n.identifier()).equals(AllianceStatus.INCOMING)) {
-        identifiers.add(n.leaderIdentifier());
-      }
-    });
-
-    return new HashSet<>(game.players()).stream().filter(p -> identifiers.contains(p.identifier())).collect(Collectors.toUnmodifiableSet());
+    return result;
   }
 
   /* Graph Subcommand */
@@ -244,19 +210,10 @@ public class ListAlliances implements Command {
     Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
     api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(channel.getId())).queue(game -> {
           if (game.isFeatureEnabled(Feature.ALLIANCES)) {
-            //Create the image from the graph
-            mxGraph graph = generateAllyGraph(game);
-
-            mxCircleLayout layout = new mxCircleLayout(graph);
-            layout.setDisableEdgeStyle(false);
-            layout.execute(graph.getDefaultParent());
-
-            BufferedImage image = mxCellRenderer.createBufferedImage(graph, null, 2, RkpPalette.DEFAULT_TERRITORY_COLOR.toAwtColor(), true, null);
+            byte[] image = AllianceView.render(game);
             if (image == null) {
-              image = new BufferedImage(256, 144, BufferedImage.TYPE_INT_ARGB);
-              Graphics2D graphics = image.createGraphics();
-              graphics.setColor(RkpPalette.DEFAULT_TERRITORY_COLOR.toAwtColor());
-              graphics.fillRect(0, 0, 256, 144);
+              hook.sendMessage(MessageUtil.error(settings, "Could not draw the alliance graph right now. Please try again.")).queue();
+              return;
             }
             String fileName = "ally-graph.png";
 
@@ -264,7 +221,7 @@ public class ListAlliances implements Command {
             embedBuilder.setTitle("Alliances Graph");
             embedBuilder.setImage("attachment://" + fileName);
             embedBuilder.setColor(settings.embedColor());
-            hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(ImageUtil.convertToByteArray(image), fileName)).queue();
+            hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(image, fileName)).queue();
           } else {
             hook.sendMessage(MessageUtil.error(settings, "Alliances are not enabled on this game.")).queue();
           }
@@ -272,65 +229,4 @@ public class ListAlliances implements Command {
     ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
   }
 
-  private mxGraph generateAllyGraph(Game game) {
-    mxGraph graph = new mxGraph();
-
-    String borderColor = String.format("%06x", 0xFFFFFF & RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor().getRGB());
-    HashMap<String, Object> vertices = new HashMap<>();
-
-    // Create the graph by adding the player names as the vertices and then associating them
-    for (Player player : game.players()) {
-      String name = player.name();
-      Nation nation = game.getNation(player.identifier()).orElse(null);
-      if (nation != null) {
-        RkpColor rkpColor = game.palette().get(nation.colorId()).orElse(game.palette().last());
-        String color = String.format("%06x", 0xFFFFFF & rkpColor.toAwtColor().getRGB());
-        vertices.put(name, graph.insertVertex(graph.getDefaultParent(), name, null, 0, 0, 15, 15,
-            "ellipse;whiteSpace=wrap;html=1;aspect=fixed;strokeWidth=1;noLabel=1;fillColor=#" + color + ";strokeColor=#" + borderColor));
-      }
-    }
-
-    // Add the edges
-    for (Player player : game.players()) {
-      Nation nation = game.getNation(player.identifier()).orElse(null);
-
-      if (nation != null) {
-        RkpColor rkpColor = game.palette().get(nation.colorId()).orElse(game.palette().last());
-        String color = String.format("%06x", 0xFFFFFF & rkpColor.toAwtColor().getRGB());
-
-        Set<Nation> allies = game.getAllies(nation.identifier());
-
-        for (Nation ally : allies) {
-          var optAlly = game.getPlayer(ally.leaderIdentifier());
-          if (optAlly.isPresent()) {
-            String name = player.name();
-            String nameAlly = optAlly.get().name();
-            String style = "endArrow=classic;startArrow=none;strokeWidth=1;curved=1;snapToPoint=1;dashed=1;dashPattern=1;noLabel=1;strokeColor=#" + color;
-            if (game.allianceStatus(nation.identifier(), ally.identifier()).equals(AllianceStatus.COMPLETE)) {
-              style = "endArrow=none;startArrow=none;strokeWidth=1;curved=1;snapToPoint=1;noLabel=1;strokeColor=#" + borderColor;
-            }
-            graph.insertEdge(graph.getDefaultParent(), "", null, vertices.get(name), vertices.get(nameAlly), style);
-          }
-        }
-      }
-    }
-
-    var vertexStyle = graph.getStylesheet().getDefaultVertexStyle();
-    vertexStyle.put(mxConstants.STYLE_SHAPE, mxConstants.SHAPE_ELLIPSE);
-    mxConstants.STYLE_ALIGN = mxConstants.ALIGN_CENTER;
-    // If labels in vertices are to be set back on, uncomment this and set noLabel to 0 in style vertices and also increase the width and height
-//    vertexStyle.put(mxConstants.STYLE_LABEL_BACKGROUNDCOLOR, "#e0dad9");
-//    mxConstants.STYLE_ALIGN = mxConstants.ALIGN_CENTER;
-//    mxConstants.LABEL_INSET=1;
-
-    var edgeStyle = graph.getStylesheet().getDefaultEdgeStyle();
-    edgeStyle.put(mxConstants.STYLE_EDGE, mxConstants.SHAPE_LINE);
-//    edgeStyle.put(mxConstants.STYLE_EDGE, mxConstants.EDGESTYLE_TOPTOBOTTOM);
-//    edgeStyle.put(mxConstants.STYLE_ENDARROW, "none");
-
-    graph.setAllowDanglingEdges(false);
-
-    return graph;
-  }
-
 }
@@ -23,6 +23,7 @@ import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
 import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
@@ -136,7 +137,7 @@ public class Unally implements Command {
 
               hook.sendMessage(genericSuccess).queue(success -> {
                 hook.sendMessageEmbeds(embedBuilder.build()).queue();
-                group.saveGame(game).queue();
+                group.saveGame(game).queue(saved -> GameIndex.update(game)); // The index only follows the game once the change is on disk
               });
 
             }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
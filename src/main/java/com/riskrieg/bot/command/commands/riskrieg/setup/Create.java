@@ -22,9 +22,10 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.game.Seeds;
 import com.riskrieg.bot.util.*;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
-import com.riskrieg.codec.decode.RkpDecoder;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
 import com.riskrieg.core.api.game.GameConstants;
@@ -42,9 +43,9 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.net.URL;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
@@ -114,8 +115,6 @@ public class Create implements Command {
       String modeStr = modeOpt.getAsString();
       var mode = ParseUtil.parseGameMode(modeStr);
 
-      final RkpPalette palette = getPalette(event);
-
       OptionMapping featuresOpt = event.getOption("features");
       final FeatureFlag[] featureFlags;
       if (featuresOpt != null) {
@@ -126,39 +125,39 @@ public class Create implements Command {
       }
 
       // Command execution
-      Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
-      api.createGroup(GroupIdentifier.of(guild.getId()))
-          .queue(group -> group.createGame(GameConstants.standard().clampTo(palette), palette, GameIdentifier.of(event.getChannel().getId()), mode, featureFlags).queue(game -> {
-                hook.sendMessage(genericSuccess).queue(success -> {
-                  hook.sendMessageEmbeds(createMessage(event.getMember(), modeStr, palette.name(), featureFlags))
-                      .addFiles(FileUpload.fromData(PaletteUtil.generatePaletteDisplay(game.palette()), "palette-display.png"))
-                      .queue();
-                });
-              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-          ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+      getPalette(event).whenComplete((palette, paletteFailure) -> {
+        if (paletteFailure != null) { // A bad upload is reported instead of quietly creating the game with the default palette
+          hook.sendMessage(MessageUtil.error(settings, Palettes.describe(paletteFailure))).queue();
+          return;
+        }
+        try { // A throw in here would otherwise be swallowed by the future and leave the deferred reply unanswered
+          Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+          api.createGroup(GroupIdentifier.of(guild.getId()))
+              .queue(group -> group.createGame(GameConstants.standard().clampTo(palette), palette, GameIdentifier.of(event.getChannel().getId()), mode, featureFlags).queue(game -> {
+                    GameIndex.update(game);
+                    Seeds.create(guild.getId(), event.getChannel().getId());
+                    hook.sendMessage(genericSuccess).queue(success -> {
+                      hook.sendMessageEmbeds(createMessage(event.getMember(), modeStr, palette.name(), featureFlags))
+                          .addFiles(FileUpload.fromData(PaletteUtil.generatePaletteDisplay(game.palette()), "palette-display.png"))
+                          .queue();
+                    });
+                  }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
+              ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+        } catch (RuntimeException e) {
+          hook.sendMessage(MessageUtil.error(settings, e.getMessage())).queue();
+        }
+      });
 
     });
   }
 
-  private RkpPalette getPalette(SlashCommandInteractionEvent event) {
-    OptionMapping paletteOpt = event.getOption("palette");
-    RkpPalette palette = paletteOpt == null ? RkpPalette.standard16() : switch (paletteOpt.getAsString().toLowerCase()) {
-      case "original" -> RkpPalette.original16();
-      case "desatur" -> RkpPalette.desatur8();
-      case "pollen" -> RkpPalette.pollen8();
-      case "gothic" -> RkpPalette.gothic6();
-      default -> RkpPalette.standard16();
-    };
-
+  private CompletableFuture<RkpPalette> getPalette(SlashCommandInteractionEvent event) {
     OptionMapping paletteOverride = event.getOption("file");
     if (paletteOverride != null) {
-      try {
-        palette = new RkpDecoder().decode(new URL(paletteOverride.getAsAttachment().getUrl()));
-      } catch (Exception e) {
-        palette = RkpPalette.standard16();
-      }
+      return Palettes.fromAttachment(paletteOverride.getAsAttachment());
     }
-    return palette;
+    OptionMapping paletteOpt = event.getOption("palette");
+    return CompletableFuture.completedFuture(paletteOpt == null ? RkpPalette.standard16() : Palettes.preset(paletteOpt.getAsString()));
   }
 
   private MessageEmbed createMessage(Member creator, String modeString, String paletteName, FeatureFlag[] featureFlags) {
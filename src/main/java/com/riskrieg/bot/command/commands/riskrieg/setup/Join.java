@@ -19,12 +19,14 @@
 package com.riskrieg.bot.command.commands.riskrieg.setup;
 
 import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.ParseUtil;
 import com.riskrieg.bot.util.StringUtil;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
@@ -42,15 +44,17 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
-public class Join implements Command {
+public class Join implements Command, Autocompletable {
 
   private final Settings settings;
 
@@ -71,7 +75,7 @@ public class Join implements Command {
   @Override
   public CommandData commandData() {
     return Commands.slash(settings().name(), settings().description())
-        .addOption(OptionType.STRING, "color", "Provide a color from the current game palette.", true)
+        .addOption(OptionType.STRING, "color", "Provide a color from the current game palette.", true, true)
         .addOption(OptionType.STRING, "player_name", "Choose a name for your player.", false)
         .setGuildOnly(true)
         .setLocalizationFunction(
@@ -121,11 +125,13 @@ public class Join implements Command {
 
                 hook.sendMessage(genericSuccess).queue(success -> {
                   hook.sendMessageEmbeds(createMessageEmbed(player, nation, game.palette())).queue();
+                  GameIndex.update(game);
                   group.saveGame(game).queue();
                 });
 
               }, failure -> {
                 game.removePlayer(player.identifier()).queue(); // If there's a problem creating the nation, need to remove the player
+                GameIndex.update(game);
                 group.saveGame(game).queue();
                 hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue();
               });
@@ -147,4 +153,15 @@ public class Join implements Command {
     return embedBuilder.build();
   }
 
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    Guild guild = event.getGuild();
+    if (guild == null || !event.getFocusedOption().getName().equals("color")) {
+      event.replyChoices().queue();
+      return;
+    }
+    GameIndex.Snapshot snapshot = GameIndex.lookup(guild.getId(), event.getChannel().getId());
+    event.replyChoiceStrings(snapshot.colors(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES, false)).queue();
+  }
+
 }
@@ -19,12 +19,20 @@
 package com.riskrieg.bot.command.commands.riskrieg.setup;
 
 import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.Autocompletable;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.util.AttachmentCache;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.ParseUtil;
 import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.bot.util.index.MapIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.codec.decode.RkmDecoder;
 import com.riskrieg.core.api.Riskrieg;
@@ -40,21 +48,23 @@ import com.riskrieg.palette.RkpPalette;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import java.util.Optional;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
-public class MapSelect implements Command {
+public class MapSelect implements Command, Autocompletable {
 
   private final Settings settings;
 
@@ -63,7 +73,9 @@ public class MapSelect implements Command {
         "Select a " + Riskrieg.NAME + " map.",
         "map")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(3)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -75,7 +87,7 @@ public class MapSelect implements Command {
   @Override
   public CommandData commandData() {
     return Commands.slash(settings().name(), settings().description())
-        .addOption(OptionType.STRING, "title", "Type the name of the map you want to select.", true)
+        .addOption(OptionType.STRING, "title", "Type the name of the map you want to select.", true, true)
         .setGuildOnly(true)
         .setLocalizationFunction(
             RkLocalizationFunction.fromExternalBundles(this,
@@ -111,9 +123,10 @@ public class MapSelect implements Command {
         return;
       }
 
-      Optional<String> mapCodename = ParseUtil.parseMapCodename(Path.of(BotConstants.MAP_METADATA_PATH), mapCodenameOpt.getAsString());
+      Optional<String> mapCodename = ParseUtil.parseMapCodename(mapCodenameOpt.getAsString());
       if (mapCodename.isEmpty()) {
-        hook.sendMessage(MessageUtil.error(settings, "Invalid map name.")).queue();
+        List<String> suggestions = ParseUtil.suggestMapCodenames(mapCodenameOpt.getAsString(), 3);
+        hook.sendMessage(MessageUtil.error(settings, "Invalid map name." + (suggestions.isEmpty() ? "" : " Did you mean: **" + String.join("**, **", suggestions) + "**?"))).queue();
         return;
       }
 
@@ -124,10 +137,21 @@ public class MapSelect implements Command {
         if (metadata != null && metadata.availability().equals(Availability.AVAILABLE)) {
 
           // Command execution
+          InteractionTrace trace = Traces.of(event);
           Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+          if (trace.expired()) {
+            return;
+          }
+          Span load = trace.begin(Stage.LOAD);
           api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+                load.end();
                 if (game.players().stream().anyMatch(player -> player.identifier().equals(PlayerIdentifier.of(member.getId())))) {
+                  if (trace.expired()) {
+                    return;
+                  }
+                  Span logic = trace.begin(Stage.LOGIC);
                   game.selectMap(selectedMap).queue(map -> {
+                    logic.end();
                     String fileName = map.codename() + ".png";
                     EmbedBuilder embedBuilder = new EmbedBuilder();
                     embedBuilder.setColor(settings.embedColor());
@@ -138,15 +162,20 @@ public class MapSelect implements Command {
                     embedBuilder.setImage("attachment://" + fileName);
 
                     hook.sendMessage(genericSuccess).queue(success -> {
-                      hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                      group.saveGame(game).queue();
+                      byte[] mapImage = RiskriegUtil.constructMapImageData(game, trace);
+                      Span upload = trace.begin(Stage.UPLOAD);
+                      AttachmentCache.send(hook, embedBuilder.build(), mapImage, fileName, upload);
+                      GameIndex.update(game);
+                      Span save = trace.begin(Stage.SAVE);
+                      trace.complete();
+                      group.saveGame(game).queue(save::end, save::end);
                     });
-                  });
+                  }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
                 } else {
                   hook.sendMessage(MessageUtil.error(settings, "Maps can only be selected by players in the game.")).queue();
                 }
-              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-          ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+              }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue())
+          ), trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
 
         } else {
           hook.sendMessage(MessageUtil.error(settings, "That map is not available.")).queue();
@@ -158,4 +187,13 @@ public class MapSelect implements Command {
     });
   }
 
+  @Override
+  public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+    if (!event.getFocusedOption().getName().equals("title")) {
+      event.replyChoices().queue();
+      return;
+    }
+    event.replyChoiceStrings(MapIndex.catalog().search(event.getFocusedOption().getValue(), OptionData.MAX_CHOICES)).queue();
+  }
+
 }
@@ -22,10 +22,14 @@ import com.riskrieg.bot.BotConstants;
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.command.settings.Settings;
 import com.riskrieg.bot.command.settings.StandardSettings;
-import com.riskrieg.bot.util.ConfigUtil;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.util.MapReply;
 import com.riskrieg.bot.util.MessageUtil;
 import com.riskrieg.bot.util.OptionDataUtil;
-import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.GameIndex;
 import com.riskrieg.bot.util.lang.RkLocalizationFunction;
 import com.riskrieg.core.api.Riskrieg;
 import com.riskrieg.core.api.RiskriegBuilder;
@@ -47,7 +51,6 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 
 public class Start implements Command {
@@ -59,7 +62,9 @@ public class Start implements Command {
         "Start the game.",
         "start", "begin", "play")
         .withColor(RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor())
-        .makeGuildOnly();
+        .makeGuildOnly()
+        .withCost(3)
+        .makeRenderHeavy();
   }
 
   @NonNull
@@ -117,10 +122,21 @@ public class Start implements Command {
       final boolean randomizeStart = randomizeFirstOpt != null && randomizeFirstOpt.getAsBoolean();
 
       // Command execution
+      InteractionTrace trace = Traces.of(event);
       Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+      if (trace.expired()) {
+        return;
+      }
+      Span load = trace.begin(Stage.LOAD);
       api.retrieveGroup(GroupIdentifier.of(guild.getId())).queue(group -> group.retrieveGame(GameIdentifier.of(event.getChannel().getId())).queue(game -> {
+            load.end();
             if (game.players().stream().anyMatch(player -> player.identifier().equals(PlayerIdentifier.of(member.getId())))) {
+              if (trace.expired()) {
+                return;
+              }
+              Span logic = trace.begin(Stage.LOGIC);
               game.start(order, reverseOrder, randomizeStart).queue(currentPlayer -> {
+                logic.end();
                 StringBuilder description = new StringBuilder();
                 description.append("Turn order: **").append(order.displayName()).append("**.").append("\n");
                 // TODO: Notify if reverse order and randomize start is on
@@ -136,25 +152,17 @@ public class Start implements Command {
                 embedBuilder.setFooter("It is " + currentPlayer.name() + "'s turn."); // TODO: Add allowed claim amount?
                 embedBuilder.setImage("attachment://" + fileName);
 
-                if (ConfigUtil.canMention(hook)) {
-                  hook.sendMessage(genericSuccess).queue(success -> {
-                    ConfigUtil.sendWithMention(hook, currentPlayer.identifier().id(), message -> {
-                      message.editMessageEmbeds(embedBuilder.build()).setFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                    });
-                  });
-                } else {
-                  hook.sendMessage(genericSuccess).queue(success -> {
-                    hook.sendMessageEmbeds(embedBuilder.build()).addFiles(FileUpload.fromData(RiskriegUtil.constructMapImageData(game), fileName)).queue();
-                  });
-                }
-                group.saveGame(game).queue();
-
-              }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+                GameIndex.update(game);
+                MapReply.start(hook, genericSuccess, game, trace)
+                    .persist(save -> group.saveGame(game).queue(save::end, save::end))
+                    .sendWithMention(currentPlayer.identifier().id(), embedBuilder.build(), fileName);
+
+              }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
             } else {
               hook.sendMessage(MessageUtil.error(settings, "The game can only be started by players in the game.")).queue();
             }
-          }, failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()
-      ), failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue());
+          }, trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue())
+      ), trace.failure(failure -> hook.sendMessage(MessageUtil.error(settings, failure.getMessage())).queue()));
 
     });
   }
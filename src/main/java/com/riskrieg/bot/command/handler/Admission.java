@@ -0,0 +1,42 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.handler;
+
+public enum Admission {
+
+  ADMITTED(""),
+  USER_THROTTLED("You are using commands too quickly. Please wait a few seconds and try again."),
+  GUILD_THROTTLED("This server is using commands too quickly. Please wait a few seconds and try again."),
+  RENDER_SATURATED("The bot is busy drawing maps for other games right now. Please try again in a moment.");
+
+  private final String message;
+
+  Admission(String message) {
+    this.message = message;
+  }
+
+  public String message() {
+    return message;
+  }
+
+  public boolean admitted() {
+    return this == ADMITTED;
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.handler;
+
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.util.MessageUtil;
+import com.riskrieg.bot.util.RenderGate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+
+public class AdmissionController implements Middleware {
+
+  public static final int USER_CAPACITY = 12;
+  public static final double USER_REFILL_PER_SECOND = 0.5;
+  public static final int GUILD_CAPACITY = 40;
+  public static final double GUILD_REFILL_PER_SECOND = 2.0;
+
+  static final long EVICTION_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1); // Full buckets are equivalent to new ones, so they are dropped at most this often
+
+  private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+  private final Map<String, TokenBucket> guildBuckets = new ConcurrentHashMap<>();
+
+  private final Map<Admission, LongAdder> decisions = new EnumMap<>(Admission.class);
+  private final Map<String, LongAdder> throttledByCommand = new ConcurrentHashMap<>();
+  private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+  public AdmissionController() {
+    for (Admission admission : Admission.values()) {
+      decisions.put(admission, new LongAdder());
+    }
+  }
+
+  @Override
+  public void handle(Command command, SlashCommandInteractionEvent event, Runnable next) {
+    Admission admission = admit(command, event);
+    if (admission.admitted()) {
+      next.run();
+    } else {
+      event.reply(MessageUtil.error(command.settings(), admission.message())).setEphemeral(true).queue();
+    }
+  }
+
+  public Admission admit(Command command, SlashCommandInteractionEvent event) {
+    Admission result = evaluate(command, event);
+    decisions.get(result).increment();
+    if (!result.admitted()) {
+      throttledByCommand.computeIfAbsent(command.settings().name(), name -> new LongAdder()).increment();
+    }
+    return result;
+  }
+
+  private Admission evaluate(Command command, SlashCommandInteractionEvent event) {
+    Guild guild = event.getGuild();
+    return evaluate(event.getUser().getId(), guild == null ? null : guild.getId(), command.settings().cost(), command.settings().renderHeavy(), System.nanoTime());
+  }
+
+  Admission evaluate(String userId, String guildId, int cost, boolean renderHeavy, long now) {
+    if (cost == 0) {
+      return Admission.ADMITTED;
+    }
+    if (renderHeavy && RenderGate.isSaturated()) { // Check before consuming tokens so a saturated renderer doesn't drain buckets
+      return Admission.RENDER_SATURATED;
+    }
+
+    evictIdle(now);
+
+    TokenBucket userBucket = userBuckets.computeIfAbsent(userId, id -> new TokenBucket(USER_CAPACITY, USER_REFILL_PER_SECOND, now));
+    if (!userBucket.tryConsume(cost, now)) {
+      return Admission.USER_THROTTLED;
+    }
+
+    if (guildId != null) {
+      TokenBucket guildBucket = guildBuckets.computeIfAbsent(guildId, id -> new TokenBucket(GUILD_CAPACITY, GUILD_REFILL_PER_SECOND, now));
+      if (!guildBucket.tryConsume(cost, now)) {
+        userBucket.refund(cost); // The user wasn't at fault, so don't charge them for the rejection
+        return Admission.GUILD_THROTTLED;
+      }
+    }
+    return Admission.ADMITTED;
+  }
+
+  void evictIdle(long now) { // One request per interval pays for the scan, the rest only read the timestamp
+    long last = lastEviction.get();
+    if (now - last < EVICTION_INTERVAL_NANOS || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    guildBuckets.values().removeIf(bucket -> bucket.isFull(now));
+  }
+
+  int trackedBuckets() {
+    return userBuckets.size() + guildBuckets.size();
+  }
+
+  /* Metrics */
+
+  public long count(Admission admission) {
+    return decisions.get(admission).sum();
+  }
+
+  public long throttledCount() {
+    return count(Admission.USER_THROTTLED) + count(Admission.GUILD_THROTTLED) + count(Admission.RENDER_SATURATED);
+  }
+
+  public Map<String, Long> throttledByCommand() {
+    Map<String, Long> result = new ConcurrentHashMap<>();
+    throttledByCommand.forEach((name, adder) -> result.put(name, adder.sum()));
+    return Collections.unmodifiableMap(result);
+  }
+
+}
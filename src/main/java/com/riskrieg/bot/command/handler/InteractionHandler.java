@@ -18,22 +18,30 @@
 
 package com.riskrieg.bot.command.handler;
 
+import com.riskrieg.bot.command.Autocompletable;
 import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.trace.TracingMiddleware;
+import com.riskrieg.bot.metrics.jfr.DispatchEvent;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
 public class InteractionHandler {
 
   private final String ownerId;
   private final Set<Command> commands = new HashSet<>();
+  private final AdmissionController admissionController = new AdmissionController();
+  private final List<Middleware> middleware;
 
   public InteractionHandler(String ownerId) {
     this.ownerId = ownerId;
+    this.middleware = List.of(admissionController, new TracingMiddleware()); // Admission runs first so rejected requests are never traced
   }
 
   public void registerCommands(@Nonnull final Set<Command> commands) {
@@ -42,14 +50,45 @@ public class InteractionHandler {
   }
 
   public void process(SlashCommandInteractionEvent event) {
-    var command = fetchCommand(event);
+    var command = fetchCommand(event.getName());
     if (command.isPresent() && canExecute(command.get(), event)) {
-      command.get().execute(event);
+      DispatchEvent dispatchEvent = new DispatchEvent();
+      dispatchEvent.begin();
+      dispatch(command.get(), event, 0, dispatchEvent);
+      dispatchEvent.end();
+      if (dispatchEvent.shouldCommit()) {
+        Guild guild = event.getGuild();
+        dispatchEvent.commandName = command.get().settings().name();
+        dispatchEvent.guildId = guild == null ? null : guild.getId();
+        dispatchEvent.commit();
+      }
     } else {
       event.reply("Command action failed.").setEphemeral(true).queue();
     }
   }
 
+  public void processAutocomplete(CommandAutoCompleteInteractionEvent event) {
+    var command = fetchCommand(event.getName());
+    if (command.isPresent() && command.get() instanceof Autocompletable autocompletable) {
+      autocompletable.autocomplete(event);
+    } else {
+      event.replyChoices().queue();
+    }
+  }
+
+  private void dispatch(Command command, SlashCommandInteractionEvent event, int index, DispatchEvent dispatchEvent) {
+    if (index >= middleware.size()) {
+      dispatchEvent.admitted = true;
+      command.execute(event);
+      return;
+    }
+    middleware.get(index).handle(command, event, () -> dispatch(command, event, index + 1, dispatchEvent));
+  }
+
+  public AdmissionController admissionController() {
+    return admissionController;
+  }
+
   private boolean canExecute(Command command, SlashCommandInteractionEvent event) {
     if (command.settings().ownerOnly() && !event.getUser().getId().equals(ownerId)) {
       return false;
@@ -68,12 +107,12 @@ public class InteractionHandler {
     return true;
   }
 
-  private Optional<Command> fetchCommand(SlashCommandInteractionEvent event) {
-    if (event == null) {
+  private Optional<Command> fetchCommand(String name) {
+    if (name == null) {
       return Optional.empty();
     }
     for (Command command : commands) {
-      if (command.settings().aliasesSet().contains(event.getName())) {
+      if (command.settings().aliasesSet().contains(name)) {
         return Optional.of(command);
       }
     }
@@ -0,0 +1,71 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.handler;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucket {
+
+  private final double capacity;
+  private final double refillPerNano;
+
+  private double tokens;
+  private long lastRefill;
+
+  public TokenBucket(int capacity, double refillPerSecond, long now) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Field 'capacity' must be positive");
+    }
+    if (refillPerSecond <= 0) {
+      throw new IllegalArgumentException("Field 'refillPerSecond' must be positive");
+    }
+    this.capacity = capacity;
+    this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.tokens = capacity;
+    this.lastRefill = now;
+  }
+
+  public synchronized boolean tryConsume(int amount, long now) {
+    refill(now);
+    double cost = Math.min(amount, capacity); // A cost larger than the bucket would otherwise never be admitted
+    if (tokens < cost) {
+      return false;
+    }
+    tokens -= cost;
+    return true;
+  }
+
+  public synchronized void refund(int amount) {
+    tokens = Math.min(capacity, tokens + Math.min(amount, capacity));
+  }
+
+  public synchronized boolean isFull(long now) {
+    refill(now);
+    return tokens >= capacity;
+  }
+
+  private void refill(long now) {
+    long elapsed = now - lastRefill;
+    if (elapsed > 0) {
+      tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+      lastRefill = now;
+    }
+  }
+
+}
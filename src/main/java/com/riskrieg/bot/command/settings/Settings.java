@@ -19,6 +19,7 @@
 package com.riskrieg.bot.command.settings;
 
 import java.awt.Color;
+import java.time.Duration;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import net.dv8tion.jda.api.Permission;
@@ -64,4 +65,17 @@ public interface Settings {
     return new Permission[0];
   }
 
+  default int cost() { // Admission tokens consumed per invocation
+    return 1;
+  }
+
+  default boolean renderHeavy() { // Subject to the global render cap
+    return false;
+  }
+
+  @Nonnull
+  default Duration deadline() {
+    return renderHeavy() ? Duration.ofSeconds(30) : Duration.ofSeconds(10);
+  }
+
 }
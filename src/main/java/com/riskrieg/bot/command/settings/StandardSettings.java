@@ -25,7 +25,8 @@ import net.dv8tion.jda.api.Permission;
 
 public record StandardSettings(boolean disabled, boolean ownerOnly, boolean guildOnly,
                                @Nonnull String description, @Nonnull String[] aliases, @Nonnull Color embedColor,
-                               @Nonnull Permission[] authorPermissions, @Nonnull Permission[] selfPermissions) implements Settings {
+                               @Nonnull Permission[] authorPermissions, @Nonnull Permission[] selfPermissions,
+                               int cost, boolean renderHeavy) implements Settings {
 
   public StandardSettings {
     Objects.requireNonNull(aliases);
@@ -39,34 +40,45 @@ public record StandardSettings(boolean disabled, boolean ownerOnly, boolean guil
     if (description.isBlank()) {
       throw new IllegalStateException("Field 'description' cannot be blank");
     }
+    if (cost < 0) {
+      throw new IllegalStateException("Field 'cost' cannot be negative");
+    }
   }
 
   public StandardSettings(@Nonnull String description, @Nonnull String... aliases) {
-    this(false, false, false, description, aliases, new Color(128, 128, 128), new Permission[0], new Permission[0]);
+    this(false, false, false, description, aliases, new Color(128, 128, 128), new Permission[0], new Permission[0], 1, false);
   }
 
   public StandardSettings withColor(Color embedColor) {
-    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor, authorPermissions(), selfPermissions());
+    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor, authorPermissions(), selfPermissions(), cost(), renderHeavy());
   }
 
   public StandardSettings withAuthorPermissions(Permission... authorPermissions) {
-    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions, selfPermissions());
+    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions, selfPermissions(), cost(), renderHeavy());
   }
 
   public StandardSettings withSelfPermissions(Permission... selfPermissions) {
-    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions);
+    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions, cost(), renderHeavy());
   }
 
   public StandardSettings makeDisabled() {
-    return new StandardSettings(true, ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions());
+    return new StandardSettings(true, ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions(), cost(), renderHeavy());
   }
 
   public StandardSettings makeOwnerOnly() {
-    return new StandardSettings(disabled(), true, guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions());
+    return new StandardSettings(disabled(), true, guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions(), cost(), renderHeavy());
   }
 
   public StandardSettings makeGuildOnly() {
-    return new StandardSettings(disabled(), ownerOnly(), true, description(), aliases(), embedColor(), authorPermissions(), selfPermissions());
+    return new StandardSettings(disabled(), ownerOnly(), true, description(), aliases(), embedColor(), authorPermissions(), selfPermissions(), cost(), renderHeavy());
+  }
+
+  public StandardSettings withCost(int cost) {
+    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions(), cost, renderHeavy());
+  }
+
+  public StandardSettings makeRenderHeavy() {
+    return new StandardSettings(disabled(), ownerOnly(), guildOnly(), description(), aliases(), embedColor(), authorPermissions(), selfPermissions(), cost(), true);
   }
 
 }
@@ -0,0 +1,247 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.trace;
+
+import com.riskrieg.bot.metrics.Metrics;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class InteractionTrace {
+
+  public static final InteractionTrace NONE = new InteractionTrace(0L, "none", null, Long.MAX_VALUE, false);
+
+  public enum State {
+    RUNNING, FINISHED, EXPIRED
+  }
+
+  private final long id;
+  private final String commandName;
+  private final String guildId;
+  private final Instant startTime;
+  private final long startNanos;
+  private final long deadlineMillis;
+  private final boolean recording;
+
+  private final List<Span> spans = new ArrayList<>();
+  private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+  private volatile Consumer<InteractionTrace> closeListener = trace -> {
+  };
+
+  private int openSpans = 0;
+  private boolean completed = false; // The command has sent its last reply, the trace closes once its open spans end
+  private volatile boolean attached = false; // Set once the command looks the trace up, i.e. it reports its own progress through spans
+
+  public InteractionTrace(long id, String commandName, String guildId, long deadlineMillis) {
+    this(id, commandName, guildId, deadlineMillis, true);
+  }
+
+  private InteractionTrace(long id, String commandName, String guildId, long deadlineMillis, boolean recording) {
+    this.id = id;
+    this.commandName = commandName;
+    this.guildId = guildId;
+    this.startTime = Instant.now();
+    this.startNanos = System.nanoTime();
+    this.deadlineMillis = deadlineMillis;
+    this.recording = recording;
+  }
+
+  public long id() {
+    return id;
+  }
+
+  public String commandName() {
+    return commandName;
+  }
+
+  public String guildId() {
+    return guildId;
+  }
+
+  public Instant startTime() {
+    return startTime;
+  }
+
+  public long deadlineMillis() {
+    return deadlineMillis;
+  }
+
+  public State state() {
+    return state.get();
+  }
+
+  void onClose(Consumer<InteractionTrace> closeListener) {
+    this.closeListener = closeListener;
+  }
+
+  void attach() {
+    attached = true;
+  }
+
+  boolean isAttached() {
+    return attached;
+  }
+
+  /* Spans */
+
+  public boolean expired() { // Checked before LOAD and LOGIC, nothing has been changed yet so the command can stop there; the user was already told
+    return state.get() == State.EXPIRED;
+  }
+
+  public Span begin(Stage stage) {
+    long now = System.nanoTime();
+    boolean overran = expired() || TimeUnit.NANOSECONDS.toMillis(now - startNanos) > deadlineMillis; // Later stages always run, a mutated game must still be saved and shown
+    Span span = new Span(this, stage, now, overran);
+    if (recording) {
+      synchronized (this) {
+        spans.add(span);
+        openSpans++;
+      }
+    }
+    return span;
+  }
+
+  public <T> T span(Stage stage, Supplier<T> supplier) {
+    Span span = begin(stage);
+    try {
+      return supplier.get();
+    } finally {
+      span.end();
+    }
+  }
+
+  public void run(Stage stage, Runnable runnable) {
+    Span span = begin(stage);
+    try {
+      runnable.run();
+    } finally {
+      span.end();
+    }
+  }
+
+  void onSpanEnd(Span span) {
+    if (recording) {
+      boolean idle;
+      synchronized (this) {
+        openSpans--;
+        idle = completed && openSpans == 0;
+      }
+      Metrics.stage(span.stage()).observeNanos(span.durationNanos());
+      if (idle) {
+        finish();
+      }
+    }
+  }
+
+  public synchronized boolean hasSpans() {
+    return !spans.isEmpty();
+  }
+
+  public synchronized boolean hasOpenSpans() {
+    return openSpans > 0;
+  }
+
+  public synchronized List<Span> spans() {
+    return Collections.unmodifiableList(new ArrayList<>(spans));
+  }
+
+  public Map<Stage, Long> stageNanos() {
+    Map<Stage, Long> result = new EnumMap<>(Stage.class);
+    for (Span span : spans()) {
+      result.merge(span.stage(), span.durationNanos(), Long::sum);
+    }
+    return result;
+  }
+
+  public long elapsedNanos() { // Measured up to the end of the last span, so idle time after the command finished isn't counted
+    long end = startNanos;
+    for (Span span : spans()) {
+      end = Math.max(end, span.isOpen() ? System.nanoTime() : span.endNanos());
+    }
+    return end - startNanos;
+  }
+
+  public long elapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+  }
+
+  /* Lifecycle */
+
+  public void finish() {
+    if (state.compareAndSet(State.RUNNING, State.FINISHED)) {
+      closeListener.accept(this);
+    }
+  }
+
+  public void complete() { // Called once the last stage has begun, so the slow-trace log sees the command end when it really does
+    if (!recording) {
+      return;
+    }
+    boolean idle;
+    synchronized (this) {
+      completed = true;
+      idle = openSpans == 0;
+    }
+    if (idle) {
+      finish();
+    }
+  }
+
+  boolean expire() {
+    if (state.compareAndSet(State.RUNNING, State.EXPIRED)) {
+      closeListener.accept(this);
+      return true;
+    }
+    return false;
+  }
+
+  public Consumer<Throwable> failure(Consumer<Throwable> handler) { // Failures end the interaction, so close the trace before handling them
+    return failure -> {
+      finish();
+      handler.accept(failure);
+    };
+  }
+
+  public String summary() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(startTime).append(" ");
+    sb.append("/").append(commandName);
+    sb.append(" id=").append(id);
+    sb.append(" guild=").append(guildId == null ? "none" : guildId);
+    sb.append(" total=").append(elapsedMillis()).append("ms");
+    stageNanos().forEach((stage, nanos) -> sb.append(" ").append(stage.label()).append("=").append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms"));
+    if (state.get() == State.EXPIRED) {
+      sb.append(" TIMEOUT(").append(deadlineMillis).append("ms)");
+    }
+    String overran = spans().stream().filter(Span::overran).map(span -> span.stage().label()).distinct().collect(Collectors.joining(","));
+    if (!overran.isEmpty()) {
+      sb.append(" overran=").append(overran);
+    }
+    return sb.toString();
+  }
+
+}
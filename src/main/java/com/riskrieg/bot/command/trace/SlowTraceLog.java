@@ -0,0 +1,84 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.trace;
+
+import com.riskrieg.bot.BotConstants;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class SlowTraceLog {
+
+  public static final long SLOW_THRESHOLD_MILLIS = 2000;
+  public static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+  public static final int MAX_ROLLED_FILES = 5;
+
+  private static final Path path = Path.of(BotConstants.LOG_PATH + "slow-interactions.log");
+
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "slow-trace-log");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private SlowTraceLog() {
+  }
+
+  public static boolean isSlow(InteractionTrace trace) {
+    return trace.state() == InteractionTrace.State.EXPIRED || trace.elapsedMillis() >= SLOW_THRESHOLD_MILLIS;
+  }
+
+  public static void record(InteractionTrace trace) {
+    String line = trace.summary() + System.lineSeparator();
+    writer.execute(() -> append(line)); // Keep file I/O off the interaction threads
+  }
+
+  private static void append(String line) {
+    try {
+      Files.createDirectories(path.getParent());
+      if (Files.exists(path) && Files.size(path) >= MAX_FILE_BYTES) {
+        roll();
+      }
+      Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      System.err.println("[Trace] Could not write to slow interaction log: " + e.getMessage());
+    }
+  }
+
+  private static void roll() throws IOException {
+    Files.deleteIfExists(rolled(MAX_ROLLED_FILES));
+    for (int i = MAX_ROLLED_FILES - 1; i >= 1; i--) {
+      Path source = rolled(i);
+      if (Files.exists(source)) {
+        Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static Path rolled(int index) {
+    return path.resolveSibling(path.getFileName() + "." + index);
+  }
+
+}
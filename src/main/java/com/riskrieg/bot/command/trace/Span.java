@@ -0,0 +1,93 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.trace;
+
+import com.riskrieg.bot.metrics.jfr.GameIoEvent;
+
+public class Span {
+
+  private final InteractionTrace trace;
+  private final Stage stage;
+  private final long startNanos;
+  private final GameIoEvent ioEvent;
+  private final boolean overran; // Began after the interaction's deadline had passed
+  private volatile long endNanos = -1;
+
+  Span(InteractionTrace trace, Stage stage, long startNanos, boolean overran) {
+    this.trace = trace;
+    this.stage = stage;
+    this.startNanos = startNanos;
+    this.overran = overran;
+    if (stage == Stage.LOAD || stage == Stage.SAVE) { // Game I/O has no hook in core, so the span doubles as the flight recorder event
+      this.ioEvent = new GameIoEvent();
+      this.ioEvent.begin();
+    } else {
+      this.ioEvent = null;
+    }
+  }
+
+  public Stage stage() {
+    return stage;
+  }
+
+  public long startNanos() {
+    return startNanos;
+  }
+
+  public long endNanos() {
+    return endNanos;
+  }
+
+  public boolean overran() {
+    return overran;
+  }
+
+  public boolean isOpen() {
+    return endNanos < 0;
+  }
+
+  public long durationNanos() {
+    long end = endNanos;
+    return (end < 0 ? System.nanoTime() : end) - startNanos;
+  }
+
+  public void end() {
+    synchronized (this) {
+      if (endNanos >= 0) {
+        return;
+      }
+      endNanos = System.nanoTime();
+    }
+    if (ioEvent != null) {
+      ioEvent.end();
+      if (ioEvent.shouldCommit()) {
+        ioEvent.operation = stage.label();
+        ioEvent.commandName = trace.commandName();
+        ioEvent.guildId = trace.guildId();
+        ioEvent.commit();
+      }
+    }
+    trace.onSpanEnd(this);
+  }
+
+  public void end(Object ignored) { // So that spans can be closed directly from success and failure callbacks
+    end();
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.trace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.dv8tion.jda.api.interactions.Interaction;
+
+public class Traces {
+
+  private static final Map<Long, InteractionTrace> active = new ConcurrentHashMap<>();
+
+  private Traces() {
+  }
+
+  public static InteractionTrace of(Interaction interaction) {
+    if (interaction == null) {
+      return InteractionTrace.NONE;
+    }
+    InteractionTrace trace = active.getOrDefault(interaction.getIdLong(), InteractionTrace.NONE);
+    trace.attach();
+    return trace;
+  }
+
+  static void register(InteractionTrace trace) {
+    active.put(trace.id(), trace);
+  }
+
+  static void remove(InteractionTrace trace) {
+    active.remove(trace.id(), trace);
+  }
+
+  public static int activeCount() {
+    return active.size();
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.command.trace;
+
+import com.riskrieg.bot.command.Command;
+import com.riskrieg.bot.command.handler.Middleware;
+import com.riskrieg.bot.util.MessageUtil;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+
+public class TracingMiddleware implements Middleware {
+
+  private final ScheduledThreadPoolExecutor deadlines;
+
+  public TracingMiddleware() {
+    this.deadlines = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "interaction-deadlines");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.deadlines.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  public void handle(Command command, SlashCommandInteractionEvent event, Runnable next) {
+    Guild guild = event.getGuild();
+    long deadlineMillis = command.settings().deadline().toMillis();
+    InteractionTrace trace = new InteractionTrace(event.getIdLong(), command.settings().name(), guild == null ? null : guild.getId(), deadlineMillis);
+
+    ScheduledFuture<?> deadline = deadlines.schedule(() -> onDeadline(command, event, trace), deadlineMillis, TimeUnit.MILLISECONDS);
+    trace.onClose(closed -> {
+      deadline.cancel(false);
+      Traces.remove(closed);
+      if (closed.hasSpans() && SlowTraceLog.isSlow(closed)) {
+        SlowTraceLog.record(closed);
+      }
+    });
+    Traces.register(trace);
+
+    try {
+      next.run();
+    } catch (RuntimeException e) {
+      trace.finish();
+      throw e;
+    }
+  }
+
+  private void onDeadline(Command command, SlashCommandInteractionEvent event, InteractionTrace trace) {
+    if (trace.hasSpans() && !trace.hasOpenSpans()) { // Every traced stage has completed
+      trace.finish();
+      return;
+    }
+    if (event.isAcknowledged() && !trace.isAttached()) { // Acknowledged by a command that doesn't report its stages, so there is nothing left to judge
+      trace.finish();
+      return;
+    }
+    if (trace.expire()) { // Still waiting to be acknowledged, on a stage, or on a traced command that has not begun one yet
+      MessageCreateData message = MessageUtil.error(command.settings(), "This command took too long to complete and was cancelled. Please try again.");
+      if (event.isAcknowledged()) {
+        event.getHook().sendMessage(message).queue(null, failure -> {
+        });
+      } else {
+        event.reply(message).setEphemeral(true).queue(null, failure -> {
+        });
+      }
+    }
+  }
+
+}
@@ -0,0 +1,268 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.feature.alliance.AllianceStatus;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class AllianceMatrix { // Directed alliance requests between the nations of one game, one bit row per nation
+
+  private final NationIdentifier[] nations;
+  private final String[] leaders;
+  private final Map<NationIdentifier, Integer> byNation;
+  private final Map<String, Integer> byLeader;
+  private final long[][] requests; // Bit j of row i is set when nation i has offered an alliance to nation j
+  private final long[][] received; // Transpose of requests, so incoming offers are a row lookup as well
+  private final int[] parent; // Union-find over completed alliances, rebuilt lazily after a change
+  private boolean componentsDirty = true;
+
+  private AllianceMatrix(NationIdentifier[] nations, String[] leaders) {
+    this.nations = nations;
+    this.leaders = leaders;
+    this.byNation = new HashMap<>();
+    this.byLeader = new HashMap<>();
+    for (int i = 0; i < nations.length; i++) {
+      byNation.put(nations[i], i);
+      byLeader.put(leaders[i], i);
+    }
+    this.requests = new long[nations.length][(nations.length + 63) >>> 6];
+    this.received = new long[nations.length][(nations.length + 63) >>> 6];
+    this.parent = new int[nations.length];
+  }
+
+  public static AllianceMatrix of(Game game) { // Rebuilt from every loaded game, so it can never drift from the saved alliances
+    Collection<Nation> gameNations = game.nations();
+    NationIdentifier[] nations = new NationIdentifier[gameNations.size()];
+    String[] leaders = new String[gameNations.size()];
+    int i = 0;
+    for (Nation nation : gameNations) {
+      nations[i] = nation.identifier();
+      leaders[i] = nation.leaderIdentifier().id();
+      i++;
+    }
+    AllianceMatrix matrix = new AllianceMatrix(nations, leaders);
+    for (int a = 0; a < nations.length; a++) {
+      for (int b = a + 1; b < nations.length; b++) {
+        matrix.set(a, b, game.allianceStatus(nations[a], nations[b]));
+      }
+    }
+    return matrix;
+  }
+
+  private synchronized void set(int a, int b, AllianceStatus status) { // Status is from a's point of view
+    boolean aToB = status == AllianceStatus.COMPLETE || status == AllianceStatus.OUTGOING;
+    boolean bToA = status == AllianceStatus.COMPLETE || status == AllianceStatus.INCOMING;
+    assign(a, b, aToB);
+    assign(b, a, bToA);
+    componentsDirty = true;
+  }
+
+  private void assign(int row, int column, boolean value) {
+    if (value) {
+      requests[row][column >>> 6] |= 1L << column;
+      received[column][row >>> 6] |= 1L << row;
+    } else {
+      requests[row][column >>> 6] &= ~(1L << column);
+      received[column][row >>> 6] &= ~(1L << row);
+    }
+  }
+
+  private boolean requested(int row, int column) {
+    return (requests[row][column >>> 6] & (1L << column)) != 0;
+  }
+
+  /* Lookups */
+
+  public int size() {
+    return nations.length;
+  }
+
+  public NationIdentifier nation(int i) {
+    return nations[i];
+  }
+
+  public String leader(int i) {
+    return leaders[i];
+  }
+
+  public int indexOf(NationIdentifier nation) {
+    Integer index = byNation.get(nation);
+    return index == null ? -1 : index;
+  }
+
+  public int indexOf(String leaderId) {
+    Integer index = byLeader.get(leaderId);
+    return index == null ? -1 : index;
+  }
+
+  public synchronized AllianceStatus status(int a, int b) {
+    if (a < 0 || b < 0) {
+      return AllianceStatus.NONE;
+    }
+    boolean aToB = requested(a, b);
+    boolean bToA = requested(b, a);
+    if (aToB && bToA) {
+      return AllianceStatus.COMPLETE;
+    } else if (aToB) {
+      return AllianceStatus.OUTGOING;
+    } else if (bToA) {
+      return AllianceStatus.INCOMING;
+    }
+    return AllianceStatus.NONE;
+  }
+
+  public synchronized boolean allied(int a, int b) {
+    return a >= 0 && b >= 0 && requested(a, b) && requested(b, a);
+  }
+
+  public AllianceStatus status(String leaderA, String leaderB) {
+    return status(indexOf(leaderA), indexOf(leaderB));
+  }
+
+  public boolean allied(NationIdentifier a, NationIdentifier b) {
+    return allied(indexOf(a), indexOf(b));
+  }
+
+  public List<String> allies(String leaderId) { // Leader IDs of completed alliances
+    return select(indexOf(leaderId), AllianceStatus.COMPLETE);
+  }
+
+  public List<String> outgoing(String leaderId) {
+    return select(indexOf(leaderId), AllianceStatus.OUTGOING);
+  }
+
+  public List<String> incoming(String leaderId) {
+    return select(indexOf(leaderId), AllianceStatus.INCOMING);
+  }
+
+  private synchronized List<String> select(int row, AllianceStatus status) {
+    if (row < 0) {
+      return List.of();
+    }
+    List<String> result = new ArrayList<>();
+    for (int word = 0; word < requests[row].length; word++) {
+      long out = requests[row][word];
+      long in = received[row][word];
+      long bits = switch (status) {
+        case COMPLETE -> out & in;
+        case OUTGOING -> out & ~in;
+        case INCOMING -> in & ~out;
+        default -> 0L;
+      };
+      while (bits != 0) {
+        result.add(leaders[(word << 6) + Long.numberOfTrailingZeros(bits)]);
+        bits &= bits - 1;
+      }
+    }
+    return result;
+  }
+
+  /* Components */
+
+  public synchronized int component(int i) { // Representative of the nation's alliance bloc
+    if (componentsDirty) {
+      rebuildComponents();
+    }
+    return find(i);
+  }
+
+  public synchronized List<List<String>> components() { // Every bloc of two or more nations, as leader IDs
+    if (componentsDirty) {
+      rebuildComponents();
+    }
+    Map<Integer, List<String>> blocs = new HashMap<>();
+    for (int i = 0; i < nations.length; i++) {
+      blocs.computeIfAbsent(find(i), root -> new ArrayList<>()).add(leaders[i]);
+    }
+    return blocs.values().stream().filter(bloc -> bloc.size() > 1).toList();
+  }
+
+  private void rebuildComponents() {
+    for (int i = 0; i < parent.length; i++) {
+      parent[i] = i;
+    }
+    for (int a = 0; a < nations.length; a++) {
+      for (int b = a + 1; b < nations.length; b++) {
+        if (requested(a, b) && requested(b, a)) {
+          int rootA = find(a);
+          int rootB = find(b);
+          if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+          }
+        }
+      }
+    }
+    componentsDirty = false;
+  }
+
+  private int find(int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  public synchronized Snapshot snapshot() { // Exact copy of the leaders and requests, for caching things drawn from the matrix
+    long[][] rows = new long[requests.length][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = requests[i].clone();
+    }
+    return new Snapshot(List.of(leaders), rows);
+  }
+
+  public record Snapshot(List<String> leaders, long[][] requests) { // Compared row by row, so two different states can never be mistaken for each other
+
+    public int size() {
+      return leaders.size();
+    }
+
+    public AllianceStatus status(int a, int b) {
+      boolean aToB = (requests[a][b >>> 6] & (1L << b)) != 0;
+      boolean bToA = (requests[b][a >>> 6] & (1L << a)) != 0;
+      if (aToB && bToA) {
+        return AllianceStatus.COMPLETE;
+      } else if (aToB) {
+        return AllianceStatus.OUTGOING;
+      } else if (bToA) {
+        return AllianceStatus.INCOMING;
+      }
+      return AllianceStatus.NONE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Snapshot other && leaders.equals(other.leaders) && Arrays.deepEquals(requests, other.requests);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * leaders.hashCode() + Arrays.deepHashCode(requests);
+    }
+
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+public final class AttackOdds { // Exact odds for StandardAttack: the attack succeeds when the highest attack die beats the highest defense die
+
+  private static final int TABLE_SIDES = 32;
+  private static final int TABLE_ROLLS = 64;
+  private static final double[][][] maxCdf = new double[TABLE_SIDES + 1][][]; // [sides][rolls][k] = P(max of rolls dice <= k)
+
+  static {
+    for (int sides = 1; sides <= TABLE_SIDES; sides++) {
+      maxCdf[sides] = new double[TABLE_ROLLS + 1][sides + 1];
+      for (int rolls = 0; rolls <= TABLE_ROLLS; rolls++) {
+        for (int k = 0; k <= sides; k++) {
+          maxCdf[sides][rolls][k] = Math.pow((double) k / sides, rolls);
+        }
+      }
+    }
+  }
+
+  private AttackOdds() {
+  }
+
+  public static double successProbability(ClaimSnapshot.Rolls rolls) {
+    return successProbability(rolls.attackRolls(), rolls.attackSides(), rolls.defenseRolls(), rolls.defenseSides());
+  }
+
+  public static double successProbability(int attackRolls, int attackSides, int defenseRolls, int defenseSides) {
+    double probability = 0.0;
+    double previous = 0.0;
+    for (int j = 0; j <= defenseSides; j++) { // Sum over the defender's highest roll j: P(max D = j) * P(max A > j), where j = 0 means no defense dice
+      double current = maxCdf(defenseSides, defenseRolls, j);
+      double attackerAtMost = j >= attackSides ? 1.0 : maxCdf(attackSides, attackRolls, j);
+      probability += (current - previous) * (1.0 - attackerAtMost);
+      previous = current;
+    }
+    return probability;
+  }
+
+  private static double maxCdf(int sides, int rolls, int k) {
+    if (sides <= TABLE_SIDES && rolls <= TABLE_ROLLS) {
+      return maxCdf[sides][rolls][k];
+    }
+    return Math.pow((double) k / sides, rolls);
+  }
+
+}
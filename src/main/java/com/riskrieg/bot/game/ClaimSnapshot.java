@@ -0,0 +1,102 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.core.api.game.GameConstants;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.game.territory.TerritoryType;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public final class ClaimSnapshot { // Board state for one claim batch, so attacks are resolved with array lookups instead of set rebuilds
+
+  public record Rolls(int attackRolls, int attackSides, int defenseRolls, int defenseSides) {
+
+  }
+
+  private final MapGraph graph;
+  private final Map<NationIdentifier, Integer> nations;
+  private final int[] owners; // Territory index -> nation index, -1 when unclaimed
+  private final BitSet capitals;
+
+  private ClaimSnapshot(MapGraph graph, Map<NationIdentifier, Integer> nations, int[] owners, BitSet capitals) {
+    this.graph = graph;
+    this.nations = nations;
+    this.owners = owners;
+    this.capitals = capitals;
+  }
+
+  public static ClaimSnapshot of(RkmMap map, Set<Claim> claims) {
+    return of(MapGraph.of(map), claims);
+  }
+
+  static ClaimSnapshot of(MapGraph graph, Set<Claim> claims) {
+    int[] owners = new int[graph.size()];
+    Arrays.fill(owners, -1);
+    BitSet capitals = new BitSet(graph.size());
+    Map<NationIdentifier, Integer> nations = new HashMap<>();
+    for (Claim claim : claims) {
+      int territory = graph.indexOf(claim.territory().identity());
+      if (territory < 0) {
+        continue;
+      }
+      owners[territory] = nations.computeIfAbsent(claim.identifier(), identifier -> nations.size());
+      if (claim.territory().type() == TerritoryType.CAPITAL) {
+        capitals.set(territory);
+      }
+    }
+    return new ClaimSnapshot(graph, nations, owners, capitals);
+  }
+
+  public Rolls rolls(NationIdentifier attacker, NationIdentifier defender, TerritoryIdentity identity, GameConstants constants) {
+    int attackRolls = 1;
+    int defenseRolls = 1;
+    int attackSides = StandardAttack.ATTACK_SIDES;
+    int defenseSides = StandardAttack.DEFENSE_SIDES;
+
+    int territory = graph.indexOf(identity);
+    int attackerIndex = nations.getOrDefault(attacker, -1);
+    int defenderIndex = nations.getOrDefault(defender, -1);
+    if (territory >= 0) {
+      boolean defendingCapital = capitals.get(territory);
+      for (int edge = graph.start(territory), end = graph.end(territory); edge < end; edge++) {
+        int neighbor = graph.target(edge);
+        int owner = owners[neighbor];
+        if (owner < 0) {
+          continue;
+        }
+        if (owner == attackerIndex) {
+          attackRolls += capitals.get(neighbor) ? 1 + constants.capitalAttackBonus() : 1;
+        } else if (owner == defenderIndex) {
+          defenseRolls++;
+          if (defendingCapital) {
+            defenseSides += 1 + constants.capitalDefenseBonus(); // Applied per defending neighbour, as it always has been
+          }
+        }
+      }
+    }
+    return new Rolls(attackRolls, attackSides, defenseRolls, defenseSides);
+  }
+
+}
@@ -18,17 +18,16 @@
 
 package com.riskrieg.bot.game;
 
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
 
 public record Dice(int sides, int amount) {
 
-  public int[] roll() {
-    return IntStream.generate(this::rollOne).limit(amount).toArray();
-  }
-
-  private int rollOne() {
-    return ThreadLocalRandom.current().nextInt(sides) + 1;
+  public int max(RandomGenerator random) { // Only the highest die decides an attack, so nothing is kept
+    int max = 0;
+    for (int i = 0; i < amount; i++) {
+      max = Math.max(max, random.nextInt(sides) + 1);
+    }
+    return max;
   }
 
 }
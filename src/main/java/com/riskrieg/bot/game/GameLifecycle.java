@@ -0,0 +1,57 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.bot.leaderboard.Leaderboards;
+import com.riskrieg.bot.stats.Statistics;
+import com.riskrieg.bot.util.AttachmentCache;
+import com.riskrieg.bot.util.LiveBoards;
+import com.riskrieg.bot.util.index.GameIndex;
+import com.riskrieg.core.api.game.EndReason;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.player.Player;
+import com.riskrieg.core.api.group.Group;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public final class GameLifecycle { // Everything that has to happen once a game is over, in one place so no command can skip a step
+
+  private GameLifecycle() {
+  }
+
+  public static void ended(Group group, String guildId, Game game, EndReason reason, Optional<Player> currentPlayer) {
+    ended(group, guildId, game, reason, currentPlayer, deleted -> {
+    });
+  }
+
+  public static void ended(Group group, String guildId, Game game, EndReason reason, Optional<Player> currentPlayer, Consumer<Boolean> deleted) {
+    String gameId = game.identifier().id();
+    Leaderboards.record(guildId, game, reason, currentPlayer); // First, it reads the game's statistics
+    GameIndex.invalidate(gameId);
+    AttachmentCache.invalidate(gameId);
+    Seeds.delete(guildId, gameId);
+    Statistics.delete(guildId, gameId);
+    LiveBoards.delete(guildId, gameId);
+    group.deleteGame(GameIdentifier.of(gameId)).queue(deleted, failure -> {
+      System.out.println("[GameLifecycle] Could not delete " + guildId + "/" + gameId + ": " + failure.getMessage());
+      deleted.accept(false);
+    });
+  }
+
+}
@@ -0,0 +1,185 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.core.util.game.GameUtil;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.Territory;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+public final class MapGraph { // Compressed sparse row adjacency, territories are interned to ints in map vertex order
+
+  private static final Map<String, MapGraph> graphs = new ConcurrentHashMap<>();
+
+  private final String codename;
+  private final TerritoryIdentity[] identities;
+  private final String[] names;
+  private final Map<String, Integer> index;
+  private final int[] offsets; // Neighbours of v are adjacency[offsets[v]] until adjacency[offsets[v + 1]]
+  private final int[] adjacency;
+
+  private MapGraph(String codename, TerritoryIdentity[] identities, String[] names, Map<String, Integer> index, int[] offsets, int[] adjacency) {
+    this.codename = codename;
+    this.identities = identities;
+    this.names = names;
+    this.index = index;
+    this.offsets = offsets;
+    this.adjacency = adjacency;
+  }
+
+  public static MapGraph of(RkmMap map) {
+    MapGraph cached = graphs.get(map.codename());
+    if (cached != null && cached.size() == map.vertices().size()) {
+      return cached;
+    }
+    MapGraph graph = build(map);
+    graphs.put(map.codename(), graph);
+    return graph;
+  }
+
+  public static MapGraph prepare(RkmMap map) { // Built without touching the cache, see install
+    return build(map);
+  }
+
+  public static void install(MapGraph graph) {
+    graphs.put(graph.codename(), graph);
+  }
+
+  public static void invalidate(String codename) {
+    graphs.remove(codename);
+  }
+
+  private static MapGraph build(RkmMap map) {
+    List<Territory> vertices = List.copyOf(map.vertices());
+    int size = vertices.size();
+    TerritoryIdentity[] identities = new TerritoryIdentity[size];
+    Map<String, Integer> index = new HashMap<>();
+    for (int v = 0; v < size; v++) {
+      identities[v] = vertices.get(v).identity();
+      index.put(identities[v].toString(), v);
+    }
+
+    int[][] lists = new int[size][];
+    for (int v = 0; v < size; v++) {
+      lists[v] = GameUtil.getNeighbors(identities[v], map).stream()
+          .mapToInt(neighbor -> index.getOrDefault(neighbor.identity().toString(), -1))
+          .filter(neighbor -> neighbor >= 0)
+          .toArray();
+    }
+    return build(map.codename(), identities, lists);
+  }
+
+  static MapGraph build(String codename, TerritoryIdentity[] identities, int[][] neighbors) { // Also lets tests and benchmarks describe a map without an .rkm file
+    int size = identities.length;
+    String[] names = new String[size];
+    Map<String, Integer> index = new HashMap<>();
+    for (int v = 0; v < size; v++) {
+      names[v] = identities[v].toString();
+      index.put(names[v], v);
+    }
+
+    int[][] lists = new int[size][];
+    int edges = 0;
+    for (int v = 0; v < size; v++) {
+      lists[v] = Arrays.stream(neighbors[v]).sorted().distinct().toArray(); // Sorted so adjacency checks can binary search
+      edges += lists[v].length;
+    }
+
+    int[] offsets = new int[size + 1];
+    int[] adjacency = new int[edges];
+    for (int v = 0; v < size; v++) {
+      System.arraycopy(lists[v], 0, adjacency, offsets[v], lists[v].length);
+      offsets[v + 1] = offsets[v] + lists[v].length;
+    }
+    return new MapGraph(codename, identities, names, Map.copyOf(index), offsets, adjacency);
+  }
+
+  public String codename() {
+    return codename;
+  }
+
+  public int size() {
+    return identities.length;
+  }
+
+  public int indexOf(String name) {
+    Integer v = index.get(name);
+    return v == null ? -1 : v;
+  }
+
+  public int indexOf(TerritoryIdentity identity) {
+    return indexOf(identity.toString());
+  }
+
+  public TerritoryIdentity identity(int v) {
+    return identities[v];
+  }
+
+  public String name(int v) {
+    return names[v];
+  }
+
+  /* Neighbour slices */
+
+  public int start(int v) {
+    return offsets[v];
+  }
+
+  public int end(int v) {
+    return offsets[v + 1];
+  }
+
+  public int target(int edge) {
+    return adjacency[edge];
+  }
+
+  public int degree(int v) {
+    return offsets[v + 1] - offsets[v];
+  }
+
+  public boolean adjacent(int a, int b) {
+    return Arrays.binarySearch(adjacency, offsets[a], offsets[a + 1], b) >= 0;
+  }
+
+  public void forEachNeighbor(int v, IntConsumer consumer) {
+    for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+      consumer.accept(adjacency[edge]);
+    }
+  }
+
+  public List<String> neighborNames(String name) { // Allocates, meant for display rather than game logic
+    int v = indexOf(name);
+    if (v < 0) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>(degree(v));
+    for (int edge = offsets[v]; edge < offsets[v + 1]; edge++) {
+      result.add(names[adjacency[edge]]);
+    }
+    return result;
+  }
+
+}
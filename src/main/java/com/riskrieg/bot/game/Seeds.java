@@ -0,0 +1,111 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.bot.config.GameSeed;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+public final class Seeds {
+
+  public static final String ALGORITHM = "L64X128MixRandom";
+
+  private static final RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(ALGORITHM);
+  private static final SecureRandom seeder = new SecureRandom();
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> { // One thread, so a seed is never written after its game's delete
+    Thread thread = new Thread(runnable, "seed-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private Seeds() {
+  }
+
+  public static GameSeed create(String groupId, String gameId) {
+    GameSeed seed = new GameSeed(groupId, gameId, seeder.nextLong(), 0);
+    saveLater(seed); // Queued behind any delete of an earlier game in the same channel
+    return seed;
+  }
+
+  public static GameSeed load(String groupId, String gameId, boolean inProgress) { // Games created before seeds existed get one on their next claim
+    GameSeed empty = new GameSeed(groupId, gameId, 0, 0);
+    String problem = "is missing";
+    if (Files.exists(empty.path())) {
+      try {
+        GameSeed seed = RkJsonUtil.read(empty.path(), GameSeed.class);
+        if (seed != null) {
+          return seed;
+        }
+        problem = "is empty";
+      } catch (IOException e) {
+        problem = "could not be read (" + e.getMessage() + ")";
+      }
+    }
+    if (inProgress) { // The save alone can't tell a lost seed from a game that never had one, so say so rather than reseed quietly
+      System.out.println("[Seeds] WARNING: the seed for in-progress game " + groupId + "/" + gameId + " " + problem
+          + ". Claims made so far can no longer be replayed, continuing with a new seed.");
+    }
+    return create(groupId, gameId);
+  }
+
+  public static void save(GameSeed seed) {
+    try {
+      Files.createDirectories(seed.path().getParent());
+      RkJsonUtil.write(seed.path(), GameSeed.class, seed);
+    } catch (IOException e) {
+      System.out.println("[Seeds] Could not save seed for " + seed.groupId() + "/" + seed.gameId() + ": " + e.getMessage());
+    }
+  }
+
+  public static void saveLater(GameSeed seed) { // For callbacks that only learn the game was saved on a JDA or core thread
+    writer.execute(() -> save(seed));
+  }
+
+  public static void delete(String groupId, String gameId) {
+    writer.execute(() -> deleteNow(groupId, gameId));
+  }
+
+  private static void deleteNow(String groupId, String gameId) {
+    try {
+      Files.deleteIfExists(new GameSeed(groupId, gameId, 0, 0).path());
+    } catch (IOException e) {
+      System.out.println("[Seeds] Could not delete seed for " + groupId + "/" + gameId + ": " + e.getMessage());
+    }
+  }
+
+  public static RandomGenerator generator(GameSeed seed) {
+    return generator(seed.seed(), seed.claims());
+  }
+
+  public static RandomGenerator generator(long seed, long claim) { // Each claim gets its own stream, so replaying claim n never needs claims 0..n-1
+    return factory.create(mix64(seed + claim * 0x9E3779B97F4A7C15L));
+  }
+
+  private static long mix64(long z) { // SplitMix64 finalizer, spreads nearby claim numbers across the seed space
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+}
@@ -18,28 +18,40 @@
 
 package com.riskrieg.bot.game;
 
+import com.riskrieg.bot.metrics.jfr.AttackEvent;
 import com.riskrieg.core.api.game.Attack;
 import com.riskrieg.core.api.game.GameConstants;
 import com.riskrieg.core.api.game.entity.nation.Nation;
 import com.riskrieg.core.api.game.territory.Claim;
-import com.riskrieg.core.api.game.territory.GameTerritory;
-import com.riskrieg.core.api.game.territory.TerritoryType;
-import com.riskrieg.core.util.game.GameUtil;
 import com.riskrieg.map.RkmMap;
-import com.riskrieg.map.Territory;
 import com.riskrieg.map.territory.TerritoryIdentity;
-import java.util.Arrays;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class StandardAttack implements Attack {
 
+  public static final int ATTACK_SIDES = 8;
+  public static final int DEFENSE_SIDES = 6;
+
+  private final RandomGenerator random; // Null falls back to the calling thread's ThreadLocalRandom
+  private ClaimSnapshot snapshot; // One instance is used per claim, so the snapshot is reused across its territories until one of them changes hands
+
+  public StandardAttack() {
+    this(null);
+  }
+
+  public StandardAttack(RandomGenerator random) {
+    this.random = random;
+  }
+
   @Override
   public boolean success(Nation attacker, Nation defender, TerritoryIdentity identity, RkmMap map, Set<Claim> claims, GameConstants constants) {
     if (attacker == null) {
       return false;
     }
     if (defender == null) {
+      snapshot = null; // The territory is about to be claimed
       return true;
     }
     if (attacker.equals(defender)) {
@@ -48,34 +60,38 @@ public class StandardAttack implements Attack {
     if (!defender.hasClaimOn(identity, claims)) {
       return false;
     }
-    int attackRolls = 1;
-    int defenseRolls = 1;
-    int attackSides = 8;
-    int defenseSides = 6;
-    var neighbors = GameUtil.getNeighbors(identity, map).stream().map(Territory::identity).collect(Collectors.toSet());
-    for (TerritoryIdentity neighbor : neighbors) {
-      var attackerTerritories = attacker.getClaimedTerritories(claims).stream().map(com.riskrieg.core.api.game.territory.Claim::territory).map(GameTerritory::identity)
-          .collect(Collectors.toSet());
-      var defenderTerritories = defender.getClaimedTerritories(claims).stream().map(com.riskrieg.core.api.game.territory.Claim::territory).map(GameTerritory::identity)
-          .collect(Collectors.toSet());
-      if (attackerTerritories.contains(neighbor)) {
-        if (GameUtil.territoryIsOfType(neighbor, TerritoryType.CAPITAL, claims)) {
-          attackRolls += 1 + constants.capitalAttackBonus();
-        } else {
-          attackRolls++;
-        }
-      } else if (defenderTerritories.contains(neighbor)) {
-        defenseRolls++;
-        if (GameUtil.territoryIsOfType(identity, TerritoryType.CAPITAL, claims)) {
-          defenseSides += 1 + constants.capitalDefenseBonus();
-        }
-      }
+    AttackEvent event = new AttackEvent(); // Only contested claims are recorded
+    event.begin();
+    if (snapshot == null) {
+      snapshot = ClaimSnapshot.of(map, claims);
     }
+    ClaimSnapshot.Rolls rolls = snapshot.rolls(attacker.identifier(), defender.identifier(), identity, constants);
+    int attackRolls = rolls.attackRolls();
+    int defenseRolls = rolls.defenseRolls();
+    int attackSides = rolls.attackSides();
+    int defenseSides = rolls.defenseSides();
     Dice attackDice = new Dice(attackSides, attackRolls);
     Dice defenseDice = new Dice(defenseSides, defenseRolls);
-    int attackerMax = Arrays.stream(attackDice.roll()).summaryStatistics().getMax();
-    int defenderMax = Arrays.stream(defenseDice.roll()).summaryStatistics().getMax();
-    return attackerMax > defenderMax;
+    RandomGenerator random = this.random == null ? ThreadLocalRandom.current() : this.random;
+    int attackerMax = attackDice.max(random);
+    int defenderMax = defenseDice.max(random);
+    boolean success = attackerMax > defenderMax;
+    if (success) { // Core changes the claims only after a successful attack, so the next contested attack rebuilds from them
+      snapshot = null;
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.mapCodename = map.codename();
+      event.territory = identity.toString();
+      event.claimCount = claims.size();
+      event.attackRolls = attackRolls;
+      event.defenseRolls = defenseRolls;
+      event.defenseSides = defenseSides;
+      event.success = success;
+      event.commit();
+    }
+    return success;
   }
 
 }
@@ -0,0 +1,253 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class TerritoryExpression { // Grammar: item (separator item)*, where item is [!|-] (territory | territory..territory)
+
+  public static final int MAX_RANGE_LENGTH = 256;
+  private static final int MAX_REPORTED_ERRORS = 5;
+
+  public enum ErrorType {
+    EMPTY,
+    MALFORMED_TERRITORY,
+    MALFORMED_RANGE,
+    MISMATCHED_RANGE,
+    RANGE_TOO_LARGE,
+    UNKNOWN_TERRITORY,
+    UNKNOWN_EXCLUSION
+  }
+
+  public record Error(ErrorType type, int position, String token) {
+
+    public String message() {
+      return switch (type) {
+        case EMPTY -> "No territories were specified.";
+        case MALFORMED_TERRITORY -> "**" + token + "** is not a valid territory.";
+        case MALFORMED_RANGE -> "**" + token + "** is not a valid range. Ranges look like **1A..12A**.";
+        case MISMATCHED_RANGE -> "The range **" + token + "** must use the same letter on both ends.";
+        case RANGE_TOO_LARGE -> "The range **" + token + "** covers more than " + MAX_RANGE_LENGTH + " territories.";
+        case UNKNOWN_TERRITORY -> "**" + token + "** does not exist on this map.";
+        case UNKNOWN_EXCLUSION -> "**" + token + "** was excluded but does not exist on this map.";
+      };
+    }
+
+  }
+
+  public record Result(List<String> territories, List<String> excluded, List<Error> errors) {
+
+    public boolean isValid() {
+      return errors.isEmpty();
+    }
+
+    public TerritoryIdentity[] identities() {
+      TerritoryIdentity[] identities = new TerritoryIdentity[territories.size()];
+      for (int i = 0; i < identities.length; i++) {
+        identities[i] = new TerritoryIdentity(territories.get(i));
+      }
+      return identities;
+    }
+
+    public Result validate(MapIndex.Territories map) { // Checked against the in-memory map index, so no game has to be loaded
+      return validate(map::contains);
+    }
+
+    public Result validate(Predicate<String> exists) {
+      List<Error> unknown = new ArrayList<>(errors);
+      for (String territory : territories) {
+        if (!exists.test(territory)) {
+          unknown.add(new Error(ErrorType.UNKNOWN_TERRITORY, -1, territory));
+        }
+      }
+      for (String territory : excluded) { // A typo in an exclusion would otherwise silently claim the territory it meant to skip
+        if (!exists.test(territory)) {
+          unknown.add(new Error(ErrorType.UNKNOWN_EXCLUSION, -1, territory));
+        }
+      }
+      return unknown.size() == errors.size() ? this : new Result(territories, excluded, Collections.unmodifiableList(unknown));
+    }
+
+    public String describeErrors() {
+      String description = errors.stream().limit(MAX_REPORTED_ERRORS).map(Error::message).collect(Collectors.joining("\n"));
+      if (errors.size() > MAX_REPORTED_ERRORS) {
+        description += "\n...and " + (errors.size() - MAX_REPORTED_ERRORS) + " more.";
+      }
+      return description;
+    }
+
+  }
+
+  private TerritoryExpression() {
+  }
+
+  public static Result parse(String input) {
+    Set<String> included = new LinkedHashSet<>();
+    Set<String> excluded = new LinkedHashSet<>();
+    List<Error> errors = new ArrayList<>();
+
+    int length = input == null ? 0 : input.length();
+    int i = 0;
+    while (i < length) {
+      char c = input.charAt(i);
+      if (isSeparator(c)) {
+        i++;
+        continue;
+      }
+      boolean exclude = c == '!' || c == '-';
+      if (exclude) {
+        i++;
+      }
+      int start = i;
+      while (i < length && !isSeparator(input.charAt(i))) {
+        i++;
+      }
+      int end = i;
+      if (start == end) {
+        continue;
+      }
+      parseItem(input, start, end, exclude ? excluded : included, errors);
+    }
+
+    included.removeAll(excluded);
+    if (included.isEmpty() && errors.isEmpty()) {
+      errors.add(new Error(ErrorType.EMPTY, 0, ""));
+    }
+    return new Result(List.copyOf(included), List.copyOf(excluded), Collections.unmodifiableList(errors));
+  }
+
+  private static void parseItem(String input, int start, int end, Set<String> target, List<Error> errors) {
+    int dots = indexOfRange(input, start, end);
+    if (dots < 0) {
+      if (!isTerritory(input, start, end)) {
+        errors.add(new Error(ErrorType.MALFORMED_TERRITORY, start, input.substring(start, end)));
+        return;
+      }
+      target.add(canonical(input, start, end));
+      return;
+    }
+
+    // Range: both ends must be digits followed by the same letter suffix
+    int lhsDigits = digitRun(input, start, dots);
+    int rhsStart = dots + 2;
+    int rhsDigits = digitRun(input, rhsStart, end);
+    if (lhsDigits == 0 || rhsDigits == 0 || lhsDigits == dots - start || rhsDigits == end - rhsStart
+        || !isLetters(input, start + lhsDigits, dots) || !isLetters(input, rhsStart + rhsDigits, end)) {
+      errors.add(new Error(ErrorType.MALFORMED_RANGE, start, input.substring(start, end)));
+      return;
+    }
+    int suffixLength = dots - start - lhsDigits;
+    if (suffixLength != end - rhsStart - rhsDigits || !input.regionMatches(true, start + lhsDigits, input, rhsStart + rhsDigits, suffixLength)) {
+      errors.add(new Error(ErrorType.MISMATCHED_RANGE, start, input.substring(start, end)));
+      return;
+    }
+    if (lhsDigits > 9 || rhsDigits > 9) {
+      errors.add(new Error(ErrorType.RANGE_TOO_LARGE, start, input.substring(start, end)));
+      return;
+    }
+
+    int lower = parseDigits(input, start, start + lhsDigits);
+    int upper = parseDigits(input, rhsStart, rhsStart + rhsDigits);
+    if (lower > upper) {
+      int temp = upper;
+      upper = lower;
+      lower = temp;
+    }
+    if (upper - lower + 1 > MAX_RANGE_LENGTH) {
+      errors.add(new Error(ErrorType.RANGE_TOO_LARGE, start, input.substring(start, end)));
+      return;
+    }
+    String suffix = upper(input, start + lhsDigits, dots);
+    for (int n = lower; n <= upper; n++) {
+      target.add(n + suffix);
+    }
+  }
+
+  public static boolean isSeparator(char c) {
+    return Character.isWhitespace(c) || c == ',' || c == '|' || c == '/' || c == '\\' || c == ';';
+  }
+
+  private static int indexOfRange(String input, int start, int end) {
+    for (int i = start; i < end - 1; i++) {
+      if (input.charAt(i) == '.' && input.charAt(i + 1) == '.') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isTerritory(String input, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isLetterOrDigit(input.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLetters(String input, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isLetter(input.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int digitRun(String input, int start, int end) {
+    int i = start;
+    while (i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9') {
+      i++;
+    }
+    return i - start;
+  }
+
+  private static int parseDigits(String input, int start, int end) {
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + (input.charAt(i) - '0');
+    }
+    return value;
+  }
+
+  private static String canonical(String input, int start, int end) { // Leading zeros dropped, as a range does when it formats its numbers, so 01A and 1A..1A name the same territory
+    int digits = digitRun(input, start, end);
+    int from = start;
+    while (from < start + digits - 1 && input.charAt(from) == '0') {
+      from++;
+    }
+    return upper(input, from, end);
+  }
+
+  private static String upper(String input, int start, int end) {
+    char[] chars = new char[end - start];
+    for (int i = start; i < end; i++) {
+      chars[i - start] = Character.toUpperCase(input.charAt(i));
+    }
+    return new String(chars);
+  }
+
+}
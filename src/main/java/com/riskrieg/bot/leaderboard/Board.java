@@ -0,0 +1,72 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public final class Board { // One scope and mode, kept sorted as results arrive so pages never need a sort
+
+  private final Map<String, Standing> standings = new HashMap<>();
+  private final TreeSet<Standing> ranking = new TreeSet<>(Standing.RANKING);
+  private int games;
+  private long turns;
+
+  synchronized void record(GameResult result) {
+    games++;
+    turns += result.turns();
+    result.players().forEach((playerId, name) -> {
+      Standing previous = standings.get(playerId);
+      if (previous != null) {
+        ranking.remove(previous);
+      }
+      Standing next = (previous == null ? new Standing(playerId, name, 0, 0) : previous).plus(name, result.winners().contains(playerId));
+      standings.put(playerId, next);
+      ranking.add(next);
+    });
+  }
+
+  public synchronized List<Standing> page(int page, int size) {
+    List<Standing> result = new ArrayList<>(size);
+    Iterator<Standing> iterator = ranking.iterator();
+    for (int skipped = 0; skipped < page * size && iterator.hasNext(); skipped++) {
+      iterator.next();
+    }
+    while (result.size() < size && iterator.hasNext()) {
+      result.add(iterator.next());
+    }
+    return result;
+  }
+
+  public synchronized int players() {
+    return ranking.size();
+  }
+
+  public synchronized int games() {
+    return games;
+  }
+
+  public synchronized double averageTurns() {
+    return games == 0 ? 0.0 : (double) turns / games;
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.leaderboard;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public record GameResult(long endedAt, String guildId, String mode, int turns, Set<String> winners, Map<String, String> players) {
+
+  public String encode() { // One tab-separated line per game, names are URL-encoded so they can't break the format
+    return endedAt + "\t" + guildId + "\t" + mode + "\t" + turns + "\t" + String.join(",", winners) + "\t"
+        + players.entrySet().stream().map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8)).collect(Collectors.joining(","));
+  }
+
+  public static GameResult decode(String line) {
+    String[] fields = line.split("\t", -1);
+    if (fields.length != 6) {
+      throw new IllegalArgumentException("Expected 6 fields but found " + fields.length);
+    }
+    Set<String> winners = fields[4].isEmpty() ? Set.of() : Set.of(fields[4].split(","));
+    Map<String, String> players = new LinkedHashMap<>();
+    if (!fields[5].isEmpty()) {
+      Arrays.stream(fields[5].split(",")).forEach(entry -> {
+        int separator = entry.indexOf('=');
+        if (separator < 0) {
+          throw new IllegalArgumentException("Malformed player entry: " + entry);
+        }
+        players.put(entry.substring(0, separator), URLDecoder.decode(entry.substring(separator + 1), StandardCharsets.UTF_8));
+      });
+    }
+    return new GameResult(Long.parseLong(fields[0]), fields[1], fields[2], Integer.parseInt(fields[3]), winners, players);
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.leaderboard;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.stats.GameStats;
+import com.riskrieg.bot.stats.Statistics;
+import com.riskrieg.core.api.game.EndReason;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.player.Player;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public final class Leaderboards { // Results are appended to a log, and every board is rebuilt from it by load() at startup
+
+  public static final String GLOBAL = "global";
+  public static final String ALL_MODES = "all";
+
+  private static final Path LOG = Path.of(BotConstants.LEADERBOARD_PATH + "results.tsv");
+  private static final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+  private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> { // One thread keeps the log in the order results were applied
+    Thread thread = new Thread(runnable, "leaderboard-writer");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private static volatile boolean loaded = false;
+
+  private Leaderboards() {
+  }
+
+  public static Board board(String scope, String mode) {
+    load();
+    return boards.computeIfAbsent(key(scope, mode), key -> new Board());
+  }
+
+  public static void record(String guildId, Game game, EndReason reason, Optional<Player> currentPlayer) { // Call before the game's statistics are deleted
+    Optional<GameStats> stats = Statistics.get(guildId, game.identifier().id());
+    Map<String, String> players = new LinkedHashMap<>();
+    stats.ifPresent(gameStats -> gameStats.players().values().forEach(player -> players.put(player.playerId(), player.name()))); // Includes defeated players
+    game.players().forEach(player -> players.put(player.identifier().id(), player.name()));
+    if (players.isEmpty()) {
+      return;
+    }
+
+    Set<String> winners = switch (reason) {
+      case DEFEAT -> currentPlayer.map(player -> Set.of(player.identifier().id())).orElse(Set.of());
+      case ALLIED_VICTORY -> game.players().stream().map(player -> player.identifier().id()).collect(Collectors.toUnmodifiableSet());
+      default -> Set.of();
+    };
+    GameResult result = new GameResult(System.currentTimeMillis(), guildId, game.getClass().getSimpleName().toLowerCase(Locale.ROOT),
+        stats.map(GameStats::turns).orElse(0), winners, players);
+
+    load();
+    synchronized (Leaderboards.class) {
+      apply(result);
+      writer.execute(() -> append(result)); // Queued under the lock, so the log order matches the boards
+    }
+  }
+
+  private static void apply(GameResult result) {
+    for (String scope : new String[]{GLOBAL, result.guildId()}) {
+      boards.computeIfAbsent(key(scope, ALL_MODES), key -> new Board()).record(result);
+      boards.computeIfAbsent(key(scope, result.mode()), key -> new Board()).record(result);
+    }
+  }
+
+  private static void append(GameResult result) {
+    try {
+      Files.createDirectories(LOG.getParent());
+      try (Writer writer = Files.newBufferedWriter(LOG, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        writer.write(result.encode());
+        writer.write('\n');
+      }
+    } catch (IOException e) {
+      System.out.println("[Leaderboard] Could not append game result: " + e.getMessage());
+    }
+  }
+
+  public static void load() { // Called from Main at startup, the calls elsewhere only guard against use before that
+    if (loaded) {
+      return;
+    }
+    synchronized (Leaderboards.class) {
+      if (loaded) {
+        return;
+      }
+      int count = 0;
+      if (Files.exists(LOG)) {
+        try (BufferedReader reader = Files.newBufferedReader(LOG, StandardCharsets.UTF_8)) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+              continue;
+            }
+            try {
+              apply(GameResult.decode(line));
+              count++;
+            } catch (IllegalArgumentException e) { // A torn final line from a crash shouldn't lose the rest
+              System.out.println("[Leaderboard] Skipping malformed result: " + e.getMessage());
+            }
+          }
+        } catch (IOException e) {
+          System.out.println("[Leaderboard] Could not read game results: " + e.getMessage());
+        }
+      }
+      System.out.println("[Leaderboard] Loaded " + count + " game results.");
+      loaded = true;
+    }
+  }
+
+  private static String key(String scope, String mode) {
+    return scope + ":" + mode;
+  }
+
+}
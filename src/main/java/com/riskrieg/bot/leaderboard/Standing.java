@@ -0,0 +1,36 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.leaderboard;
+
+import java.util.Comparator;
+
+public record Standing(String playerId, String name, int wins, int played) {
+
+  static final Comparator<Standing> RANKING = Comparator.comparingInt(Standing::wins).reversed()
+      .thenComparing(Comparator.comparingDouble(Standing::winRate).reversed())
+      .thenComparing(Standing::playerId);
+
+  public double winRate() {
+    return played == 0 ? 0.0 : (double) wins / played;
+  }
+
+  Standing plus(String name, boolean won) {
+    return new Standing(playerId, name, wins + (won ? 1 : 0), played + 1);
+  }
+
+}
@@ -21,6 +21,7 @@ package com.riskrieg.bot.listener;
 import com.riskrieg.bot.command.handler.InteractionHandler;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
@@ -37,6 +38,11 @@ public class InteractionListener extends ListenerAdapter {
     handler.process(event);
   }
 
+  @Override
+  public void onCommandAutoCompleteInteraction(@NonNull CommandAutoCompleteInteractionEvent event) {
+    handler.processAutocomplete(event);
+  }
+
   @Override
   public void onModalInteraction(@NonNull ModalInteractionEvent event) {
     // TODO: Implement modal handler
@@ -20,20 +20,27 @@ package com.riskrieg.bot.listener;
 
 import com.riskrieg.bot.command.Command;
 import com.riskrieg.bot.config.BotConfig;
+import com.riskrieg.bot.config.CommandRegistration;
 import com.riskrieg.core.util.io.RkJsonUtil;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ReadyListener extends ListenerAdapter {
 
   private final Set<Command> commands;
+  private final AtomicBoolean registering = new AtomicBoolean(false);
 
   public ReadyListener(Set<Command> commands) {
     this.commands = commands;
@@ -63,14 +70,59 @@ public class ReadyListener extends ListenerAdapter {
   }
 
   private void registerCommands(JDA jda) {
-    System.out.print("[ReadyEvent] Registering commands with Discord...");
+    if (!registering.compareAndSet(false, true)) { // Commands are global, so one shard registering them is enough
+      return;
+    }
+    Thread thread = new Thread(() -> {
+      List<CommandData> commandData = commands.stream().map(Command::commandData).sorted(Comparator.comparing(CommandData::getName)).toList();
+      String hash = hash(commandData);
+
+      CommandRegistration previous = readRegistration();
+      if (previous != null && hash.equals(previous.hash())) {
+        System.out.println("[ReadyEvent] Commands are unchanged since the last registration, skipping upload.");
+        return;
+      }
 
-    CommandListUpdateAction updateCommands = jda.updateCommands();
+      jda.updateCommands().addCommands(commandData).queue(registered -> {
+        try {
+          RkJsonUtil.write(new CommandRegistration().path(), CommandRegistration.class, new CommandRegistration(hash, System.currentTimeMillis()));
+        } catch (IOException e) {
+          System.out.println("[Warning] Could not save command registration state: " + e.getMessage());
+        }
+        System.out.println("[ReadyEvent] " + registered.size() + (registered.size() == 1 ? " command" : " commands") + " registered with Discord.");
+        System.out.println("[ReadyEvent] NOTE: Commands may take up to one hour to propagate changes.");
+      }, failure -> {
+        registering.set(false); // Allow the next ready event to retry
+        System.out.println("[Error] Could not register commands with Discord: " + failure.getMessage());
+      });
+    }, "command-registration");
+    thread.setDaemon(true);
+    thread.start();
+  }
 
-    updateCommands.addCommands(commands.stream().map(Command::commandData).collect(Collectors.toList())).complete();
+  private CommandRegistration readRegistration() {
+    CommandRegistration registration = new CommandRegistration();
+    if (!Files.exists(registration.path())) {
+      return null;
+    }
+    try {
+      return RkJsonUtil.read(registration.path(), CommandRegistration.class);
+    } catch (IOException e) {
+      return null;
+    }
+  }
 
-    System.out.println("\r[ReadyEvent] " + commands.size() + (commands.size() == 1 ? " command" : " commands") + " registered with Discord.");
-    System.out.println("[ReadyEvent] NOTE: Commands may take up to one hour to propagate changes.");
+  private static String hash(List<CommandData> commandData) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (CommandData data : commandData) {
+        digest.update(data.toData().toJson());
+        digest.update((byte) '\n');
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e); // Every JVM is required to provide SHA-256
+    }
   }
 
 }
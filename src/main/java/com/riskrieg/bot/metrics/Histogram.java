@@ -0,0 +1,75 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram implements Collector {
+
+  private final double[] bounds;
+  private final LongAdder[] buckets; // Non-cumulative, the last bucket is +Inf
+  private final DoubleAdder sum = new DoubleAdder();
+
+  Histogram(double[] bounds) {
+    this.bounds = Arrays.copyOf(bounds, bounds.length);
+    Arrays.sort(this.bounds);
+    this.buckets = new LongAdder[this.bounds.length + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  public void observe(double value) {
+    int index = Arrays.binarySearch(bounds, value);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    buckets[index].increment();
+    sum.add(value);
+  }
+
+  public void observeNanos(long nanos) { // Recorded in seconds, as Prometheus expects
+    observe(nanos / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  public long count() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  @Override
+  public void write(StringBuilder sb, String name, String labels) {
+    String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+    long cumulative = 0;
+    for (int i = 0; i < bounds.length; i++) {
+      cumulative += buckets[i].sum();
+      sb.append(name).append("_bucket").append(prefix).append("le=\"").append(bounds[i]).append("\"} ").append(cumulative).append('\n');
+    }
+    cumulative += buckets[bounds.length].sum();
+    sb.append(name).append("_bucket").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+    sb.append(name).append("_sum").append(labels).append(' ').append(sum.sum()).append('\n');
+    sb.append(name).append("_count").append(labels).append(' ').append(cumulative).append('\n');
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.metrics;
+
+import com.riskrieg.bot.command.trace.Stage;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class Metrics {
+
+  public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+  private static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+  private static final double[] SIZE_BUCKETS = {64 * 1024, 128 * 1024, 256 * 1024, 512 * 1024, 1024 * 1024, 2 * 1024 * 1024, 4 * 1024 * 1024, 8 * 1024 * 1024,
+      16 * 1024 * 1024, 25 * 1024 * 1024};
+
+  public static final Histogram RENDER_SECONDS = REGISTRY.histogram("riskrieg_render_seconds", "Time spent drawing a map image.", LATENCY_BUCKETS);
+  public static final Histogram ENCODE_SECONDS = REGISTRY.histogram("riskrieg_encode_seconds", "Time spent encoding a map image to PNG.", LATENCY_BUCKETS);
+  public static final Histogram PNG_BYTES = REGISTRY.histogram("riskrieg_png_bytes", "Size of encoded map images.", SIZE_BUCKETS);
+
+  private static final Map<Stage, Histogram> stages = new EnumMap<>(Stage.class);
+
+  static {
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, REGISTRY.histogram("riskrieg_stage_seconds", "Time spent in each stage of a traced interaction, including game load and save.", "stage",
+          stage.label(), LATENCY_BUCKETS));
+    }
+  }
+
+  private Metrics() {
+  }
+
+  public static Histogram stage(Stage stage) {
+    return stages.get(stage);
+  }
+
+  public static CacheCounters cache(String name) {
+    return new CacheCounters(
+        REGISTRY.counter("riskrieg_cache_hits_total", "Cache lookups that were served from memory.", "cache", name),
+        REGISTRY.counter("riskrieg_cache_misses_total", "Cache lookups that missed.", "cache", name)
+    );
+  }
+
+  public record CacheCounters(Counter hits, Counter misses) {
+
+    public void hit() {
+      hits.increment();
+    }
+
+    public void miss() {
+      misses.increment();
+    }
+
+  }
+
+}
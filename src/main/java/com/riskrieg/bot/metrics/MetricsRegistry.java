@@ -0,0 +1,109 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.metrics;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+public class MetricsRegistry {
+
+  private record Family(String name, String help, String type, String labelName, ConcurrentSkipListMap<String, Collector> children,
+                        Supplier<Map<String, ? extends Number>> dynamic) {
+
+  }
+
+  private final ConcurrentSkipListMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+  /* Counters */
+
+  public Counter counter(String name, String help) {
+    return (Counter) family(name, help, "counter", null).children().computeIfAbsent("", key -> new Counter());
+  }
+
+  public Counter counter(String name, String help, String labelName, String labelValue) {
+    return (Counter) family(name, help, "counter", labelName).children().computeIfAbsent(labels(labelName, labelValue), key -> new Counter());
+  }
+
+  public void counter(String name, String help, String labelName, String labelValue, DoubleSupplier supplier) { // For totals already kept elsewhere, like GC counts
+    family(name, help, "counter", labelName).children().put(labels(labelName, labelValue), gaugeOf(supplier));
+  }
+
+  /* Histograms */
+
+  public Histogram histogram(String name, String help, double... bounds) {
+    return (Histogram) family(name, help, "histogram", null).children().computeIfAbsent("", key -> new Histogram(bounds));
+  }
+
+  public Histogram histogram(String name, String help, String labelName, String labelValue, double... bounds) {
+    return (Histogram) family(name, help, "histogram", labelName).children().computeIfAbsent(labels(labelName, labelValue), key -> new Histogram(bounds));
+  }
+
+  /* Gauges */
+
+  public void gauge(String name, String help, DoubleSupplier supplier) {
+    family(name, help, "gauge", null).children().put("", gaugeOf(supplier));
+  }
+
+  public void gauge(String name, String help, String labelName, String labelValue, DoubleSupplier supplier) {
+    family(name, help, "gauge", labelName).children().put(labels(labelName, labelValue), gaugeOf(supplier));
+  }
+
+  public void gauges(String name, String help, String labelName, Supplier<Map<String, ? extends Number>> supplier) { // For label sets that change at runtime, like shards
+    families.put(name, new Family(name, help, "gauge", labelName, new ConcurrentSkipListMap<>(), supplier));
+  }
+
+  /* Exposition */
+
+  public String scrape() {
+    StringBuilder sb = new StringBuilder(4096);
+    for (Family family : families.values()) {
+      sb.append("# HELP ").append(family.name()).append(' ').append(family.help()).append('\n');
+      sb.append("# TYPE ").append(family.name()).append(' ').append(family.type()).append('\n');
+      if (family.dynamic() != null) {
+        Map<String, ? extends Number> values = family.dynamic().get();
+        if (values != null) {
+          values.forEach((labelValue, value) -> sb.append(family.name()).append(labels(family.labelName(), labelValue)).append(' ').append(value.doubleValue()).append('\n'));
+        }
+      } else {
+        family.children().forEach((labels, collector) -> collector.write(sb, family.name(), labels));
+      }
+    }
+    return sb.toString();
+  }
+
+  private Family family(String name, String help, String type, String labelName) {
+    Family family = families.computeIfAbsent(name, key -> new Family(name, help, type, labelName, new ConcurrentSkipListMap<>(), null));
+    if (!family.type().equals(type) || !Objects.equals(family.labelName(), labelName)) {
+      throw new IllegalStateException("Metric " + name + " is already registered as a " + family.type() + " with a different label set");
+    }
+    return family;
+  }
+
+  private static Collector gaugeOf(DoubleSupplier supplier) {
+    return (sb, name, labels) -> sb.append(name).append(labels).append(' ').append(supplier.getAsDouble()).append('\n');
+  }
+
+  private static String labels(String labelName, String labelValue) {
+    String escaped = labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    return "{" + labelName + "=\"" + escaped + "\"}";
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("riskrieg.Attack")
+@Label("Attack")
+@Category({"Riskrieg", "Game"})
+@Description("Resolution of a single contested claim")
+@StackTrace(false)
+public class AttackEvent extends Event {
+
+  @Label("Map")
+  public String mapCodename;
+
+  @Label("Territory")
+  public String territory;
+
+  @Label("Claim Count")
+  public int claimCount;
+
+  @Label("Attack Rolls")
+  public int attackRolls;
+
+  @Label("Defense Rolls")
+  public int defenseRolls;
+
+  @Label("Defense Sides")
+  public int defenseSides;
+
+  @Label("Success")
+  public boolean success;
+
+}
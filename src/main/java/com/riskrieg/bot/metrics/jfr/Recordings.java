@@ -0,0 +1,96 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.metrics.jfr;
+
+import com.riskrieg.bot.BotConstants;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+public class Recordings {
+
+  private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final Duration MAX_AGE = Duration.ofHours(1); // Bounds the on-disk repository for open-ended recordings
+
+  private static Recording recording;
+
+  private Recordings() {
+  }
+
+  public static synchronized boolean isRunning() {
+    return recording != null && recording.getState() == RecordingState.RUNNING;
+  }
+
+  public static synchronized Optional<Path> start(Duration duration) throws IOException, ParseException {
+    if (isRunning()) {
+      throw new IllegalStateException("A recording is already running.");
+    }
+    if (recording != null) {
+      recording.close();
+    }
+    Recording newRecording = new Recording(Configuration.getConfiguration("profile"));
+    newRecording.setName("riskrieg");
+    newRecording.setToDisk(true);
+    newRecording.setMaxAge(MAX_AGE);
+    Path destination = null;
+    if (duration != null) { // Timed recordings write themselves out when they finish
+      destination = nextPath();
+      newRecording.setDuration(duration);
+      newRecording.setDestination(destination);
+    }
+    newRecording.start();
+    recording = newRecording;
+    return Optional.ofNullable(destination);
+  }
+
+  public static synchronized Path dump() throws IOException {
+    if (!isRunning()) {
+      throw new IllegalStateException("No recording is running.");
+    }
+    Path path = nextPath();
+    recording.dump(path);
+    return path;
+  }
+
+  public static synchronized Path stop() throws IOException {
+    if (!isRunning()) {
+      throw new IllegalStateException("No recording is running.");
+    }
+    Path path = nextPath();
+    recording.stop();
+    recording.dump(path);
+    recording.close();
+    recording = null;
+    return path;
+  }
+
+  private static Path nextPath() throws IOException {
+    Path directory = Path.of(BotConstants.RECORDING_PATH);
+    Files.createDirectories(directory);
+    return directory.resolve("riskrieg-" + LocalDateTime.now().format(FILE_TIME_FORMAT) + ".jfr");
+  }
+
+}
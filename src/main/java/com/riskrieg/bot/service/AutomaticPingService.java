@@ -55,6 +55,10 @@ public class AutomaticPingService implements StartableService {
         return "AutomaticPing";
     }
 
+    public static int taskCount() {
+        return tasks.size();
+    }
+
     @Override
     public Configuration createConfig(String groupId, String gameId, Interval interval) {
         Path path = AutomaticPingConfig.formPath(groupId, gameId);
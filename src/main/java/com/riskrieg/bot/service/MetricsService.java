@@ -0,0 +1,153 @@
+package com.riskrieg.bot.service;
+
+import com.riskrieg.bot.command.handler.Admission;
+import com.riskrieg.bot.command.handler.AdmissionController;
+import com.riskrieg.bot.command.trace.Traces;
+import com.riskrieg.bot.config.Configuration;
+import com.riskrieg.bot.config.MetricsConfig;
+import com.riskrieg.bot.metrics.Metrics;
+import com.riskrieg.bot.metrics.MetricsRegistry;
+import com.riskrieg.bot.metrics.MetricsServer;
+import com.riskrieg.bot.util.Interval;
+import com.riskrieg.bot.util.RenderGate;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+public class MetricsService implements StartableService {
+
+    private final AdmissionController admissionController;
+
+    private MetricsConfig config = new MetricsConfig();
+    private MetricsServer server;
+
+    public MetricsService(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public String name() {
+        return "Metrics";
+    }
+
+    @Override
+    public Configuration createConfig(String groupId, String gameId, Interval interval) {
+        return null;
+    }
+
+    @Override
+    public Optional<Configuration> getConfig(String groupId, String gameId) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Configuration retrieveConfig(String groupId, String gameId, Interval interval) {
+        return null;
+    }
+
+    @Override
+    public void deleteConfig(String groupId, String gameId) {
+
+    }
+
+    @Override
+    public synchronized void pause() {
+        if(server != null) {
+            server.stop();
+        }
+    }
+
+    @Override
+    public synchronized void unpause() {
+        if(server != null) {
+            startServer();
+        }
+    }
+
+    @Override
+    public synchronized void start(ShardManager manager) {
+        config = loadConfig();
+        if(!config.enabled()) {
+            System.out.println("\r[Services] " + name() + " service disabled.");
+            return;
+        }
+        registerGauges(Metrics.REGISTRY, manager);
+        server = new MetricsServer(Metrics.REGISTRY, config.port());
+        if(startServer()) {
+            System.out.println("\r[Services] " + name() + " service running on 127.0.0.1:" + config.port() + "/metrics.");
+        }
+    }
+
+    private boolean startServer() {
+        try {
+            server.start();
+            return true;
+        } catch(IOException e) {
+            System.err.println("\r[Services] " + name() + " service could not bind to port " + config.port() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private MetricsConfig loadConfig() {
+        MetricsConfig defaults = new MetricsConfig();
+        try {
+            if(Files.notExists(defaults.path())) {
+                RkJsonUtil.write(defaults.path(), MetricsConfig.class, defaults);
+                return defaults;
+            }
+            MetricsConfig loaded = RkJsonUtil.read(defaults.path(), MetricsConfig.class);
+            return loaded == null ? defaults : loaded;
+        } catch(IOException e) {
+            System.err.println("\r[Services] Could not load metrics configuration, metrics will stay disabled: " + e.getMessage());
+            return defaults;
+        }
+    }
+
+    private void registerGauges(MetricsRegistry registry, ShardManager manager) {
+        // Discord
+        registry.gauges("riskrieg_gateway_ping_seconds", "Gateway heartbeat latency per shard.", "shard", () -> {
+            Map<String, Double> pings = new TreeMap<>();
+            for(JDA shard : manager.getShards()) {
+                pings.put(String.valueOf(shard.getShardInfo().getShardId()), shard.getGatewayPing() / 1000.0);
+            }
+            return pings;
+        });
+        registry.gauge("riskrieg_guilds", "Guilds visible to the bot across all shards.", () -> manager.getGuildCache().size());
+
+        // Scheduler
+        registry.gauge("riskrieg_automatic_ping_tasks", "Scheduled automatic ping tasks.", AutomaticPingService::taskCount);
+
+        // Interactions
+        for(Admission admission : Admission.values()) {
+            registry.counter("riskrieg_admission_total", "Admission decisions for incoming commands.", "outcome", admission.name().toLowerCase(Locale.ROOT),
+                    () -> admissionController.count(admission));
+        }
+        registry.gauge("riskrieg_active_traces", "Interactions that are currently being traced.", Traces::activeCount);
+        registry.gauge("riskrieg_renders_active", "Map renders currently holding a render permit.", RenderGate::activeRenders);
+        registry.gauge("riskrieg_renders_queued", "Map renders waiting for a render permit.", RenderGate::queuedRenders);
+
+        // JVM
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        registry.gauge("jvm_memory_heap_used_bytes", "Used heap memory.", () -> memory.getHeapMemoryUsage().getUsed());
+        registry.gauge("jvm_memory_heap_committed_bytes", "Committed heap memory.", () -> memory.getHeapMemoryUsage().getCommitted());
+        registry.gauge("jvm_memory_heap_max_bytes", "Maximum heap memory.", () -> memory.getHeapMemoryUsage().getMax());
+        registry.gauge("jvm_memory_nonheap_used_bytes", "Used non-heap memory.", () -> memory.getNonHeapMemoryUsage().getUsed());
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            registry.counter("jvm_gc_collections_total", "Garbage collections per collector.", "gc", gc.getName(), gc::getCollectionCount);
+            registry.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collection per collector.", "gc", gc.getName(), () -> gc.getCollectionTime() / 1000.0);
+        }
+        registry.gauge("jvm_threads_live", "Live JVM threads.", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        registry.gauge("jvm_uptime_seconds", "JVM uptime.", () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+}
@@ -0,0 +1,300 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.sim;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.game.Seeds;
+import com.riskrieg.bot.game.StandardAttack;
+import com.riskrieg.bot.util.ParseUtil;
+import com.riskrieg.bot.util.RiskriegUtil;
+import com.riskrieg.bot.util.index.TurnSummary;
+import com.riskrieg.codec.decode.RkmDecoder;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.game.ClaimOverride;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.GameConstants;
+import com.riskrieg.core.api.game.GamePhase;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.entity.player.Player;
+import com.riskrieg.core.api.game.feature.FeatureFlag;
+import com.riskrieg.core.api.game.mode.Brawl;
+import com.riskrieg.core.api.game.order.ColorOrder;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import com.riskrieg.core.api.identifier.GroupIdentifier;
+import com.riskrieg.core.api.identifier.PlayerIdentifier;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import com.riskrieg.palette.RkpColor;
+import com.riskrieg.palette.RkpPalette;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class Simulator { // Headless self-play: drives complete games through the same API and attack logic as the commands, without Discord
+
+  private static final List<String> MODES = List.of("conquest", "regicide", "brawl");
+  private static final String USAGE = "Usage: simulate [--games n] [--threads n] [--mode all|conquest|regicide|brawl] [--map all|<codename>] [--players n]"
+      + " [--strategy greedy|random] [--max-turns n] [--seed n] [--render]";
+
+  record Options(int games, int threads, List<String> modes, String map, int players, Strategy strategy, boolean render, int maxTurns, long seed) {
+
+    static Options parse(String[] args) {
+      int games = 100;
+      int threads = Runtime.getRuntime().availableProcessors();
+      List<String> modes = MODES;
+      String map = "all";
+      int players = 4;
+      Strategy strategy = Strategy.GREEDY;
+      boolean render = false;
+      int maxTurns = 5000;
+      long seed = System.nanoTime();
+      for (int i = 0; i < args.length; i++) {
+        String value = i + 1 < args.length ? args[i + 1] : "";
+        switch (args[i]) {
+          case "--games" -> games = Integer.parseInt(value);
+          case "--threads" -> threads = Integer.parseInt(value);
+          case "--mode" -> modes = value.equalsIgnoreCase("all") ? MODES : List.of(value.toLowerCase(Locale.ROOT));
+          case "--map" -> map = value;
+          case "--players" -> players = Integer.parseInt(value);
+          case "--strategy" -> strategy = Strategy.parse(value);
+          case "--max-turns" -> maxTurns = Integer.parseInt(value);
+          case "--seed" -> seed = Long.parseLong(value);
+          case "--render" -> {
+            render = true;
+            continue;
+          }
+          default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+        i++;
+      }
+      return new Options(games, Math.max(1, threads), modes, map, Math.max(2, players), strategy, render, maxTurns, seed);
+    }
+
+  }
+
+  record Result(String mode, String map, boolean finished, int turns, long[] claimNanos, long renderNanos, int renders) {
+
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options;
+    try {
+      options = Options.parse(args);
+    } catch (IllegalArgumentException e) { // Also covers malformed numbers, so a typo never runs a different experiment
+      System.out.println("[Simulator] " + e.getMessage());
+      System.out.println(USAGE);
+      return;
+    }
+    List<RkmMap> maps = loadMaps(options.map());
+    if (maps.isEmpty()) {
+      System.out.println("[Simulator] No maps found under " + BotConstants.MAP_PATH + ".");
+      return;
+    }
+
+    Path repository = Files.createTempDirectory("riskrieg-sim");
+    Riskrieg api = RiskriegBuilder.createLocal(repository).build();
+    System.out.println("[Simulator] " + options.games() + " games on " + options.threads() + " threads, " + maps.size() + " maps, modes " + options.modes()
+        + ", strategy " + options.strategy().name().toLowerCase(Locale.ROOT) + ", seed " + options.seed() + ".");
+
+    ExecutorService executor = Executors.newFixedThreadPool(options.threads());
+    List<Future<Result>> futures = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int n = 0; n < options.games(); n++) {
+      final int index = n;
+      String mode = options.modes().get(index % options.modes().size());
+      RkmMap map = maps.get((index / options.modes().size()) % maps.size());
+      futures.add(executor.submit(() -> play(api, index, mode, map, options)));
+    }
+
+    List<Result> results = new ArrayList<>();
+    int failed = 0;
+    for (Future<Result> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException e) {
+        failed++;
+        System.out.println("[Simulator] Game failed: " + e.getCause());
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    executor.shutdown();
+    deleteRecursively(repository);
+
+    report(results, failed, elapsed);
+  }
+
+  static Result play(Riskrieg api, int index, String mode, RkmMap map, Options options) {
+    Random random = new Random(options.seed() + index);
+    RkpPalette palette = RkpPalette.standard16();
+    Game game = await(future -> api.createGroup(GroupIdentifier.of("sim-" + index)).queue(group -> group.createGame(GameConstants.standard().clampTo(palette), palette,
+        GameIdentifier.of("sim-" + index), ParseUtil.parseGameMode(mode), new FeatureFlag[0]).queue(future::complete, future::completeExceptionally), future::completeExceptionally));
+
+    List<RkpColor> colors = new ArrayList<>(palette.sortedColorSet());
+    int players = Math.min(options.players(), Math.min(colors.size(), map.vertices().size()));
+    for (int p = 0; p < players; p++) {
+      PlayerIdentifier identifier = PlayerIdentifier.of("sim-" + index + "-" + p);
+      String name = "Bot " + (p + 1);
+      Player player = await(future -> game.addPlayer(identifier, name).queue(future::complete, future::completeExceptionally));
+      RkpColor color = colors.get(p);
+      await(future -> game.createNation(color, player.identifier()).queue(future::complete, future::completeExceptionally));
+    }
+    await(future -> game.selectMap(map).queue(future::complete, future::completeExceptionally));
+
+    long[] claims = {0}; // Numbered like saved games, so a game's dice can be replayed from its seed
+    if (game.getClass() != Brawl.class) { // Everyone picks a starting territory during setup
+      for (Player player : game.players()) {
+        game.getNation(player.identifier()).ifPresent(nation -> {
+          List<TerritoryIdentity> start = options.strategy().choose(game, nation, 1, random);
+          long claim = claims[0]++;
+          if (!start.isEmpty()) {
+            tryAwait(future -> game.claim(new StandardAttack(Seeds.generator(options.seed() + index, claim)), player.identifier(), ClaimOverride.NONE, start.toArray(TerritoryIdentity[]::new))
+                .queue(future::complete, future::completeExceptionally));
+          }
+        });
+      }
+    }
+    await(future -> game.start(new ColorOrder(), false, false).queue(future::complete, future::completeExceptionally));
+
+    long[] claimNanos = new long[64];
+    int turns = 0;
+    long renderNanos = 0;
+    int renders = 0;
+    while (game.phase() == GamePhase.ACTIVE && turns < options.maxTurns()) {
+      Optional<Player> current = game.getCurrentPlayer();
+      Optional<Nation> nation = current.flatMap(player -> game.getNation(player.identifier()));
+      long begin = System.nanoTime();
+      if (current.isPresent() && nation.isPresent()) {
+        List<TerritoryIdentity> targets = options.strategy().choose(game, nation.get(), allowedClaims(game, nation.get()), random);
+        if (!targets.isEmpty()) {
+          long claim = claims[0]++;
+          tryAwait(future -> game.claim(new StandardAttack(Seeds.generator(options.seed() + index, claim)), current.get().identifier(), ClaimOverride.NONE, targets.toArray(TerritoryIdentity[]::new))
+              .queue(future::complete, future::completeExceptionally));
+        }
+      }
+      await(future -> game.update(true).queue(future::complete, future::completeExceptionally)); // Claiming and skipping both end the turn this way
+      if (turns == claimNanos.length) {
+        claimNanos = Arrays.copyOf(claimNanos, turns * 2);
+      }
+      claimNanos[turns++] = System.nanoTime() - begin;
+
+      if (options.render()) {
+        long renderStart = System.nanoTime();
+        RiskriegUtil.constructMapImageData(game);
+        renderNanos += System.nanoTime() - renderStart;
+        renders++;
+      }
+    }
+    return new Result(mode, map.codename(), game.phase() == GamePhase.ENDED, turns, Arrays.copyOf(claimNanos, turns), renderNanos, renders);
+  }
+
+  private static int allowedClaims(Game game, Nation nation) {
+    long allowed = TurnSummary.allowedClaims(game, nation);
+    return (int) Math.max(0, Math.min(Integer.MAX_VALUE, allowed));
+  }
+
+  private static void report(List<Result> results, int failed, long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    long finished = results.stream().filter(Result::finished).count();
+    long[] latencies = results.stream().flatMapToLong(result -> Arrays.stream(result.claimNanos())).sorted().toArray();
+    long turns = latencies.length;
+    long renders = results.stream().mapToLong(Result::renders).sum();
+    long renderNanos = results.stream().mapToLong(Result::renderNanos).sum();
+
+    System.out.println();
+    System.out.printf(Locale.US, "Games:        %d (%d finished, %d hit the turn limit, %d failed)%n", results.size() + failed, finished, results.size() - finished, failed);
+    System.out.printf(Locale.US, "Wall time:    %.2f s%n", seconds);
+    System.out.printf(Locale.US, "Throughput:   %.2f games/s, %.0f turns/s%n", results.size() / seconds, turns / seconds);
+    if (turns > 0) {
+      System.out.printf(Locale.US, "Turn latency: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+          percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+    }
+    if (renders > 0) {
+      System.out.printf(Locale.US, "Render:       %.2f ms per turn over %d renders%n", renderNanos / 1e6 / renders, renders);
+    }
+    results.stream().map(Result::mode).distinct().sorted().forEach(mode -> {
+      List<Result> byMode = results.stream().filter(result -> result.mode().equals(mode)).toList();
+      System.out.printf(Locale.US, "  %-9s %d games, %.1f turns on average%n", mode, byMode.size(), byMode.stream().mapToInt(Result::turns).average().orElse(0));
+    });
+  }
+
+  private static double percentile(long[] sorted, double quantile) {
+    int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(quantile * sorted.length) - 1));
+    return sorted[index] / 1e6;
+  }
+
+  private static List<RkmMap> loadMaps(String filter) throws IOException {
+    Path mapPath = Path.of(BotConstants.MAP_PATH);
+    if (Files.notExists(mapPath)) {
+      return List.of();
+    }
+    List<RkmMap> maps = new ArrayList<>();
+    try (Stream<Path> paths = Files.list(mapPath)) {
+      for (Path path : paths.filter(path -> path.toString().endsWith(".rkm")).sorted().toList()) {
+        String codename = path.getFileName().toString().replace(".rkm", "");
+        if (filter.equalsIgnoreCase("all") || filter.equalsIgnoreCase(codename)) {
+          try {
+            maps.add(new RkmDecoder().decode(path));
+          } catch (Exception e) {
+            System.out.println("[Simulator] Skipping map " + codename + ": " + e.getMessage());
+          }
+        }
+      }
+    }
+    maps.sort(Comparator.comparing(RkmMap::codename));
+    return maps;
+  }
+
+  private static <T> T await(Consumer<CompletableFuture<T>> request) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    request.accept(future);
+    return future.join();
+  }
+
+  private static <T> boolean tryAwait(Consumer<CompletableFuture<T>> request) { // Rejected claims are part of play, the turn still ends
+    try {
+      await(request);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static void deleteRecursively(Path root) throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.sim;
+
+import com.riskrieg.bot.game.AttackOdds;
+import com.riskrieg.bot.game.ClaimSnapshot;
+import com.riskrieg.bot.game.MapGraph;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public enum Strategy { // How simulated players pick the territories they claim
+
+  GREEDY { // Highest success probability first, unclaimed territory counts as certain
+
+    @Override
+    List<TerritoryIdentity> choose(Game game, Nation nation, int amount, Random random) {
+      ClaimSnapshot snapshot = ClaimSnapshot.of(game.map(), game.claims());
+      Map<TerritoryIdentity, NationIdentifier> owners = owners(game);
+      Map<TerritoryIdentity, Double> odds = new HashMap<>();
+      for (TerritoryIdentity candidate : candidates(game, nation, owners)) {
+        NationIdentifier owner = owners.get(candidate);
+        double probability = owner == null ? 1.0 : AttackOdds.successProbability(snapshot.rolls(nation.identifier(), owner, candidate, game.constants()));
+        odds.put(candidate, probability + random.nextDouble() * 1e-9); // Jitter breaks ties reproducibly
+      }
+      return odds.entrySet().stream()
+          .sorted(Map.Entry.<TerritoryIdentity, Double>comparingByValue(Comparator.reverseOrder()))
+          .limit(amount)
+          .map(Map.Entry::getKey)
+          .toList();
+    }
+
+  },
+
+  RANDOM {
+
+    @Override
+    List<TerritoryIdentity> choose(Game game, Nation nation, int amount, Random random) {
+      List<TerritoryIdentity> candidates = new ArrayList<>(candidates(game, nation, owners(game)));
+      candidates.sort(Comparator.comparing(TerritoryIdentity::toString)); // Fixed order so a seed always gives the same picks
+      List<TerritoryIdentity> chosen = new ArrayList<>();
+      while (chosen.size() < amount && !candidates.isEmpty()) {
+        chosen.add(candidates.remove(random.nextInt(candidates.size())));
+      }
+      return chosen;
+    }
+
+  };
+
+  abstract List<TerritoryIdentity> choose(Game game, Nation nation, int amount, Random random);
+
+  static Strategy parse(String name) {
+    return switch (name.toLowerCase(Locale.ROOT)) {
+      case "greedy" -> GREEDY;
+      case "random" -> RANDOM;
+      default -> throw new IllegalArgumentException("Unknown strategy: " + name + " (expected greedy or random)");
+    };
+  }
+
+  private static Map<TerritoryIdentity, NationIdentifier> owners(Game game) {
+    Map<TerritoryIdentity, NationIdentifier> owners = new HashMap<>();
+    for (Claim claim : game.claims()) {
+      owners.put(claim.territory().identity(), claim.identifier());
+    }
+    return owners;
+  }
+
+  private static List<TerritoryIdentity> candidates(Game game, Nation nation, Map<TerritoryIdentity, NationIdentifier> owners) {
+    MapGraph graph = MapGraph.of(game.map());
+    Set<NationIdentifier> friendly = game.getAllies(nation.identifier()).stream().map(Nation::identifier).collect(Collectors.toSet());
+    friendly.add(nation.identifier());
+
+    List<TerritoryIdentity> result = new ArrayList<>();
+    boolean[] seen = new boolean[graph.size()];
+    boolean ownsAny = false;
+    for (int v = 0; v < graph.size(); v++) {
+      if (!nation.identifier().equals(owners.get(graph.identity(v)))) {
+        continue;
+      }
+      ownsAny = true;
+      for (int edge = graph.start(v), end = graph.end(v); edge < end; edge++) {
+        int neighbor = graph.target(edge);
+        NationIdentifier owner = owners.get(graph.identity(neighbor));
+        if (!seen[neighbor] && (owner == null || !friendly.contains(owner))) {
+          seen[neighbor] = true;
+          result.add(graph.identity(neighbor));
+        }
+      }
+    }
+    if (!ownsAny) { // No foothold yet, so any unclaimed territory is a valid start
+      for (int v = 0; v < graph.size(); v++) {
+        if (!owners.containsKey(graph.identity(v))) {
+          result.add(graph.identity(v));
+        }
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,35 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.stats;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.config.Configuration;
+import java.nio.file.Path;
+import java.util.Map;
+
+public record GameStats(String groupId, String gameId, long startedAt, int turns, int claims, int attacks, int attacksWon, int capitalsTaken,
+                        int sampleEvery, Map<String, PlayerStats> players) implements Configuration {
+
+  public static final int MAX_SAMPLES = 256;
+
+  @Override
+  public Path path() {
+    return Path.of(BotConstants.STATS_PATH + groupId + "/" + gameId + ".json");
+  }
+
+}
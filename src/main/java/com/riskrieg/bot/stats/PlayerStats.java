@@ -0,0 +1,67 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record PlayerStats(String playerId, String name, int held, int peak, int claimed, int attacksWon, int attacksLost, int defended, int territoriesLost,
+                          int capitalsTaken, int defeatedOnTurn, List<Integer> history) {
+
+  static PlayerStats of(String playerId, String name, int held) {
+    return new PlayerStats(playerId, name, held, held, 0, 0, 0, 0, 0, 0, -1, List.of());
+  }
+
+  PlayerStats withName(String name) {
+    return new PlayerStats(playerId, name, held, peak, claimed, attacksWon, attacksLost, defended, territoriesLost, capitalsTaken, defeatedOnTurn, history);
+  }
+
+  PlayerStats attacked(int free, int won, int lost, int capitals) {
+    int newHeld = held + free + won;
+    return new PlayerStats(playerId, name, newHeld, Math.max(peak, newHeld), claimed + free, attacksWon + won, attacksLost + lost, defended, territoriesLost,
+        capitalsTaken + capitals, defeatedOnTurn, history);
+  }
+
+  PlayerStats withHeld(int held) {
+    return new PlayerStats(playerId, name, held, Math.max(peak, held), claimed, attacksWon, attacksLost, defended, territoriesLost, capitalsTaken, defeatedOnTurn, history);
+  }
+
+  PlayerStats lostTerritory() {
+    return new PlayerStats(playerId, name, Math.max(0, held - 1), peak, claimed, attacksWon, attacksLost, defended, territoriesLost + 1, capitalsTaken, defeatedOnTurn, history);
+  }
+
+  PlayerStats defendedTerritory() {
+    return new PlayerStats(playerId, name, held, peak, claimed, attacksWon, attacksLost, defended + 1, territoriesLost, capitalsTaken, defeatedOnTurn, history);
+  }
+
+  PlayerStats defeated(int turn) {
+    return defeatedOnTurn >= 0 ? this : new PlayerStats(playerId, name, held, peak, claimed, attacksWon, attacksLost, defended, territoriesLost, capitalsTaken, turn, history);
+  }
+
+  PlayerStats sampled(boolean compact) { // Compacting keeps every other sample, so the history stays bounded however long the game runs
+    List<Integer> samples = new ArrayList<>(history.size() + 1);
+    for (int i = 0; i < history.size(); i++) {
+      if (!compact || i % 2 == 1) {
+        samples.add(history.get(i));
+      }
+    }
+    samples.add(held);
+    return new PlayerStats(playerId, name, held, peak, claimed, attacksWon, attacksLost, defended, territoriesLost, capitalsTaken, defeatedOnTurn, List.copyOf(samples));
+  }
+
+}
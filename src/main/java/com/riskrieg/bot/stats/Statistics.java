@@ -0,0 +1,250 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.stats;
+
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.GamePhase;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.entity.player.Player;
+import com.riskrieg.core.api.game.event.ClaimEvent;
+import com.riskrieg.core.api.game.event.UpdateEvent;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.game.territory.TerritoryType;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+public final class Statistics { // Running counters per game, updated from claim and update events so lookups never scan the board
+
+  private static final ConcurrentHashMap<String, Optional<GameStats>> cache = new ConcurrentHashMap<>();
+
+  private Statistics() {
+  }
+
+  public static Map<TerritoryIdentity, Claim> owners(Game game) { // Taken before a claim, since the events only describe the new state
+    Map<TerritoryIdentity, Claim> owners = new HashMap<>();
+    for (Claim claim : game.claims()) {
+      owners.put(claim.territory().identity(), claim);
+    }
+    return owners;
+  }
+
+  public static Optional<GameStats> get(String groupId, String gameId) {
+    return cache.computeIfAbsent(key(groupId, gameId), key -> read(groupId, gameId));
+  }
+
+  public static void recordClaim(String groupId, Game game, Map<TerritoryIdentity, Claim> before, ClaimEvent claimEvent, UpdateEvent updateEvent) {
+    Map<NationIdentifier, String> leaders = leaders(game);
+    List<String> lostBy = new ArrayList<>();
+    List<String> defendedBy = new ArrayList<>();
+    int capitals = 0;
+    for (Claim won : claimEvent.wonClaims()) {
+      Claim previous = before.get(won.territory().identity());
+      if (previous == null) {
+        continue;
+      }
+      if (previous.territory().type() == TerritoryType.CAPITAL) {
+        capitals++;
+      }
+      lostBy.add(leaders.getOrDefault(previous.identifier(), ""));
+    }
+    for (Claim defended : claimEvent.defendedClaims()) {
+      Claim previous = before.get(defended.territory().identity());
+      if (previous != null) {
+        defendedBy.add(leaders.getOrDefault(previous.identifier(), ""));
+      }
+    }
+    String attackerId = claimEvent.leader().identifier().id();
+    int free = claimEvent.freeClaims().size();
+    int won = claimEvent.wonClaims().size();
+    int lost = claimEvent.defendedClaims().size();
+    final int capitalsTaken = capitals;
+    List<String> defeated = ids(updateEvent.defeatedPlayers());
+    save(game, update(groupId, game, before, stats -> endTurn(applyClaim(stats, attackerId, free, won, lost, capitalsTaken, lostBy, defendedBy), defeated)));
+  }
+
+  public static void recordSkip(String groupId, Game game, UpdateEvent updateEvent) {
+    List<String> defeated = ids(updateEvent.defeatedPlayers());
+    save(game, update(groupId, game, null, stats -> endTurn(stats, defeated)));
+  }
+
+  public static void recordRemoval(String groupId, Game game) { // Kick and Leave release the removed nation's territory without a claim event
+    Map<NationIdentifier, String> leaders = leaders(game);
+    Map<String, Integer> held = new HashMap<>();
+    for (Claim claim : game.claims()) {
+      held.merge(leaders.getOrDefault(claim.identifier(), ""), 1, Integer::sum);
+    }
+    save(game, update(groupId, game, null, stats -> applyHeld(stats, held)));
+  }
+
+  public static void delete(String groupId, String gameId) {
+    cache.remove(key(groupId, gameId));
+    try {
+      Files.deleteIfExists(empty(groupId, gameId).path());
+    } catch (IOException e) {
+      System.out.println("[Stats] Could not delete statistics for " + groupId + "/" + gameId + ": " + e.getMessage());
+    }
+  }
+
+  /* Internal */
+
+  private static GameStats update(String groupId, Game game, Map<TerritoryIdentity, Claim> before, UnaryOperator<GameStats> update) {
+    String gameId = game.identifier().id();
+    return cache.compute(key(groupId, gameId), (key, current) -> {
+      GameStats stats = current == null || current.isEmpty() ? read(groupId, gameId).orElseGet(() -> start(groupId, game)) : current.get();
+      return Optional.of(update.apply(withPlayers(stats, game, before)));
+    }).orElseThrow();
+  }
+
+  private static GameStats start(String groupId, Game game) { // Players are added by withPlayers, seeded from the current board for games that predate tracking
+    return new GameStats(groupId, game.identifier().id(), System.currentTimeMillis(), 0, 0, 0, 0, 0, 1, Map.of());
+  }
+
+  private static GameStats withPlayers(GameStats stats, Game game, Map<TerritoryIdentity, Claim> before) { // Adds players who joined since the last event
+    Map<String, PlayerStats> players = null;
+    Map<NationIdentifier, Integer> held = null;
+    for (Nation nation : game.nations()) {
+      String playerId = nation.leaderIdentifier().id();
+      String name = game.getPlayer(nation.leaderIdentifier()).map(Player::name).orElse(playerId);
+      PlayerStats existing = stats.players().get(playerId);
+      if (existing != null && existing.name().equals(name)) {
+        continue;
+      }
+      if (players == null) {
+        players = new HashMap<>(stats.players());
+      }
+      if (existing != null) {
+        players.put(playerId, existing.withName(name));
+        continue;
+      }
+      if (held == null) {
+        held = new HashMap<>();
+        for (Claim claim : before != null ? before.values() : game.claims()) {
+          held.merge(claim.identifier(), 1, Integer::sum);
+        }
+      }
+      players.put(playerId, PlayerStats.of(playerId, name, held.getOrDefault(nation.identifier(), 0)));
+    }
+    if (players == null) {
+      return stats;
+    }
+    return new GameStats(stats.groupId(), stats.gameId(), stats.startedAt(), stats.turns(), stats.claims(), stats.attacks(), stats.attacksWon(), stats.capitalsTaken(),
+        stats.sampleEvery(), Map.copyOf(players));
+  }
+
+  static GameStats applyClaim(GameStats stats, String attackerId, int free, int won, int lost, int capitals, List<String> lostBy, List<String> defendedBy) {
+    Map<String, PlayerStats> players = new HashMap<>(stats.players());
+    for (String defenderId : lostBy) {
+      players.computeIfPresent(defenderId, (id, defender) -> defender.lostTerritory());
+    }
+    for (String defenderId : defendedBy) {
+      players.computeIfPresent(defenderId, (id, defender) -> defender.defendedTerritory());
+    }
+    players.computeIfPresent(attackerId, (id, attacker) -> attacker.attacked(free, won, lost, capitals));
+    return new GameStats(stats.groupId(), stats.gameId(), stats.startedAt(), stats.turns(), stats.claims() + free + won, stats.attacks() + won + lost,
+        stats.attacksWon() + won, stats.capitalsTaken() + capitals, stats.sampleEvery(), Map.copyOf(players));
+  }
+
+  static GameStats applyHeld(GameStats stats, Map<String, Integer> held) { // Players missing from held no longer own anything
+    Map<String, PlayerStats> players = new HashMap<>(stats.players());
+    players.replaceAll((id, player) -> player.withHeld(held.getOrDefault(id, 0)));
+    return new GameStats(stats.groupId(), stats.gameId(), stats.startedAt(), stats.turns(), stats.claims(), stats.attacks(), stats.attacksWon(), stats.capitalsTaken(),
+        stats.sampleEvery(), Map.copyOf(players));
+  }
+
+  static GameStats endTurn(GameStats stats, List<String> defeated) {
+    int turn = stats.turns() + 1;
+    Map<String, PlayerStats> players = new HashMap<>(stats.players());
+    for (String playerId : defeated) {
+      players.computeIfPresent(playerId, (id, player) -> player.defeated(turn));
+    }
+
+    int sampleEvery = stats.sampleEvery();
+    if (turn % sampleEvery == 0) {
+      boolean compact = players.values().stream().anyMatch(player -> player.history().size() >= GameStats.MAX_SAMPLES);
+      players.replaceAll((id, player) -> player.sampled(compact));
+      if (compact) {
+        sampleEvery *= 2;
+      }
+    }
+    return new GameStats(stats.groupId(), stats.gameId(), stats.startedAt(), turn, stats.claims(), stats.attacks(), stats.attacksWon(), stats.capitalsTaken(),
+        sampleEvery, Map.copyOf(players));
+  }
+
+  private static List<String> ids(Iterable<Player> players) {
+    List<String> ids = new ArrayList<>();
+    for (Player player : players) {
+      ids.add(player.identifier().id());
+    }
+    return ids;
+  }
+
+  private static Map<NationIdentifier, String> leaders(Game game) {
+    Map<NationIdentifier, String> leaders = new HashMap<>();
+    for (Nation nation : game.nations()) {
+      leaders.put(nation.identifier(), nation.leaderIdentifier().id());
+    }
+    return leaders;
+  }
+
+  private static Optional<GameStats> read(String groupId, String gameId) {
+    GameStats empty = empty(groupId, gameId);
+    if (!Files.exists(empty.path())) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(RkJsonUtil.read(empty.path(), GameStats.class));
+    } catch (IOException e) {
+      System.out.println("[Stats] Could not read statistics for " + groupId + "/" + gameId + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private static void save(Game game, GameStats stats) { // An ended game's statistics stay cached for the leaderboard and are deleted right after
+    if (game.phase() != GamePhase.ENDED) {
+      save(stats);
+    }
+  }
+
+  private static void save(GameStats stats) {
+    try {
+      Files.createDirectories(stats.path().getParent());
+      RkJsonUtil.write(stats.path(), GameStats.class, stats);
+    } catch (IOException e) {
+      System.out.println("[Stats] Could not save statistics for " + stats.groupId() + "/" + stats.gameId() + ": " + e.getMessage());
+    }
+  }
+
+  private static GameStats empty(String groupId, String gameId) {
+    return new GameStats(groupId, gameId, 0L, 0, 0, 0, 0, 0, 1, Map.of());
+  }
+
+  private static String key(String groupId, String gameId) {
+    return groupId + "/" + gameId;
+  }
+
+}
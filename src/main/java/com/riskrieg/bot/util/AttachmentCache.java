@@ -0,0 +1,165 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.metrics.Metrics;
+import com.riskrieg.bot.metrics.Metrics.CacheCounters;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.Attachment;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.utils.FileUpload;
+
+public final class AttachmentCache { // Remembers the CDN URL of images recently sent to a channel, so a byte-identical image is linked instead of uploaded again
+
+  private static final long TTL_NANOS = Duration.ofMinutes(10).toNanos(); // Well inside the lifetime of a signed attachment URL
+  private static final int MAX_PER_CHANNEL = 8;
+
+  private static final CacheCounters cacheCounters = Metrics.cache("attachment_url");
+
+  private record Entry(String url, long expiresNanos) {
+
+    boolean isExpired() {
+      return System.nanoTime() - expiresNanos > 0;
+    }
+
+  }
+
+  private static final ConcurrentHashMap<String, Map<String, Entry>> channels = new ConcurrentHashMap<>();
+
+  private AttachmentCache() {
+  }
+
+  public static CompletableFuture<Void> send(InteractionHook hook, MessageEmbed embed, byte[] image, String fileName, Span upload) { // Embed must reference attachment://fileName
+    Channel channel = hook.getInteraction().getChannel();
+    String channelId = channel == null ? null : channel.getId();
+    String hash = hash(image);
+    Optional<String> url = lookup(channelId, hash);
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    if (image == null) { // The render was refused or failed, the embed still goes out
+      hook.sendMessageEmbeds(embed).queue(message -> finish(upload, done), failure -> finish(upload, done));
+      return done;
+    }
+    if (url.isPresent()) {
+      hook.sendMessageEmbeds(withImage(embed, url.get())).queue(message -> finish(upload, done), failure -> finish(upload, done));
+      return done;
+    }
+    hook.sendMessageEmbeds(embed).addFiles(FileUpload.fromData(image, fileName)).queue(message -> {
+      remember(channelId, hash, message, fileName);
+      finish(upload, done);
+    }, failure -> finish(upload, done));
+    return done;
+  }
+
+  public static CompletableFuture<Void> edit(Message message, MessageEmbed embed, byte[] image, String fileName, Span upload) {
+    String channelId = message.getChannel().getId();
+    String hash = hash(image);
+    Optional<String> url = lookup(channelId, hash);
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    if (image == null) {
+      message.editMessageEmbeds(embed).queue(edited -> finish(upload, done), failure -> finish(upload, done));
+      return done;
+    }
+    if (url.isPresent()) {
+      message.editMessageEmbeds(withImage(embed, url.get())).queue(edited -> finish(upload, done), failure -> finish(upload, done));
+      return done;
+    }
+    message.editMessageEmbeds(embed).setFiles(FileUpload.fromData(image, fileName)).queue(edited -> {
+      remember(channelId, hash, edited, fileName);
+      finish(upload, done);
+    }, failure -> finish(upload, done));
+    return done;
+  }
+
+  private static void finish(Span upload, CompletableFuture<Void> done) { // Completes even if Discord rejected the message, callers only sequence on it
+    upload.end();
+    done.complete(null);
+  }
+
+  public static void invalidate(String channelId) {
+    channels.remove(channelId);
+  }
+
+  private static Optional<String> lookup(String channelId, String hash) {
+    if (channelId == null || hash == null) {
+      return Optional.empty();
+    }
+    Map<String, Entry> entries = channels.get(channelId);
+    if (entries == null) {
+      cacheCounters.miss();
+      return Optional.empty();
+    }
+    synchronized (entries) {
+      Entry entry = entries.get(hash);
+      if (entry == null || entry.isExpired()) {
+        entries.remove(hash);
+        cacheCounters.miss();
+        return Optional.empty();
+      }
+      cacheCounters.hit();
+      return Optional.of(entry.url());
+    }
+  }
+
+  private static void remember(String channelId, String hash, Message message, String fileName) {
+    if (channelId == null || hash == null) {
+      return;
+    }
+    Optional<String> url = message.getAttachments().stream().filter(attachment -> attachment.getFileName().equals(fileName)).findFirst().map(Attachment::getUrl);
+    if (url.isEmpty()) {
+      return;
+    }
+    Map<String, Entry> entries = channels.computeIfAbsent(channelId, id -> new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > MAX_PER_CHANNEL;
+      }
+    });
+    synchronized (entries) {
+      entries.put(hash, new Entry(url.get(), System.nanoTime() + TTL_NANOS));
+    }
+  }
+
+  private static MessageEmbed withImage(MessageEmbed embed, String url) {
+    return new EmbedBuilder(embed).setImage(url).build();
+  }
+
+  private static String hash(byte[] image) {
+    if (image == null) {
+      return null;
+    }
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
+
+}
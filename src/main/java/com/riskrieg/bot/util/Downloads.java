@@ -0,0 +1,130 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public final class Downloads { // One pooled client for attachment downloads, every transfer is bounded in both time and size
+
+  private static final OkHttpClient client = new OkHttpClient.Builder()
+      .connectionPool(new ConnectionPool(4, 5, TimeUnit.MINUTES))
+      .connectTimeout(Duration.ofSeconds(5))
+      .readTimeout(Duration.ofSeconds(15))
+      .callTimeout(Duration.ofSeconds(60))
+      .build();
+
+  public static final class TooLargeException extends IOException {
+
+    public TooLargeException(long maxBytes) {
+      super("File is larger than " + maxBytes + " bytes.");
+    }
+
+  }
+
+  private Downloads() {
+  }
+
+  public static CompletableFuture<Path> toFile(String url, Path target, long maxBytes) { // Streams straight to disk, a partial file is removed on failure
+    CompletableFuture<Path> future = new CompletableFuture<>();
+    client.newCall(new Request.Builder().url(url).build()).enqueue(new Callback() {
+      @Override
+      public void onFailure(Call call, IOException e) {
+        future.completeExceptionally(e);
+      }
+
+      @Override
+      public void onResponse(Call call, Response response) {
+        try (response; OutputStream out = Files.newOutputStream(target)) {
+          copy(response, out, maxBytes);
+          future.complete(target);
+        } catch (IOException e) {
+          try {
+            Files.deleteIfExists(target);
+          } catch (IOException ignored) {
+            // MapIngest sweeps stale staged files at the start of each ingest.
+          }
+          future.completeExceptionally(e);
+        }
+      }
+    });
+    return future;
+  }
+
+  public static CompletableFuture<byte[]> bytes(String url, long maxBytes) { // For small files that are used straight from memory
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    client.newCall(new Request.Builder().url(url).build()).enqueue(new Callback() {
+      @Override
+      public void onFailure(Call call, IOException e) {
+        future.completeExceptionally(e);
+      }
+
+      @Override
+      public void onResponse(Call call, Response response) {
+        try (response) {
+          ByteArrayOutputStream out = new ByteArrayOutputStream();
+          copy(response, out, maxBytes);
+          future.complete(out.toByteArray());
+        } catch (IOException e) {
+          future.completeExceptionally(e);
+        }
+      }
+    });
+    return future;
+  }
+
+  private static void copy(Response response, OutputStream out, long maxBytes) throws IOException {
+    if (!response.isSuccessful()) {
+      throw new IOException("Download failed with status " + response.code() + ".");
+    }
+    ResponseBody body = response.body();
+    if (body == null) {
+      throw new IOException("Download returned no content.");
+    }
+    if (body.contentLength() > maxBytes) { // Rejected before reading anything when the size is declared up front
+      throw new TooLargeException(maxBytes);
+    }
+    byte[] buffer = new byte[8192];
+    long total = 0;
+    try (InputStream in = body.byteStream()) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        total += read;
+        if (total > maxBytes) {
+          throw new TooLargeException(maxBytes);
+        }
+        out.write(buffer, 0, read);
+      }
+    }
+  }
+
+}
@@ -18,6 +18,7 @@
 
 package com.riskrieg.bot.util;
 
+import com.riskrieg.bot.metrics.jfr.EncodeEvent;
 import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Font;
@@ -153,6 +154,8 @@ public class ImageUtil {
   }
 
   public static byte[] convertToByteArray(BufferedImage image) {
+    EncodeEvent event = new EncodeEvent();
+    event.begin();
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     byte[] result = null;
 
@@ -165,6 +168,13 @@ public class ImageUtil {
       e.printStackTrace();
     }
 
+    event.end();
+    if (event.shouldCommit() && image != null) {
+      event.width = image.getWidth();
+      event.height = image.getHeight();
+      event.bytesEncoded = result == null ? 0 : result.length;
+      event.commit();
+    }
     return result;
   }
 
@@ -0,0 +1,245 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import com.riskrieg.bot.config.GameConfig;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.utils.FileUpload;
+
+public final class LiveBoards { // Opt-in per game: one pinned message is edited after each turn instead of posting a new map every time
+
+  private static final long DEBOUNCE_MILLIS = 2000; // Claims inside this window collapse into a single render and edit
+
+  private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> { // Only times the debounce, renders and edits run elsewhere
+    Thread thread = new Thread(runnable, "live-board");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+
+  private record Pending(MessageChannel channel, Game game, MessageEmbed embed, String fileName) {
+
+  }
+
+  private static final class Board {
+
+    private GameConfig config;
+    private Pending pending;
+    private ScheduledFuture<?> flush;
+    private boolean flushing; // A render or edit is in flight, the next one waits for it so edits for one board stay in order
+    private boolean closed; // The game is gone, so the last pending edit is made but nothing is saved
+
+    Board(GameConfig config) {
+      this.config = config;
+    }
+
+  }
+
+  private LiveBoards() {
+  }
+
+  public static boolean isEnabled(String groupId, String gameId) { // Disabled boards are cached too, so map replies read the config once per game
+    Board board = board(groupId, gameId);
+    synchronized (board) {
+      return board.config.liveBoard() && !board.closed;
+    }
+  }
+
+  public static void setEnabled(String groupId, String gameId, boolean enabled) throws IOException {
+    Board board = board(groupId, gameId);
+    synchronized (board) {
+      GameConfig config = board.config.withLiveBoard(enabled);
+      write(config);
+      board.config = config; // Only once it is on disk, so a failed write leaves the old setting in effect
+    }
+  }
+
+  public static Optional<String> jumpUrl(String groupId, String gameId) {
+    Board board = boards.get(gameId);
+    if (board == null) {
+      return Optional.empty();
+    }
+    synchronized (board) {
+      return Optional.ofNullable(board.config.boardMessageId()).map(messageId -> String.format(Message.JUMP_URL, groupId, gameId, messageId));
+    }
+  }
+
+  public static void publish(String groupId, MessageChannel channel, Game game, MessageEmbed embed, String fileName) { // Embed must reference attachment://fileName
+    Board board = board(groupId, game.identifier().id());
+    synchronized (board) {
+      board.pending = new Pending(channel, game, embed, fileName); // Only the newest state matters, so earlier pending edits are dropped
+      if (board.flush == null && !board.flushing) {
+        schedule(groupId, game.identifier().id(), board);
+      }
+    }
+  }
+
+  public static void delete(String groupId, String gameId) {
+    Board board = boards.get(gameId);
+    if (board != null) {
+      synchronized (board) {
+        board.closed = true;
+        if (board.flush == null && !board.flushing) {
+          boards.remove(gameId, board);
+        }
+      }
+    }
+    try {
+      Files.deleteIfExists(new GameConfig(groupId, gameId).path());
+    } catch (IOException e) {
+      System.out.println("[LiveBoard] Could not delete config for " + groupId + "/" + gameId + ": " + e.getMessage());
+    }
+  }
+
+  public static String announcement(String groupId, String gameId, MessageEmbed embed) { // Text-only stand-in for the map embed
+    StringBuilder text = new StringBuilder();
+    if (embed.getTitle() != null) {
+      text.append("**").append(embed.getTitle()).append("**").append("\n");
+    }
+    if (embed.getDescription() != null && !embed.getDescription().isBlank()) {
+      text.append(embed.getDescription()).append("\n");
+    }
+    for (MessageEmbed.Field field : embed.getFields()) {
+      text.append("**").append(field.getName()).append("**: ").append(field.getValue()).append("\n");
+    }
+    if (embed.getFooter() != null && embed.getFooter().getText() != null && !embed.getFooter().getText().isBlank()) {
+      text.append("*").append(embed.getFooter().getText()).append("*").append("\n");
+    }
+    String link = jumpUrl(groupId, gameId).map(url -> "[Live board](" + url + ")").orElse("*The live board is pinned in this channel.*");
+    int room = Message.MAX_CONTENT_LENGTH - link.length() - 2;
+    String body = text.length() > room ? text.substring(0, Math.max(0, room - 3)) + "..." : text.toString();
+    return body + (body.endsWith("\n") ? "" : "\n") + link;
+  }
+
+  private static Board board(String groupId, String gameId) {
+    return boards.computeIfAbsent(gameId, id -> new Board(read(groupId, id)));
+  }
+
+  private static void schedule(String groupId, String gameId, Board board) { // Caller holds the board's lock
+    board.flush = scheduler.schedule(() -> flush(groupId, gameId, board), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private static void flush(String groupId, String gameId, Board board) {
+    Pending pending;
+    String messageId;
+    synchronized (board) {
+      pending = board.pending;
+      board.pending = null;
+      board.flush = null;
+      messageId = board.config.boardMessageId();
+      if (pending == null) {
+        finish(groupId, gameId, board);
+        return;
+      }
+      board.flushing = true;
+    }
+    RenderGate.renderAsync(() -> RiskriegUtil.constructMapImageData(pending.game()))
+        .thenCompose(image -> {
+          if (image == null) {
+            throw new IllegalStateException("Could not render the map.");
+          }
+          return messageId == null ? post(gameId, board, pending, image) : edit(gameId, board, pending, messageId, image);
+        })
+        .whenComplete((ignored, failure) -> {
+          if (failure != null) {
+            System.out.println("[LiveBoard] Could not update board in " + gameId + ": " + unwrap(failure).getMessage());
+          }
+          synchronized (board) {
+            board.flushing = false;
+            finish(groupId, gameId, board);
+          }
+        });
+  }
+
+  private static void finish(String groupId, String gameId, Board board) { // Caller holds the board's lock
+    if (board.pending != null) { // Turns that arrived during the edit get their own debounced flush
+      schedule(groupId, gameId, board);
+    } else if (board.closed) {
+      boards.remove(gameId, board);
+    }
+  }
+
+  private static CompletableFuture<Void> edit(String gameId, Board board, Pending pending, String messageId, byte[] image) {
+    return pending.channel().editMessageEmbedsById(messageId, pending.embed()).setFiles(FileUpload.fromData(image, pending.fileName())).submit()
+        .<Void>thenApply(edited -> null)
+        .exceptionallyCompose(failure -> {
+          if (unwrap(failure) instanceof ErrorResponseException error && error.getErrorResponse() == ErrorResponse.UNKNOWN_MESSAGE) { // Deleted, so post a fresh board
+            return post(gameId, board, pending, image);
+          }
+          return CompletableFuture.failedFuture(failure); // Rate limits and server errors keep the board, the next turn edits it again
+        });
+  }
+
+  private static CompletableFuture<Void> post(String gameId, Board board, Pending pending, byte[] image) {
+    return pending.channel().sendMessageEmbeds(pending.embed()).addFiles(FileUpload.fromData(image, pending.fileName())).submit().thenAccept(message -> {
+      message.pin().queue(null, failure -> System.out.println("[LiveBoard] Could not pin board in " + gameId + ": " + failure.getMessage()));
+      synchronized (board) {
+        board.config = board.config.withBoardMessageId(message.getId());
+        if (!board.closed) {
+          try {
+            write(board.config);
+          } catch (IOException e) {
+            System.out.println("[LiveBoard] Could not save config for " + gameId + ": " + e.getMessage()); // Still edited from memory, only a restart loses track of the message
+          }
+        }
+      }
+    });
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+  }
+
+  private static GameConfig read(String groupId, String gameId) {
+    GameConfig empty = new GameConfig(groupId, gameId);
+    if (Files.exists(empty.path())) {
+      try {
+        GameConfig config = RkJsonUtil.read(empty.path(), GameConfig.class);
+        if (config != null) {
+          return config;
+        }
+      } catch (IOException e) {
+        System.out.println("[LiveBoard] Could not read config for " + groupId + "/" + gameId + ": " + e.getMessage());
+      }
+    }
+    return empty;
+  }
+
+  private static void write(GameConfig config) throws IOException {
+    Files.createDirectories(config.path().getParent());
+    RkJsonUtil.write(config.path(), GameConfig.class, config);
+  }
+
+}
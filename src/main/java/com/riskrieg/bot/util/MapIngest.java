@@ -0,0 +1,248 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.view.GameView;
+import com.riskrieg.bot.util.view.NeighborView;
+import com.riskrieg.codec.decode.RkmDecoder;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.RkmMetadata;
+import com.riskrieg.map.Territory;
+import com.riskrieg.map.metadata.Alignment;
+import com.riskrieg.map.metadata.Availability;
+import com.riskrieg.map.metadata.Flavor;
+import com.riskrieg.map.territory.Nucleus;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+public final class MapIngest { // Download, decode and validate, precompute, then commit. Nothing lands in the map directory until every stage has passed
+
+  public static final long MAX_MAP_BYTES = 32L * 1024 * 1024;
+  private static final int THUMBNAIL_WIDTH = 480;
+  private static final Pattern CODENAME = Pattern.compile("[A-Za-z0-9_-]+"); // The codename becomes a file name
+  private static final Path STAGING_PATH = Path.of(BotConstants.MAP_PATH + ".staging/"); // Same file system as the maps, so the final move can be atomic
+  private static final Duration STALE_STAGING = Duration.ofHours(1); // Far longer than any ingest takes, so only files left by a crash are swept
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final ExecutorService workers = Executors.newFixedThreadPool(2, runnable -> {
+    Thread thread = new Thread(runnable, "map-ingest-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public record Result(RkmMap map, RkmMetadata metadata, boolean overwritten, byte[] thumbnail) {
+
+  }
+
+  public static final class Rejected extends RuntimeException { // The message is shown to the user as is
+
+    public Rejected(String message) {
+      super(message);
+    }
+
+  }
+
+  private record Derived(MapIndex.Territories territories, NeighborView.Prepared layers, byte[] thumbnail) {
+
+  }
+
+  private MapIngest() {
+  }
+
+  public static CompletableFuture<Result> ingest(String url, long declaredSize, boolean overwrite, Alignment alignment) {
+    if (declaredSize > MAX_MAP_BYTES) {
+      return CompletableFuture.failedFuture(new Rejected("Map files can be at most " + (MAX_MAP_BYTES / (1024 * 1024)) + " MB."));
+    }
+    Path staged = STAGING_PATH.resolve(UUID.randomUUID() + ".rkm");
+    try {
+      Files.createDirectories(STAGING_PATH);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    workers.execute(MapIngest::sweepStaging);
+    return Downloads.toFile(url, staged, MAX_MAP_BYTES)
+        .thenApplyAsync(path -> decode(path, overwrite), workers)
+        .thenCompose(map -> derive(map).thenApplyAsync(derived -> commit(staged, map, derived, overwrite, alignment), workers))
+        .whenComplete((result, failure) -> {
+          try {
+            Files.deleteIfExists(staged); // Already moved on success
+          } catch (IOException e) {
+            System.out.println("[MapIngest] Could not remove staged file " + staged + ": " + e.getMessage());
+          }
+        });
+  }
+
+  public static String describe(Throwable failure) { // User-facing reason for a failed ingest
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    if (cause instanceof Rejected) {
+      return cause.getMessage();
+    }
+    if (cause instanceof Downloads.TooLargeException) {
+      return "Map files can be at most " + (MAX_MAP_BYTES / (1024 * 1024)) + " MB.";
+    }
+    if (cause instanceof IOException || cause instanceof UncheckedIOException) {
+      return "Could not download the map file.";
+    }
+    return "Invalid map file.";
+  }
+
+  /* Stages */
+
+  private static RkmMap decode(Path path, boolean overwrite) {
+    RkmMap map;
+    try {
+      map = new RkmDecoder().decode(path);
+    } catch (Exception e) {
+      throw new Rejected("Invalid map file.");
+    }
+    validate(map);
+    if (!overwrite && exists(map.codename())) { // Checked early so a duplicate skips precomputation, and again on commit
+      throw new Rejected("A map with that name already exists.");
+    }
+    return map;
+  }
+
+  private static void validate(RkmMap map) {
+    if (map.codename() == null || !CODENAME.matcher(map.codename()).matches()) {
+      throw new Rejected("The map codename may only contain letters, digits, dashes and underscores.");
+    }
+    if (map.displayName() == null || map.displayName().isBlank()) {
+      throw new Rejected("The map has no display name.");
+    }
+    if (map.vertices().isEmpty()) {
+      throw new Rejected("The map has no territories.");
+    }
+    BufferedImage base = map.baseLayer();
+    BufferedImage text = map.textLayer();
+    if (base == null || text == null || base.getWidth() != text.getWidth() || base.getHeight() != text.getHeight()) {
+      throw new Rejected("The base and text layers of the map must be the same size.");
+    }
+    for (Territory territory : map.vertices()) {
+      for (Nucleus nucleus : territory.nuclei()) {
+        Point point = nucleus.toPoint();
+        if (point.x < 0 || point.y < 0 || point.x >= base.getWidth() || point.y >= base.getHeight()) {
+          throw new Rejected("Territory " + territory.identity() + " has a nucleus outside of the map.");
+        }
+      }
+    }
+  }
+
+  private static CompletableFuture<Derived> derive(RkmMap map) { // Adjacency and traced masks on one branch, the thumbnail on the other
+    CompletableFuture<MapIndex.Territories> territories = CompletableFuture.supplyAsync(() -> MapIndex.prepare(map), workers);
+    CompletableFuture<NeighborView.Prepared> layers = territories.thenApplyAsync(prepared -> NeighborView.prepare(map, prepared), workers);
+    CompletableFuture<byte[]> thumbnail = CompletableFuture.supplyAsync(() -> thumbnail(map), workers);
+    return layers.thenCombine(thumbnail, (prepared, image) -> new Derived(territories.join(), prepared, image)); // Layers finish after territories, so join never blocks
+  }
+
+  private static Result commit(Path staged, RkmMap map, Derived derived, boolean overwrite, Alignment alignment) {
+    synchronized (MapIngest.class) { // Two uploads of the same codename must not interleave their moves
+      boolean existed = exists(map.codename());
+      if (existed && !overwrite) {
+        throw new Rejected("A map with that name already exists.");
+      }
+      RkmMetadata metadata = new RkmMetadata(Flavor.COMMUNITY, Availability.COMING_SOON, alignment);
+      Path stagedMetadata = STAGING_PATH.resolve(UUID.randomUUID() + ".json");
+      try {
+        RkJsonUtil.write(stagedMetadata, RkmMetadata.class, metadata);
+        Files.createDirectories(Path.of(BotConstants.MAP_METADATA_PATH));
+        move(staged, Path.of(BotConstants.MAP_PATH + map.codename() + ".rkm"));
+        move(stagedMetadata, Path.of(BotConstants.MAP_METADATA_PATH + map.codename() + ".json")); // Last, the metadata is what makes a map visible
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        try {
+          Files.deleteIfExists(stagedMetadata);
+        } catch (IOException ignored) {
+          // Only left behind if the move itself failed.
+        }
+      }
+      MapIndex.install(derived.territories());
+      derived.layers().install();
+      MapIndex.refreshCatalog();
+      return new Result(map, metadata, existed, derived.thumbnail());
+    }
+  }
+
+  /* Helpers */
+
+  private static void sweepStaging() {
+    Instant cutoff = Instant.now().minus(STALE_STAGING);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(STAGING_PATH)) {
+      for (Path file : files) {
+        try {
+          if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+            Files.deleteIfExists(file);
+          }
+        } catch (IOException e) {
+          System.out.println("[MapIngest] Could not remove stale staged file " + file + ": " + e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      System.out.println("[MapIngest] Could not sweep staging: " + e.getMessage());
+    }
+  }
+
+  private static boolean exists(String codename) {
+    return ParseUtil.parseMapNameExact(Path.of(BotConstants.MAP_METADATA_PATH), codename).isPresent();
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static byte[] thumbnail(RkmMap map) {
+    BufferedImage image = ImageUtil.convert(map.baseLayer(), BufferedImage.TYPE_INT_ARGB);
+    GameView.drawTerritoryNames(image, map.textLayer());
+    if (image.getWidth() <= THUMBNAIL_WIDTH) {
+      return ImageUtil.convertToByteArray(image);
+    }
+    int height = Math.max(1, image.getHeight() * THUMBNAIL_WIDTH / image.getWidth());
+    BufferedImage scaled = new BufferedImage(THUMBNAIL_WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = scaled.createGraphics();
+    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g2.drawImage(image, 0, 0, THUMBNAIL_WIDTH, height, null);
+    g2.dispose();
+    return ImageUtil.convertToByteArray(scaled);
+  }
+
+}
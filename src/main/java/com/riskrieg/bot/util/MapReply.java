@@ -0,0 +1,119 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Span;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.core.api.game.Game;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+
+public final class MapReply { // Starts the render, the ephemeral acknowledgement and the save together once a game update is applied, then posts the map when both the image and acknowledgement are done
+
+  private final InteractionHook hook;
+  private final InteractionTrace trace;
+  private final CompletableFuture<byte[]> image;
+  private final CompletableFuture<Void> acknowledged;
+  private final Game game;
+  private final String groupId; // Non-null when the game has a live board, the map then goes to the pinned board instead of a new message
+
+  private MapReply(InteractionHook hook, InteractionTrace trace, CompletableFuture<byte[]> image, CompletableFuture<Void> acknowledged, Game game, String groupId) {
+    this.hook = hook;
+    this.trace = trace;
+    this.image = image;
+    this.acknowledged = acknowledged;
+    this.game = game;
+    this.groupId = groupId;
+  }
+
+  public static MapReply start(InteractionHook hook, MessageCreateData acknowledgement, Game game, InteractionTrace trace) {
+    Guild guild = hook.getInteraction().getGuild();
+    String groupId = guild != null && game.map() != null && LiveBoards.isEnabled(guild.getId(), game.identifier().id()) ? guild.getId() : null;
+    CompletableFuture<byte[]> image = game.map() == null || groupId != null ? CompletableFuture.completedFuture(null) // The live board renders on its own debounced schedule
+        : RenderGate.renderAsync(() -> RiskriegUtil.constructMapImageData(game, trace)); // A failed or rejected render still posts the embed, just without the map
+    CompletableFuture<Void> acknowledged = hook.sendMessage(acknowledgement).submit() // The first follow-up is the ephemeral one, so the map has to wait for it
+        .handle((message, failure) -> null);
+    return new MapReply(hook, trace, image, acknowledged, game, groupId);
+  }
+
+  public MapReply persist(Consumer<Span> save) { // Runs right away, the render works from the same in-memory game
+    save.accept(trace.begin(Stage.SAVE));
+    return this;
+  }
+
+  public CompletableFuture<Void> send(MessageEmbed embed, String fileName) {
+    if (groupId != null) {
+      return announce(null, embed, fileName);
+    }
+    return image.thenCombine(acknowledged, (data, ignored) -> data).thenCompose(data -> {
+      Span upload = trace.begin(Stage.UPLOAD);
+      trace.complete();
+      if (data == null) {
+        return hook.sendMessageEmbeds(embed).submit().handle((message, failure) -> {
+          upload.end();
+          return null;
+        });
+      }
+      return AttachmentCache.send(hook, embed, data, fileName, upload);
+    });
+  }
+
+  public void sendWithMention(String playerId, MessageEmbed embed, String fileName) { // The mention message is edited to carry the map, as before
+    if (groupId != null) {
+      announce(playerId != null && ConfigUtil.canMention(hook) ? playerId : null, embed, fileName);
+      return;
+    }
+    if (playerId == null || !ConfigUtil.canMention(hook)) {
+      send(embed, fileName);
+      return;
+    }
+    acknowledged.thenRun(() -> ConfigUtil.sendWithMention(hook, playerId, message -> image.thenAccept(data -> {
+      Span upload = trace.begin(Stage.UPLOAD);
+      trace.complete();
+      if (data == null) {
+        message.editMessageEmbeds(embed).queue(edited -> upload.end(), failure -> upload.end());
+      } else {
+        AttachmentCache.edit(message, embed, data, fileName, upload);
+      }
+    })));
+  }
+
+  private CompletableFuture<Void> announce(String playerId, MessageEmbed embed, String fileName) { // Queues the board edit and posts a small text-only turn message linking to it
+    LiveBoards.publish(groupId, hook.getInteraction().getMessageChannel(), game, embed, fileName);
+    String text = LiveBoards.announcement(groupId, game.identifier().id(), embed);
+    if (playerId != null) {
+      text = "<@" + playerId + "> it is your turn.\n" + text;
+    }
+    String content = text.length() > Message.MAX_CONTENT_LENGTH ? text.substring(0, Message.MAX_CONTENT_LENGTH) : text;
+    return acknowledged.thenCompose(ignored -> {
+      Span upload = trace.begin(Stage.UPLOAD);
+      trace.complete();
+      return hook.setEphemeral(false).sendMessage(content).setSuppressEmbeds(true).submit().handle((message, failure) -> {
+        upload.end();
+        return null;
+      });
+    });
+  }
+
+}
@@ -0,0 +1,135 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util;
+
+import com.riskrieg.codec.decode.RkpDecoder;
+import com.riskrieg.palette.RkpPalette;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import net.dv8tion.jda.api.entities.Message.Attachment;
+
+public final class Palettes { // Built-in palettes by name, and custom palette uploads decoded once per distinct file
+
+  public static final long MAX_PALETTE_BYTES = 64 * 1024;
+  private static final int MAX_CACHED_PALETTES = 128;
+
+  private static final Map<String, RkpPalette> decoded = new LinkedHashMap<>(16, 0.75f, true) { // SHA-256 of the file -> palette
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, RkpPalette> eldest) {
+      return size() > MAX_CACHED_PALETTES;
+    }
+  };
+
+  public static final class InvalidPaletteException extends RuntimeException { // The message is shown to the user as is
+
+    public InvalidPaletteException(String message) {
+      super(message);
+    }
+
+  }
+
+  private Palettes() {
+  }
+
+  public static RkpPalette preset(String name) {
+    return switch (name.toLowerCase(Locale.ROOT)) {
+      case "original" -> RkpPalette.original16();
+      case "desatur" -> RkpPalette.desatur8();
+      case "pollen" -> RkpPalette.pollen8();
+      case "gothic" -> RkpPalette.gothic6();
+      default -> RkpPalette.standard16();
+    };
+  }
+
+  public static CompletableFuture<RkpPalette> fromAttachment(Attachment attachment) {
+    if (!"rkp".equalsIgnoreCase(attachment.getFileExtension())) { // Checked before anything is downloaded
+      return CompletableFuture.failedFuture(new InvalidPaletteException("Palette files must be valid .rkp files."));
+    }
+    if (attachment.getSize() > MAX_PALETTE_BYTES) {
+      return CompletableFuture.failedFuture(new InvalidPaletteException("Palette files can be at most " + (MAX_PALETTE_BYTES / 1024) + " KB."));
+    }
+    return Downloads.bytes(attachment.getUrl(), MAX_PALETTE_BYTES).thenApply(Palettes::decode);
+  }
+
+  public static String describe(Throwable failure) { // User-facing reason for a rejected palette
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    if (cause instanceof InvalidPaletteException) {
+      return cause.getMessage();
+    }
+    if (cause instanceof Downloads.TooLargeException) {
+      return "Palette files can be at most " + (MAX_PALETTE_BYTES / 1024) + " KB.";
+    }
+    return "Could not download the palette file.";
+  }
+
+  private static RkpPalette decode(byte[] data) {
+    String hash = hash(data);
+    if (hash != null) {
+      synchronized (decoded) {
+        RkpPalette cached = decoded.get(hash);
+        if (cached != null) {
+          return cached;
+        }
+      }
+    }
+    RkpPalette palette;
+    Path file = null;
+    try {
+      file = Files.createTempFile("palette-", ".rkp"); // The decoder reads from a path or URL, and palette files are tiny
+      Files.write(file, data);
+      palette = new RkpDecoder().decode(file);
+    } catch (Exception e) {
+      throw new InvalidPaletteException("Invalid palette file.");
+    } finally {
+      if (file != null) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+          // Left to the system's temp cleanup.
+        }
+      }
+    }
+    if (palette == null) {
+      throw new InvalidPaletteException("Invalid palette file.");
+    }
+    if (hash != null) {
+      synchronized (decoded) {
+        decoded.put(hash, palette);
+      }
+    }
+    return palette;
+  }
+
+  private static String hash(byte[] data) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+  }
+
+}
@@ -18,6 +18,9 @@
 
 package com.riskrieg.bot.util;
 
+import com.riskrieg.bot.util.index.FuzzyIndex;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.bot.util.index.PaletteIndex;
 import com.riskrieg.core.api.game.Game;
 import com.riskrieg.core.api.game.feature.Feature;
 import com.riskrieg.core.api.game.feature.FeatureFlag;
@@ -33,14 +36,20 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import org.apache.commons.text.similarity.LevenshteinDistance;
 
 public class ParseUtil {
 
+  private static final int MAP_MAX_DISTANCE = 4;
+  private static final int COLOR_MAX_DISTANCE = 4;
+  private static final int FEATURE_MAX_DISTANCE = 2;
+
+  private static final FuzzyIndex featureIndex = FuzzyIndex.of(Arrays.stream(Feature.values()).map(Feature::name).toList());
+
   public static Optional<Boolean> parseEnable(String str) {
     if (str.equals("false") || str.equals("disabled") || str.equals("disable") || str.equals("d") || str.equals("no") || str.equals("n")) {
       return Optional.of(false);
@@ -70,59 +79,39 @@ public class ParseUtil {
 
     String[] featuresToParse = featuresString.split("[\s,|/\\\\]+");
     for (String featureName : featuresToParse) {
-      Feature parsedFeature = null;
-
-      int lowestDistance = Integer.MAX_VALUE;
-      for (Feature feature : Feature.values()) {
-        int distance = LevenshteinDistance.getDefaultInstance().apply(featureName.toLowerCase(), feature.name().toLowerCase());
-        if (distance < 3 && distance < lowestDistance) {
-          lowestDistance = distance;
-          parsedFeature = feature;
-        }
-      }
-
-      if (parsedFeature != null) {
-        featureFlagSet.add(new FeatureFlag(parsedFeature, true));
-      }
+      featureIndex.closest(featureName, FEATURE_MAX_DISTANCE)
+          .map(match -> Feature.valueOf(match.value()))
+          .ifPresent(feature -> featureFlagSet.add(new FeatureFlag(feature, true)));
     }
     return featureFlagSet.toArray(FeatureFlag[]::new);
   }
 
   @NonNull
   public static RkpColor parseColor(String colorStr, RkpPalette palette) {
-    RkpColor result = palette.last();
-    int lowestDistance = Integer.MAX_VALUE;
-    for (RkpColor color : palette.sortedColorSet()) {
-      int distance = LevenshteinDistance.getDefaultInstance().apply(colorStr.toLowerCase(), color.name().toLowerCase());
-      if (distance < 5 && distance < lowestDistance) {
-        lowestDistance = distance;
-        result = color;
+    Optional<FuzzyIndex.Match> match = PaletteIndex.fuzzyColors(palette).closest(colorStr, COLOR_MAX_DISTANCE);
+    if (match.isPresent()) {
+      for (RkpColor color : palette.sortedColorSet()) {
+        if (color.name().equals(match.get().value())) {
+          return color;
+        }
       }
     }
-    return result;
+    return palette.last();
   }
 
-  public static Optional<String> parseMapCodename(Path metadataPath, String requestedCodename) {
+  public static Optional<String> parseMapCodename(String requestedCodename) {
     if (requestedCodename == null || requestedCodename.isEmpty()) {
       return Optional.empty();
     }
+    return MapIndex.codenames().closest(requestedCodename, MAP_MAX_DISTANCE).map(FuzzyIndex.Match::value);
+  }
 
-    try (var pathStream = Files.list(metadataPath)) {
-      Set<String> allMapCodenames = pathStream.map(path -> path.getFileName().toString().split("\\.")[0].trim()).collect(Collectors.toSet());
-
-      String closestCodename = null;
-      int lowestDistance = Integer.MAX_VALUE;
-      for (String codename : allMapCodenames) {
-        int distance = LevenshteinDistance.getDefaultInstance().apply(requestedCodename, codename);
-        if (distance < 5 && distance < lowestDistance) {
-          lowestDistance = distance;
-          closestCodename = codename;
-        }
-      }
-      return Optional.ofNullable(closestCodename);
-    } catch (Exception e) {
-      return Optional.empty();
+  public static List<String> suggestMapCodenames(String requestedCodename, int limit) { // For "did you mean" hints when nothing is close enough to parse
+    if (requestedCodename == null || requestedCodename.isEmpty()) {
+      return List.of();
     }
+    int radius = Math.max(MAP_MAX_DISTANCE * 2, requestedCodename.length() / 2);
+    return MapIndex.codenames().search(requestedCodename, radius, limit).stream().map(FuzzyIndex.Match::value).toList();
   }
 
   public static Optional<String> parseMapNameExact(Path metadataPath, String requestedName) {
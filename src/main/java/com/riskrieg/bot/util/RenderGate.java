@@ -0,0 +1,84 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.riskrieg.bot.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class RenderGate {
+
+  public static final int MAX_CONCURRENT_RENDERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+  public static final int MAX_QUEUED_RENDERS = MAX_CONCURRENT_RENDERS * 4;
+  public static final long MAX_WAIT_SECONDS = 20; // Callers may be on JDA's pool, so a saturated renderer must not hold them indefinitely
+
+  private static final Semaphore permits = new Semaphore(MAX_CONCURRENT_RENDERS, true);
+  private static final AtomicInteger threadCount = new AtomicInteger();
+  private static final ThreadPoolExecutor workers = new ThreadPoolExecutor(MAX_CONCURRENT_RENDERS, MAX_CONCURRENT_RENDERS + MAX_QUEUED_RENDERS, // Enough threads that the backlog waits on the permits, where it is counted, rather than in a queue
+      60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+    Thread thread = new Thread(runnable, "render-worker-" + threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private RenderGate() {
+  }
+
+  public static <T> T render(Supplier<T> renderer) { // Null if no permit became available in time
+    try {
+      if (!permits.tryAcquire(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
+        return null;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    try {
+      return renderer.get();
+    } finally {
+      permits.release();
+    }
+  }
+
+  public static <T> CompletableFuture<T> renderAsync(Supplier<T> renderer) { // Completes with null if the render failed or the backlog is already full
+    try {
+      return CompletableFuture.supplyAsync(renderer, workers).exceptionally(failure -> null);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  public static boolean isSaturated() {
+    return permits.getQueueLength() >= MAX_QUEUED_RENDERS;
+  }
+
+  public static int activeRenders() {
+    return MAX_CONCURRENT_RENDERS - permits.availablePermits();
+  }
+
+  public static int queuedRenders() {
+    return permits.getQueueLength();
+  }
+
+}
@@ -19,6 +19,11 @@
 package com.riskrieg.bot.util;
 
 import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.command.trace.InteractionTrace;
+import com.riskrieg.bot.command.trace.Stage;
+import com.riskrieg.bot.metrics.Metrics;
+import com.riskrieg.bot.metrics.jfr.FillEvent;
+import com.riskrieg.bot.metrics.jfr.RenderEvent;
 import com.riskrieg.bot.util.view.GameView;
 import com.riskrieg.core.api.game.Game;
 import com.riskrieg.core.api.game.entity.nation.Nation;
@@ -45,14 +50,31 @@ import javax.imageio.ImageIO;
 public class RiskriegUtil {
 
   public static byte[] constructEmptyMapImageData(Game game) {
-    return ImageUtil.convertToByteArray(constructMap(game));
+    return constructMapImageData(game, InteractionTrace.NONE);
   }
 
   public static byte[] constructMapImageData(Game game) {
-    return ImageUtil.convertToByteArray(constructMap(game));
+    return constructMapImageData(game, InteractionTrace.NONE);
+  }
+
+  public static byte[] constructMapImageData(Game game, InteractionTrace trace) {
+    return RenderGate.render(() -> {
+      long start = System.nanoTime();
+      BufferedImage image = trace.span(Stage.RENDER, () -> constructMap(game));
+      long rendered = System.nanoTime();
+      byte[] data = trace.span(Stage.ENCODE, () -> ImageUtil.convertToByteArray(image));
+      Metrics.RENDER_SECONDS.observeNanos(rendered - start);
+      Metrics.ENCODE_SECONDS.observeNanos(System.nanoTime() - rendered);
+      if (data != null) {
+        Metrics.PNG_BYTES.observe(data.length);
+      }
+      return data;
+    });
   }
 
   private static BufferedImage constructMap(Game game) {
+    RenderEvent renderEvent = new RenderEvent();
+    renderEvent.begin();
     try {
       BufferedImage baseImage = ImageUtil.createCopy(ImageUtil.convert(game.map().baseLayer(), BufferedImage.TYPE_INT_ARGB));
 
@@ -61,11 +83,22 @@ public class RiskriegUtil {
           Optional<Territory> optionalTerritory = game.map().get(claim.territory().identity());
           if (optionalTerritory.isPresent()) {
             Territory territory = optionalTerritory.get();
-            if (GameUtil.territoryIsOfType(territory.identity(), TerritoryType.CAPITAL, game.claims())) {
+            boolean capital = GameUtil.territoryIsOfType(territory.identity(), TerritoryType.CAPITAL, game.claims());
+            FillEvent fillEvent = new FillEvent();
+            fillEvent.begin();
+            if (capital) {
               colorCapitalTerritory(baseImage, territory.nuclei(), game.palette().get(nation.colorId()).orElse(game.palette().last()).toAwtColor());
             } else {
               colorTerritory(baseImage, territory.nuclei(), game.palette().get(nation.colorId()).orElse(game.palette().last()).toAwtColor());
             }
+            fillEvent.end();
+            if (fillEvent.shouldCommit()) {
+              fillEvent.mapCodename = game.map().codename();
+              fillEvent.territory = territory.identity().toString();
+              fillEvent.nucleusCount = territory.nuclei().size();
+              fillEvent.capital = capital;
+              fillEvent.commit();
+            }
           }
         }
       }
@@ -80,6 +113,15 @@ public class RiskriegUtil {
     } catch (Exception e) {
       e.printStackTrace();
       return null;
+    } finally {
+      renderEvent.end();
+      if (renderEvent.shouldCommit()) {
+        renderEvent.mapCodename = game.map().codename();
+        renderEvent.territoryCount = game.map().vertices().size();
+        renderEvent.claimCount = game.claims().size();
+        renderEvent.nationCount = game.nations().size();
+        renderEvent.commit();
+      }
     }
   }
 
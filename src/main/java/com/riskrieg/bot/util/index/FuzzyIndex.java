@@ -0,0 +1,178 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+public final class FuzzyIndex { // BK-tree over Levenshtein distance, immutable once built
+
+  public static final FuzzyIndex EMPTY = new FuzzyIndex(null, 0);
+
+  public record Match(String value, int distance) {
+
+  }
+
+  private record Hit(Node node, int distance) {
+
+  }
+
+  private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::distance).thenComparingInt(hit -> hit.node().order); // Ties go to the value added first, as in the linear scans this replaced
+
+  private static final class Node {
+
+    private final String key;
+    private final String value;
+    private final int order;
+    private final Map<Integer, Node> children = new HashMap<>();
+
+    private Node(String key, String value, int order) {
+      this.key = key;
+      this.value = value;
+      this.order = order;
+    }
+
+  }
+
+  private final Node root;
+  private final int size;
+
+  private FuzzyIndex(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  public static FuzzyIndex of(Collection<String> values) {
+    Node root = null;
+    int size = 0;
+    int[] scratch = new int[0];
+    for (String value : values) {
+      if (value == null || value.isBlank()) {
+        continue;
+      }
+      String key = normalize(value);
+      if (root == null) {
+        root = new Node(key, value, size);
+        size++;
+        continue;
+      }
+      Node node = root;
+      while (true) {
+        if (scratch.length < (key.length() + 1) * 2) {
+          scratch = new int[(key.length() + 1) * 2];
+        }
+        int distance = distance(key, node.key, scratch);
+        if (distance == 0) { // Duplicate key
+          break;
+        }
+        Node child = node.children.get(distance);
+        if (child == null) {
+          node.children.put(distance, new Node(key, value, size));
+          size++;
+          break;
+        }
+        node = child;
+      }
+    }
+    return new FuzzyIndex(root, size);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public List<Match> search(String query, int maxDistance, int limit) { // Ranked by distance, then by the order values were added
+    if (root == null || query == null || limit <= 0) {
+      return Collections.emptyList();
+    }
+    String key = normalize(query);
+    int[] scratch = new int[(key.length() + 1) * 2];
+    List<Hit> hits = new ArrayList<>();
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      int distance = distance(key, node.key, scratch);
+      if (distance <= maxDistance) {
+        hits.add(new Hit(node, distance));
+      }
+      int low = distance - maxDistance;
+      int high = distance + maxDistance;
+      for (Map.Entry<Integer, Node> entry : node.children.entrySet()) { // Triangle inequality rules out every other subtree
+        if (entry.getKey() >= low && entry.getKey() <= high) {
+          stack.push(entry.getValue());
+        }
+      }
+    }
+    hits.sort(RANKING);
+    List<Match> matches = new ArrayList<>(Math.min(limit, hits.size()));
+    for (int i = 0; i < hits.size() && i < limit; i++) {
+      matches.add(new Match(hits.get(i).node().value, hits.get(i).distance()));
+    }
+    return matches;
+  }
+
+  public Optional<Match> closest(String query, int maxDistance) {
+    List<Match> matches = search(query, maxDistance, 1);
+    return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+  }
+
+  private static int distance(String a, String b, int[] scratch) { // Two-row Levenshtein, rows live in the caller's scratch buffer
+    if (a.equals(b)) {
+      return 0;
+    }
+    if (a.isEmpty()) {
+      return b.length();
+    }
+    if (b.isEmpty()) {
+      return a.length();
+    }
+    int width = a.length() + 1;
+    int previous = 0;
+    int current = width;
+    for (int i = 0; i < width; i++) {
+      scratch[previous + i] = i;
+    }
+    for (int j = 1; j <= b.length(); j++) {
+      scratch[current] = j;
+      char bc = b.charAt(j - 1);
+      for (int i = 1; i < width; i++) {
+        int cost = a.charAt(i - 1) == bc ? 0 : 1;
+        scratch[current + i] = Math.min(Math.min(scratch[current + i - 1] + 1, scratch[previous + i] + 1), scratch[previous + i - 1] + cost);
+      }
+      int swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return scratch[previous + a.length()];
+  }
+
+  private static String normalize(String str) {
+    return str.trim().toLowerCase(Locale.ROOT);
+  }
+
+}
@@ -0,0 +1,183 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.game.AllianceMatrix;
+import com.riskrieg.bot.game.MapGraph;
+import com.riskrieg.core.api.Riskrieg;
+import com.riskrieg.core.api.RiskriegBuilder;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.identifier.GameIdentifier;
+import com.riskrieg.core.api.identifier.GroupIdentifier;
+import com.riskrieg.palette.RkpColor;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class GameIndex { // Per-channel view of a game that is cheap enough to query from autocomplete
+
+  private static final long REFRESH_AFTER_NANOS = Duration.ofSeconds(30).toNanos();
+
+  public record Snapshot(MapIndex.Territories territories, PrefixTrie colors, Set<String> usedColors, Map<String, Set<String>> claimable, TurnSummary turn, long createdNanos) {
+
+    static final Snapshot EMPTY = new Snapshot(null, PrefixTrie.EMPTY, Collections.emptySet(), Collections.emptyMap(), TurnSummary.NONE, 0L);
+
+    public Set<String> claimableBy(String playerId) {
+      return claimable.getOrDefault(playerId, Collections.emptySet());
+    }
+
+    public List<String> colors(String prefix, int limit, boolean inUse) {
+      return colors.search(prefix, limit, color -> usedColors.contains(color) == inUse);
+    }
+
+    boolean isStale() {
+      return System.nanoTime() - createdNanos > REFRESH_AFTER_NANOS;
+    }
+
+  }
+
+  private static final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  private static final Set<String> warming = ConcurrentHashMap.newKeySet();
+  private static final ExecutorService warmer = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "game-index-warmer");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private GameIndex() {
+  }
+
+  public static Snapshot update(Game game) {
+    Snapshot snapshot = snapshot(game);
+    snapshots.put(game.identifier().id(), snapshot);
+    return snapshot;
+  }
+
+  public static TurnSummary turn(Game game) { // Reuses the summary computed when the turn last advanced, rebuilding only if the game moved on without an update
+    Snapshot snapshot = snapshots.get(game.identifier().id());
+    if (snapshot != null && snapshot.turn().matches(game)) {
+      return snapshot.turn();
+    }
+    return update(game).turn();
+  }
+
+  public static void invalidate(String channelId) {
+    snapshots.remove(channelId);
+  }
+
+  public static Snapshot lookup(String guildId, String channelId) { // Never touches disk; misses and stale entries are refreshed in the background
+    Snapshot snapshot = snapshots.get(channelId);
+    if (snapshot == null || snapshot.isStale()) {
+      warm(guildId, channelId);
+    }
+    return snapshot == null ? Snapshot.EMPTY : snapshot;
+  }
+
+  private static void warm(String guildId, String channelId) {
+    if (!warming.add(channelId)) {
+      return;
+    }
+    warmer.execute(() -> {
+      try {
+        Riskrieg api = RiskriegBuilder.createLocal(Path.of(BotConstants.REPOSITORY_PATH)).build();
+        Game game = api.retrieveGroup(GroupIdentifier.of(guildId)).complete().retrieveGame(GameIdentifier.of(channelId)).complete();
+        update(game);
+      } catch (Exception e) { // No game in this channel, so remember that rather than retrying on every keystroke
+        snapshots.put(channelId, new Snapshot(null, PrefixTrie.EMPTY, Collections.emptySet(), Collections.emptyMap(), TurnSummary.NONE, System.nanoTime()));
+      } finally {
+        warming.remove(channelId);
+      }
+    });
+  }
+
+  private static Snapshot snapshot(Game game) {
+    Set<String> usedColors = new HashSet<>();
+    for (RkpColor color : game.palette().sortedColorSet()) {
+      if (game.getNation(color).isPresent()) {
+        usedColors.add(color.name());
+      }
+    }
+
+    if (game.map() == null) {
+      return new Snapshot(null, PaletteIndex.colors(game.palette()), usedColors, Collections.emptyMap(), TurnSummary.of(game, Collections.emptySet(), Collections.emptySet()), System.nanoTime());
+    }
+    MapIndex.Territories territories = MapIndex.territories(game.map());
+
+    Map<String, String> owners = new HashMap<>(); // Territory to leader ID
+    for (Nation nation : game.nations()) {
+      for (Claim claim : nation.getClaimedTerritories(game.claims())) {
+        owners.put(claim.territory().identity().toString(), nation.leaderIdentifier().id());
+      }
+    }
+
+    Map<String, Set<String>> claimable = new HashMap<>();
+    Map<String, Set<String>> alliances = new HashMap<>();
+    AllianceMatrix matrix = AllianceMatrix.of(game);
+    for (Nation nation : game.nations()) {
+      String leaderId = nation.leaderIdentifier().id();
+      Set<String> allies = Set.copyOf(matrix.allies(leaderId));
+      alliances.put(leaderId, allies);
+      Set<String> owned = owners.entrySet().stream().filter(entry -> entry.getValue().equals(leaderId)).map(Map.Entry::getKey).collect(Collectors.toSet());
+
+      Set<String> result = new HashSet<>();
+      MapGraph graph = territories.graph();
+      if (owned.isEmpty()) { // Nothing claimed yet, so any unclaimed territory can be taken as a starting point
+        for (int v = 0; v < graph.size(); v++) {
+          if (!owners.containsKey(graph.name(v))) {
+            result.add(graph.name(v));
+          }
+        }
+      } else {
+        for (String territory : owned) {
+          int v = graph.indexOf(territory);
+          if (v < 0) {
+            continue;
+          }
+          for (int edge = graph.start(v), end = graph.end(v); edge < end; edge++) {
+            String neighbor = graph.name(graph.target(edge));
+            String owner = owners.get(neighbor);
+            if (owner == null || (!owner.equals(leaderId) && !allies.contains(owner))) {
+              result.add(neighbor);
+            }
+          }
+        }
+      }
+      claimable.put(leaderId, Collections.unmodifiableSet(result));
+    }
+
+    String currentId = game.getCurrentPlayer().map(player -> player.identifier().id()).orElse("");
+    TurnSummary turn = TurnSummary.of(game, claimable.getOrDefault(currentId, Collections.emptySet()), alliances.getOrDefault(currentId, Collections.emptySet()));
+
+    return new Snapshot(territories, PaletteIndex.colors(game.palette()), Collections.unmodifiableSet(usedColors), Collections.unmodifiableMap(claimable), turn,
+        System.nanoTime());
+  }
+
+}
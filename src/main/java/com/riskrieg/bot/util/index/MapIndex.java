@@ -0,0 +1,124 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.game.MapGraph;
+import com.riskrieg.core.util.io.RkJsonUtil;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.RkmMetadata;
+import com.riskrieg.map.metadata.Availability;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+public class MapIndex {
+
+  public record Territories(String codename, PrefixTrie names, MapGraph graph) {
+
+    public List<String> neighborsOf(String territory) {
+      return graph.neighborNames(territory);
+    }
+
+    public boolean contains(String territory) {
+      return graph.indexOf(territory) >= 0;
+    }
+
+  }
+
+  private static volatile PrefixTrie catalog = PrefixTrie.EMPTY;
+  private static volatile FuzzyIndex codenames = FuzzyIndex.EMPTY;
+  private static final ConcurrentHashMap<String, Territories> territories = new ConcurrentHashMap<>();
+
+  private MapIndex() {
+  }
+
+  public static PrefixTrie catalog() { // Codenames of maps that can currently be selected
+    return catalog;
+  }
+
+  public static FuzzyIndex codenames() { // Every installed map, regardless of availability
+    return codenames;
+  }
+
+  public static void refreshCatalog() {
+    Path metadataPath = Path.of(BotConstants.MAP_METADATA_PATH);
+    if (Files.notExists(metadataPath)) {
+      catalog = PrefixTrie.EMPTY;
+      codenames = FuzzyIndex.EMPTY;
+      return;
+    }
+    List<String> available = new ArrayList<>();
+    List<String> installed = new ArrayList<>();
+    try (Stream<Path> pathStream = Files.list(metadataPath)) {
+      for (Path path : pathStream.filter(path -> path.toString().endsWith(".json")).toList()) {
+        String codename = path.getFileName().toString().split("\\.")[0].trim();
+        installed.add(codename);
+        try {
+          RkmMetadata metadata = RkJsonUtil.read(path, RkmMetadata.class);
+          if (metadata != null && metadata.availability().equals(Availability.AVAILABLE)) {
+            available.add(codename);
+          }
+        } catch (IOException e) {
+          System.err.println("[Index] Could not read map metadata, map will not be suggested: " + path + " - " + e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("[Index] Could not list map metadata: " + e.getMessage());
+      return;
+    }
+    catalog = PrefixTrie.of(available);
+    codenames = FuzzyIndex.of(installed);
+  }
+
+  public static Territories territories(RkmMap map) {
+    return territories.computeIfAbsent(map.codename(), codename -> build(codename, MapGraph.of(map)));
+  }
+
+  public static Territories prepare(RkmMap map) { // Built without touching the cache, so a map can be indexed before its files are in place
+    return build(map.codename(), MapGraph.prepare(map));
+  }
+
+  public static void install(Territories prepared) {
+    MapGraph.install(prepared.graph());
+    territories.put(prepared.codename(), prepared);
+  }
+
+  public static Optional<Territories> cachedTerritories(String codename) {
+    return Optional.ofNullable(territories.get(codename));
+  }
+
+  public static void invalidate(String codename) {
+    territories.remove(codename);
+    MapGraph.invalidate(codename);
+  }
+
+  private static Territories build(String codename, MapGraph graph) {
+    List<String> names = new ArrayList<>(graph.size());
+    for (int v = 0; v < graph.size(); v++) {
+      names.add(graph.name(v));
+    }
+    return new Territories(codename, PrefixTrie.of(names), graph);
+  }
+
+}
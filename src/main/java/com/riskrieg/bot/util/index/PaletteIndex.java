@@ -0,0 +1,69 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import com.riskrieg.palette.RkpColor;
+import com.riskrieg.palette.RkpPalette;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class PaletteIndex {
+
+  private record Indexes(PrefixTrie prefixes, FuzzyIndex fuzzy) {
+
+  }
+
+  private static final int MAX_CACHED_PALETTES = 128; // Every distinct custom palette gets an entry, so the least recently used ones are dropped
+
+  private static final Map<String, Indexes> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Indexes> eldest) {
+      return size() > MAX_CACHED_PALETTES;
+    }
+  };
+
+  private PaletteIndex() {
+  }
+
+  public static PrefixTrie colors(RkpPalette palette) {
+    return indexes(palette).prefixes();
+  }
+
+  public static FuzzyIndex fuzzyColors(RkpPalette palette) {
+    return indexes(palette).fuzzy();
+  }
+
+  private static Indexes indexes(RkpPalette palette) {
+    List<String> names = palette.sortedColorSet().stream().map(RkpColor::name).toList();
+    String key = palette.name() + ":" + names.stream().collect(Collectors.joining(",")); // Custom palettes can reuse a built-in name
+    synchronized (indexes) {
+      Indexes cached = indexes.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    Indexes built = new Indexes(PrefixTrie.of(names), FuzzyIndex.of(names)); // Built outside the lock, a racing duplicate is harmless
+    synchronized (indexes) {
+      Indexes raced = indexes.putIfAbsent(key, built);
+      return raced == null ? built : raced;
+    }
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+public final class PrefixTrie { // Immutable once built, so lookups need no synchronization
+
+  private static final char[] NO_KEYS = new char[0];
+  private static final Node[] NO_CHILDREN = new Node[0];
+
+  public static final PrefixTrie EMPTY = new PrefixTrie(new Node(), 0); // Declared after the shared arrays, its root node reads them during class initialization
+
+  private static final class Node {
+
+    private char[] keys = NO_KEYS; // Sorted, so traversal yields values in lexicographic order
+    private Node[] children = NO_CHILDREN;
+    private String value;
+
+    private Node child(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      return index < 0 ? null : children[index];
+    }
+
+    private Node getOrCreateChild(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if (index >= 0) {
+        return children[index];
+      }
+      int insertAt = -index - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, insertAt);
+      System.arraycopy(children, 0, newChildren, 0, insertAt);
+      newKeys[insertAt] = key;
+      newChildren[insertAt] = new Node();
+      System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+      System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+      keys = newKeys;
+      children = newChildren;
+      return newChildren[insertAt];
+    }
+
+  }
+
+  private final Node root;
+  private final int size;
+
+  private PrefixTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  public static PrefixTrie of(Collection<String> values) {
+    Node root = new Node();
+    int size = 0;
+    for (String value : values) {
+      if (value == null || value.isBlank()) {
+        continue;
+      }
+      Node node = root;
+      for (char c : normalize(value).toCharArray()) {
+        node = node.getOrCreateChild(c);
+      }
+      if (node.value == null) {
+        size++;
+      }
+      node.value = value;
+    }
+    return new PrefixTrie(root, size);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(String key) {
+    Node node = find(normalize(key));
+    return node != null && node.value != null;
+  }
+
+  public List<String> search(String prefix, int limit) {
+    return search(prefix, limit, value -> true);
+  }
+
+  public List<String> search(String prefix, int limit, Predicate<String> filter) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+    Node start = find(normalize(prefix == null ? "" : prefix));
+    if (start == null) {
+      return Collections.emptyList();
+    }
+    List<String> results = new ArrayList<>(Math.min(limit, size));
+    Deque<Node> stack = new ArrayDeque<>();
+    stack.push(start);
+    while (!stack.isEmpty() && results.size() < limit) {
+      Node node = stack.pop();
+      if (node.value != null && filter.test(node.value)) {
+        results.add(node.value);
+      }
+      for (int i = node.children.length - 1; i >= 0; i--) { // Pushed in reverse so the smallest key is visited first
+        stack.push(node.children[i]);
+      }
+    }
+    return results;
+  }
+
+  private Node find(String key) {
+    Node node = root;
+    for (int i = 0; i < key.length() && node != null; i++) {
+      node = node.child(key.charAt(i));
+    }
+    return node;
+  }
+
+  private static String normalize(String str) {
+    return str.trim().toLowerCase(Locale.ROOT);
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.GamePhase;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.entity.player.Player;
+import com.riskrieg.core.api.game.mode.Brawl;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+public record TurnSummary(String playerId, String playerName, long allowedClaims, Set<String> frontier, Set<String> allies, GamePhase phase, int claimCount,
+                          int playerCount) { // Computed once per turn alongside the game's index snapshot
+
+  public static final long UNKNOWN = -1;
+
+  static final TurnSummary NONE = new TurnSummary(null, null, UNKNOWN, Collections.emptySet(), Collections.emptySet(), null, -1, -1);
+
+  static TurnSummary of(Game game, Set<String> frontier, Set<String> allies) {
+    Optional<Player> player = game.getCurrentPlayer();
+    if (!game.phase().equals(GamePhase.ACTIVE) || player.isEmpty() || game.map() == null) {
+      return new TurnSummary(null, null, UNKNOWN, Collections.emptySet(), Collections.emptySet(), game.phase(), game.claims().size(), game.players().size());
+    }
+    Optional<Nation> nation = game.getNation(player.get().identifier());
+    long allowed = nation.map(value -> allowedClaims(game, value)).orElse(UNKNOWN);
+    return new TurnSummary(player.get().identifier().id(), player.get().name(), allowed, frontier, allies, game.phase(), game.claims().size(), game.players().size());
+  }
+
+  public static long allowedClaims(Game game, Nation nation) {
+    if (game.getClass() == Brawl.class && game.claims().size() != game.map().vertices().size()) { // Brawl hands out territories one at a time until the map is full
+      return 1;
+    }
+    return nation.getAllowedClaimAmount(game.claims(), game.constants(), game.map(), game.getAllies(nation.identifier()));
+  }
+
+  public boolean isTurnOf(String playerId) {
+    return this.playerId != null && this.playerId.equals(playerId);
+  }
+
+  boolean matches(Game game) { // Cheap guard against snapshots taken before a change that skipped GameIndex.update
+    if (phase != game.phase() || claimCount != game.claims().size() || playerCount != game.players().size()) {
+      return false;
+    }
+    String current = game.getCurrentPlayer().map(player -> player.identifier().id()).orElse(null);
+    return playerId == null ? current == null || !phase.equals(GamePhase.ACTIVE) : playerId.equals(current);
+  }
+
+  public String claimDescription() {
+    if (allowedClaims == UNKNOWN) {
+      return "They may claim an unknown amount of territories this turn.";
+    }
+    return "They may claim " + allowedClaims + " " + (allowedClaims == 1 ? "territory" : "territories") + " this turn.";
+  }
+
+  public String footer() {
+    return "It is " + (playerName == null ? "someone" : playerName) + "'s turn. " + claimDescription();
+  }
+
+}
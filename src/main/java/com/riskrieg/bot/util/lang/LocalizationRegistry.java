@@ -0,0 +1,135 @@
+package com.riskrieg.bot.util.lang;
+
+import com.riskrieg.bot.BotConstants;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
+
+public final class LocalizationRegistry {
+
+  public static final DiscordLocale FALLBACK_LOCALE = DiscordLocale.ENGLISH_US;
+
+  private static volatile LocalizationRegistry instance;
+
+  private final Map<DiscordLocale, Map<String, String>> tables; // Locale -> key -> text
+  private final Map<String, Map<DiscordLocale, String>> translations; // Key -> locale -> text, served as-is to JDA
+
+  private LocalizationRegistry(Map<DiscordLocale, Map<String, String>> tables) {
+    this.tables = tables;
+    Map<String, Map<DiscordLocale, String>> byKey = new HashMap<>();
+    tables.forEach((locale, table) -> table.forEach((key, text) -> byKey.computeIfAbsent(key, k -> new EnumMap<>(DiscordLocale.class)).put(locale, text)));
+    byKey.replaceAll((key, localized) -> Collections.unmodifiableMap(localized));
+    this.translations = Map.copyOf(byKey);
+  }
+
+  @Nonnull
+  public static LocalizationRegistry get() {
+    LocalizationRegistry registry = instance;
+    if (registry == null) {
+      synchronized (LocalizationRegistry.class) {
+        registry = instance;
+        if (registry == null) {
+          registry = load(Path.of(BotConstants.LANG_COMMAND_PROPERTIES_PATH));
+          instance = registry;
+        }
+      }
+    }
+    return registry;
+  }
+
+  @Nonnull
+  public static LocalizationRegistry reload() {
+    synchronized (LocalizationRegistry.class) {
+      instance = load(Path.of(BotConstants.LANG_COMMAND_PROPERTIES_PATH));
+      return instance;
+    }
+  }
+
+  @Nonnull
+  static LocalizationRegistry load(Path root) { // Expects <root>/<command>/<command>_<locale>.properties
+    if (!Files.isDirectory(root)) {
+      System.out.println("[Localization] No bundles found at " + root + ".");
+      return new LocalizationRegistry(Map.of());
+    }
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(root, 2)) {
+      files = stream.filter(path -> path.getFileName().toString().endsWith(".properties")).toList();
+    } catch (IOException e) {
+      System.out.println("[Localization] Could not list bundles: " + e.getMessage());
+      return new LocalizationRegistry(Map.of());
+    }
+
+    Map<DiscordLocale, Map<String, String>> tables = new EnumMap<>(DiscordLocale.class);
+    List<LoadedBundle> bundles = files.parallelStream().map(LocalizationRegistry::readBundle).filter(Objects::nonNull).toList(); // Files are read in parallel, merged on one thread
+    bundles.forEach(bundle -> tables.computeIfAbsent(bundle.locale(), locale -> new HashMap<>()).putAll(bundle.entries()));
+    tables.replaceAll((locale, table) -> Map.copyOf(table));
+
+    int keys = tables.values().stream().mapToInt(Map::size).sum();
+    System.out.println("[Localization] Loaded " + bundles.size() + " bundles with " + keys + " entries across " + tables.size() + " locales.");
+    return new LocalizationRegistry(Collections.unmodifiableMap(tables));
+  }
+
+  private static LoadedBundle readBundle(Path path) {
+    String fileName = path.getFileName().toString();
+    int separator = fileName.lastIndexOf('_');
+    if (separator < 0) {
+      return null;
+    }
+    DiscordLocale locale = DiscordLocale.from(fileName.substring(separator + 1, fileName.length() - ".properties".length()));
+    if (locale == DiscordLocale.UNKNOWN) {
+      System.out.println("[Localization] Skipping bundle with unknown locale: " + fileName);
+      return null;
+    }
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException | IllegalArgumentException e) { // One unreadable or malformed bundle shouldn't stop the others, or startup
+      System.out.println("[Localization] Skipping unreadable bundle " + fileName + ": " + e.getMessage());
+      return null;
+    }
+    Map<String, String> entries = new HashMap<>();
+    properties.forEach((key, value) -> entries.put(key.toString(), value.toString()));
+    return new LoadedBundle(locale, entries);
+  }
+
+  private record LoadedBundle(DiscordLocale locale, Map<String, String> entries) {
+
+  }
+
+  /* Lookup */
+
+  @Nonnull
+  public Map<DiscordLocale, String> translations(@Nonnull String key) {
+    return translations.getOrDefault(key, Map.of());
+  }
+
+  @Nonnull
+  public Optional<String> find(@Nonnull DiscordLocale locale, @Nonnull String key) {
+    return Optional.ofNullable(tables.getOrDefault(locale, Map.of()).get(key));
+  }
+
+  @Nonnull
+  public String get(@Nonnull DiscordLocale locale, @Nonnull String key) { // Falls back to the default locale, then to the key itself
+    return find(locale, key).or(() -> find(FALLBACK_LOCALE, key)).orElse(key);
+  }
+
+  @Nonnull
+  public Set<DiscordLocale> locales() {
+    return tables.keySet();
+  }
+
+}
@@ -1,6 +1,8 @@
 package com.riskrieg.bot.util.lang;
 
 import com.riskrieg.bot.command.Command;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -16,9 +18,13 @@ import net.dv8tion.jda.internal.utils.Checks;
 public class RkLocalizationFunction implements LocalizationFunction {
 
   private final Set<Bundle> bundles;
+  private final Set<DiscordLocale> externalLocales; // Served from the shared LocalizationRegistry
+  private final boolean allExternalLocales;
 
-  private RkLocalizationFunction(Set<Bundle> bundles) {
+  private RkLocalizationFunction(Set<Bundle> bundles, Set<DiscordLocale> externalLocales, boolean allExternalLocales) {
     this.bundles = bundles;
+    this.externalLocales = externalLocales;
+    this.allExternalLocales = allExternalLocales;
   }
 
   @Nonnull
@@ -31,6 +37,13 @@ public class RkLocalizationFunction implements LocalizationFunction {
         map.put(bundle.targetLocale, resourceBundle.getString(localizationKey));
       }
     }
+    if (allExternalLocales || !externalLocales.isEmpty()) {
+      LocalizationRegistry.get().translations(localizationKey).forEach((locale, text) -> {
+        if (allExternalLocales || externalLocales.contains(locale)) {
+          map.put(locale, text);
+        }
+      });
+    }
 
     return map;
   }
@@ -58,6 +71,8 @@ public class RkLocalizationFunction implements LocalizationFunction {
   public static class Builder {
 
     private final Set<Bundle> bundles = new HashSet<>();
+    private final Set<DiscordLocale> externalLocales = EnumSet.noneOf(DiscordLocale.class);
+    private boolean allExternalLocales = false;
 
     protected Builder() {
     }
@@ -88,22 +103,24 @@ public class RkLocalizationFunction implements LocalizationFunction {
     }
 
     @Nonnull
-    public Builder addExternalBundles(@Nonnull Command command, @Nonnull DiscordLocale... locales) {
+    public Builder addExternalBundles(@Nonnull Command command, @Nonnull DiscordLocale... locales) { // No locales means every locale that has a bundle
       Checks.notNull(command, "Command");
       Checks.noneNull(locales, "Locale");
 
+      if (locales.length == 0) {
+        allExternalLocales = true;
+      }
       for (DiscordLocale locale : locales) {
         Checks.check(locale != DiscordLocale.UNKNOWN, "Cannot use UNKNOWN DiscordLocale");
 
-        final ResourceBundle resourceBundle = BundleUtil.getExternalBundle(command, locale);
-        bundles.add(new Bundle(locale, resourceBundle));
+        externalLocales.add(locale);
       }
       return this;
     }
 
     @Nonnull
     public RkLocalizationFunction build() {
-      return new RkLocalizationFunction(bundles);
+      return new RkLocalizationFunction(bundles, Collections.unmodifiableSet(EnumSet.copyOf(externalLocales)), allExternalLocales);
     }
   }
 
@@ -0,0 +1,216 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.view;
+
+import com.riskrieg.bot.game.AllianceMatrix;
+import com.riskrieg.bot.metrics.Metrics;
+import com.riskrieg.bot.metrics.Metrics.CacheCounters;
+import com.riskrieg.bot.util.ImageUtil;
+import com.riskrieg.bot.util.RenderGate;
+import com.riskrieg.core.api.game.Game;
+import com.riskrieg.core.api.game.entity.nation.Nation;
+import com.riskrieg.core.api.game.feature.alliance.AllianceStatus;
+import com.riskrieg.core.api.identifier.PlayerIdentifier;
+import com.riskrieg.palette.RkpPalette;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class AllianceView { // Alliance diagram with nations on a circle, drawn directly with Java2D
+
+  private static final int NODE_SIZE = 30;
+  private static final int NODE_SPACING = 36;
+  private static final int MIN_RADIUS = 60;
+  private static final int PADDING = 24;
+  private static final int ARROW_LENGTH = 10;
+  private static final int ARROW_WIDTH = 5;
+  private static final int MAX_CACHED_IMAGES = 64;
+
+  private static final Stroke COMPLETE_STROKE = new BasicStroke(2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+  private static final Stroke REQUEST_STROKE = new BasicStroke(2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 10f, new float[]{4f, 4f}, 0f);
+
+  private static final CacheCounters imageCacheCounters = Metrics.cache("alliance_graph");
+
+  private static final Map<Long, BufferedImage> nodeSprites = new ConcurrentHashMap<>(); // Keyed by border and fill colour, so sprites are shared by every game on a palette
+  private static final Map<ImageKey, byte[]> images = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<ImageKey, byte[]> eldest) {
+      return size() > MAX_CACHED_IMAGES;
+    }
+  };
+
+  private record ImageKey(AllianceMatrix.Snapshot alliances, int[] fills) { // Everything the drawing depends on, compared exactly
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ImageKey other && alliances.equals(other.alliances) && Arrays.equals(fills, other.fills);
+    }
+
+    @Override
+    public int hashCode() {
+      return alliances.hashCode() * 31 + Arrays.hashCode(fills);
+    }
+
+  }
+
+  private AllianceView() {
+  }
+
+  public static byte[] render(Game game) { // Null if the render gate had no room in time
+    AllianceMatrix.Snapshot matrix = AllianceMatrix.of(game).snapshot(); // Drawn from the same copy that keys the cache
+    Color background = RkpPalette.DEFAULT_TERRITORY_COLOR.toAwtColor();
+    Color border = RkpPalette.DEFAULT_BORDER_COLOR.toAwtColor(); // The same border the graph has always used, whatever the game's palette
+    int[] fills = new int[matrix.size()];
+    for (int i = 0; i < fills.length; i++) {
+      Optional<Nation> nation = game.getNation(PlayerIdentifier.of(matrix.leaders().get(i)));
+      fills[i] = nation.isPresent() ? game.palette().get(nation.get().colorId()).orElse(game.palette().last()).toAwtColor().getRGB() : border.getRGB();
+    }
+
+    ImageKey key = new ImageKey(matrix, fills);
+    synchronized (images) {
+      byte[] cached = images.get(key);
+      if (cached != null) {
+        imageCacheCounters.hit();
+        return cached;
+      }
+    }
+    imageCacheCounters.miss();
+
+    byte[] data = RenderGate.render(() -> ImageUtil.convertToByteArray(draw(matrix, fills, border, background)));
+    if (data != null) {
+      synchronized (images) {
+        images.put(key, data);
+      }
+    }
+    return data;
+  }
+
+  private static BufferedImage draw(AllianceMatrix.Snapshot matrix, int[] fills, Color border, Color background) {
+    int n = fills.length;
+    if (n == 0) {
+      BufferedImage empty = new BufferedImage(256, 144, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g = empty.createGraphics();
+      g.setColor(background);
+      g.fillRect(0, 0, empty.getWidth(), empty.getHeight());
+      g.dispose();
+      return empty;
+    }
+
+    // Layout, with the radius chosen so neighbouring nodes never overlap
+    double radius = Math.max(MIN_RADIUS, n * NODE_SPACING / (2 * Math.PI));
+    int size = (int) Math.ceil(2 * (radius + NODE_SIZE / 2.0 + PADDING));
+    double center = size / 2.0;
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      double angle = -Math.PI / 2 + 2 * Math.PI * i / n; // First nation at the top, then clockwise
+      x[i] = center + radius * Math.cos(angle);
+      y[i] = center + radius * Math.sin(angle);
+    }
+
+    BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    g.setColor(background);
+    g.fillRect(0, 0, size, size);
+
+    for (int a = 0; a < n; a++) {
+      for (int b = a + 1; b < n; b++) {
+        AllianceStatus status = matrix.status(a, b);
+        switch (status) {
+          case COMPLETE -> {
+            g.setColor(border);
+            g.setStroke(COMPLETE_STROKE);
+            drawEdge(g, x[a], y[a], x[b], y[b], false);
+          }
+          case OUTGOING -> {
+            g.setColor(new Color(fills[a], true));
+            g.setStroke(REQUEST_STROKE);
+            drawEdge(g, x[a], y[a], x[b], y[b], true);
+          }
+          case INCOMING -> {
+            g.setColor(new Color(fills[b], true));
+            g.setStroke(REQUEST_STROKE);
+            drawEdge(g, x[b], y[b], x[a], y[a], true);
+          }
+          default -> { // Not related
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < n; i++) {
+      g.drawImage(nodeSprite(border.getRGB(), fills[i]), (int) Math.round(x[i] - NODE_SIZE / 2.0), (int) Math.round(y[i] - NODE_SIZE / 2.0), null);
+    }
+    g.dispose();
+    return image;
+  }
+
+  private static void drawEdge(Graphics2D g, double fromX, double fromY, double toX, double toY, boolean arrow) { // Trimmed to the node outlines so arrowheads stay visible
+    double dx = toX - fromX;
+    double dy = toY - fromY;
+    double length = Math.hypot(dx, dy);
+    if (length <= NODE_SIZE) {
+      return;
+    }
+    double ux = dx / length;
+    double uy = dy / length;
+    double inset = NODE_SIZE / 2.0 + 1;
+    double startX = fromX + ux * inset;
+    double startY = fromY + uy * inset;
+    double endX = toX - ux * inset;
+    double endY = toY - uy * inset;
+    if (!arrow) {
+      g.drawLine((int) Math.round(startX), (int) Math.round(startY), (int) Math.round(endX), (int) Math.round(endY));
+      return;
+    }
+    double baseX = endX - ux * ARROW_LENGTH;
+    double baseY = endY - uy * ARROW_LENGTH;
+    g.drawLine((int) Math.round(startX), (int) Math.round(startY), (int) Math.round(baseX), (int) Math.round(baseY));
+    Polygon head = new Polygon();
+    head.addPoint((int) Math.round(endX), (int) Math.round(endY));
+    head.addPoint((int) Math.round(baseX - uy * ARROW_WIDTH), (int) Math.round(baseY + ux * ARROW_WIDTH));
+    head.addPoint((int) Math.round(baseX + uy * ARROW_WIDTH), (int) Math.round(baseY - ux * ARROW_WIDTH));
+    g.fillPolygon(head);
+  }
+
+  private static BufferedImage nodeSprite(int border, int fill) {
+    return nodeSprites.computeIfAbsent(((long) border << 32) | (fill & 0xFFFFFFFFL), key -> {
+      BufferedImage sprite = new BufferedImage(NODE_SIZE, NODE_SIZE, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g = sprite.createGraphics();
+      g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g.setColor(new Color(fill, true));
+      g.fillOval(1, 1, NODE_SIZE - 3, NODE_SIZE - 3);
+      g.setColor(new Color(border, true));
+      g.setStroke(new BasicStroke(2f));
+      g.drawOval(1, 1, NODE_SIZE - 3, NODE_SIZE - 3);
+      g.dispose();
+      return sprite;
+    });
+  }
+
+}
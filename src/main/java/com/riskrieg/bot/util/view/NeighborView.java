@@ -0,0 +1,279 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.view;
+
+import com.riskrieg.bot.BotConstants;
+import com.riskrieg.bot.game.MapGraph;
+import com.riskrieg.bot.metrics.Metrics;
+import com.riskrieg.bot.metrics.Metrics.CacheCounters;
+import com.riskrieg.bot.util.ImageUtil;
+import com.riskrieg.bot.util.RenderGate;
+import com.riskrieg.bot.util.index.MapIndex;
+import com.riskrieg.codec.decode.RkmDecoder;
+import com.riskrieg.map.RkmMap;
+import com.riskrieg.map.Territory;
+import com.riskrieg.map.territory.Nucleus;
+import java.awt.Color;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+public final class NeighborView { // Highlights a territory and its neighbours by painting cached masks over a cached copy of the map, without a full game render
+
+  private static final Color SELECTED_COLOR = new Color(242, 193, 78);
+  private static final Color NEIGHBOR_COLOR = new Color(143, 193, 227);
+  private static final int MAX_CACHED_RESULTS = 64;
+  private static final int MAX_CACHED_LAYERS = 8; // Each holds a full ARGB copy of the map, so only recently viewed maps are kept
+
+  private static final CacheCounters layerCacheCounters = Metrics.cache("neighbor_layers");
+  private static final CacheCounters resultCacheCounters = Metrics.cache("neighbor_result");
+
+  public record Result(String codename, String territory, List<String> neighbors, byte[] image) {
+
+  }
+
+  private record Mask(int x, int y, int width, BitSet pixels) { // Bounding box origin and width, plus which pixels inside it belong to the territory
+
+  }
+
+  private record Layers(MapIndex.Territories territories, BufferedImage base, BufferedImage text, Territory[] vertices, Mask[] masks) {
+
+    MapGraph graph() {
+      return territories.graph();
+    }
+
+  }
+
+  public static final class Prepared { // Layers with every mask traced, held back until the map's files are committed
+
+    private final String codename;
+    private final Layers built;
+
+    private Prepared(String codename, Layers built) {
+      this.codename = codename;
+      this.built = built;
+    }
+
+    public void install() {
+      invalidate(codename);
+      synchronized (layers) {
+        layers.put(codename, built);
+      }
+    }
+
+  }
+
+  private static final Map<String, Layers> layers = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Layers> eldest) {
+      return size() > MAX_CACHED_LAYERS;
+    }
+  };
+  private static final Map<String, Result> results = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+      return size() > MAX_CACHED_RESULTS;
+    }
+  };
+
+  private NeighborView() {
+  }
+
+  public static Optional<Result> render(String codename, String territory) throws IOException { // Empty if the territory is not on the map
+    String key = codename + "/" + territory;
+    synchronized (results) {
+      Result cached = results.get(key);
+      if (cached != null) {
+        resultCacheCounters.hit();
+        return Optional.of(cached);
+      }
+    }
+    resultCacheCounters.miss();
+
+    Layers layers = layers(codename);
+    MapGraph graph = layers.graph();
+    int v = graph.indexOf(territory);
+    if (v < 0) {
+      return Optional.empty();
+    }
+    byte[] image = RenderGate.render(() -> ImageUtil.convertToByteArray(compose(layers, v)));
+    if (image == null) {
+      throw new IOException("Could not render the map.");
+    }
+    Result result = new Result(codename, territory, graph.neighborNames(territory), image);
+    synchronized (results) {
+      results.put(key, result);
+    }
+    return Optional.of(result);
+  }
+
+  public static Prepared prepare(RkmMap map, MapIndex.Territories territories) {
+    Layers built = build(map, territories);
+    Mask[] masks = built.masks();
+    IntStream.range(0, masks.length).parallel().forEach(v -> masks[v] = trace(built.base(), built.vertices()[v]));
+    return new Prepared(map.codename(), built);
+  }
+
+  public static void invalidate(String codename) {
+    synchronized (layers) {
+      layers.remove(codename);
+    }
+    synchronized (results) {
+      results.keySet().removeIf(key -> key.startsWith(codename + "/"));
+    }
+  }
+
+  private static BufferedImage compose(Layers layers, int v) {
+    BufferedImage image = ImageUtil.createCopy(layers.base());
+    int width = image.getWidth();
+    int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    paint(pixels, width, mask(layers, v), SELECTED_COLOR.getRGB());
+    layers.graph().forEachNeighbor(v, neighbor -> paint(pixels, width, mask(layers, neighbor), NEIGHBOR_COLOR.getRGB()));
+    GameView.drawTerritoryNames(image, layers.text());
+    return image;
+  }
+
+  private static void paint(int[] pixels, int imageWidth, Mask mask, int argb) {
+    BitSet set = mask.pixels();
+    for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+      pixels[(mask.y() + i / mask.width()) * imageWidth + mask.x() + i % mask.width()] = argb;
+    }
+  }
+
+  /* Cached layers */
+
+  private static Layers layers(String codename) throws IOException {
+    Layers cached;
+    synchronized (layers) {
+      cached = layers.get(codename);
+    }
+    if (cached != null) {
+      layerCacheCounters.hit();
+      return cached;
+    }
+    layerCacheCounters.miss();
+    RkmMap map;
+    try {
+      map = new RkmDecoder().decode(Path.of(BotConstants.MAP_PATH + codename + ".rkm"));
+    } catch (Exception e) {
+      throw new IOException("Could not load map: " + codename, e);
+    }
+    Layers built = build(map, MapIndex.territories(map)); // Also makes the map's names available to autocomplete
+    synchronized (layers) {
+      Layers raced = layers.putIfAbsent(codename, built);
+      return raced == null ? built : raced;
+    }
+  }
+
+  private static Layers build(RkmMap map, MapIndex.Territories territories) {
+    MapGraph graph = territories.graph();
+    Territory[] vertices = new Territory[graph.size()];
+    for (int v = 0; v < vertices.length; v++) {
+      vertices[v] = map.get(graph.identity(v)).orElse(null);
+    }
+    return new Layers(territories, ImageUtil.convert(map.baseLayer(), BufferedImage.TYPE_INT_ARGB), map.textLayer(), vertices, new Mask[vertices.length]);
+  }
+
+  private static Mask mask(Layers layers, int v) { // Traced lazily, most maps only ever have a handful of territories looked up
+    Mask[] masks = layers.masks();
+    synchronized (masks) {
+      if (masks[v] == null) {
+        masks[v] = trace(layers.base(), layers.vertices()[v]);
+      }
+      return masks[v];
+    }
+  }
+
+  private static Mask trace(BufferedImage base, Territory territory) { // Same region a bucket fill from each nucleus would colour
+    if (territory == null) {
+      return new Mask(0, 0, 1, new BitSet());
+    }
+    int width = base.getWidth();
+    int height = base.getHeight();
+    int[] pixels = ((DataBufferInt) base.getRaster().getDataBuffer()).getData();
+    BitSet visited = new BitSet(width * height);
+    int[] stack = new int[64];
+    int[] region = new int[64];
+    int regionSize = 0;
+    int minX = width, minY = height, maxX = -1, maxY = -1;
+
+    for (Nucleus nucleus : territory.nuclei()) {
+      Point seed = nucleus.toPoint();
+      if (seed.x < 0 || seed.y < 0 || seed.x >= width || seed.y >= height || visited.get(seed.y * width + seed.x)) {
+        continue;
+      }
+      int target = pixels[seed.y * width + seed.x];
+      int top = 0;
+      stack[top++] = seed.y * width + seed.x;
+      visited.set(seed.y * width + seed.x);
+      while (top > 0) {
+        int index = stack[--top];
+        int x = index % width;
+        int y = index / width;
+        if (regionSize == region.length) {
+          region = Arrays.copyOf(region, region.length * 2);
+        }
+        region[regionSize++] = index;
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+        if (stack.length - top < 4) {
+          stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        if (x > 0 && !visited.get(index - 1) && pixels[index - 1] == target) {
+          visited.set(index - 1);
+          stack[top++] = index - 1;
+        }
+        if (x < width - 1 && !visited.get(index + 1) && pixels[index + 1] == target) {
+          visited.set(index + 1);
+          stack[top++] = index + 1;
+        }
+        if (y > 0 && !visited.get(index - width) && pixels[index - width] == target) {
+          visited.set(index - width);
+          stack[top++] = index - width;
+        }
+        if (y < height - 1 && !visited.get(index + width) && pixels[index + width] == target) {
+          visited.set(index + width);
+          stack[top++] = index + width;
+        }
+      }
+    }
+
+    if (regionSize == 0) {
+      return new Mask(0, 0, 1, new BitSet());
+    }
+    int maskWidth = maxX - minX + 1;
+    BitSet mask = new BitSet(maskWidth * (maxY - minY + 1));
+    for (int i = 0; i < regionSize; i++) {
+      int index = region[i];
+      mask.set((index / width - minY) * maskWidth + index % width - minX);
+    }
+    return new Mask(minX, minY, maskWidth, mask);
+  }
+
+}
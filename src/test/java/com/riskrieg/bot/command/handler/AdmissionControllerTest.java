@@ -0,0 +1,100 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdmissionControllerTest {
+
+  @Test
+  void freeCommandsAreAlwaysAdmitted() {
+    AdmissionController controller = new AdmissionController();
+    long now = System.nanoTime();
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Admission.ADMITTED, controller.evaluate("user", "guild", 0, false, now));
+    }
+    assertEquals(0, controller.trackedBuckets());
+  }
+
+  @Test
+  void userIsThrottledOnceTheirBucketIsEmpty() {
+    AdmissionController controller = new AdmissionController();
+    long now = System.nanoTime();
+    int allowed = AdmissionController.USER_CAPACITY / 3;
+    for (int i = 0; i < allowed; i++) {
+      assertEquals(Admission.ADMITTED, controller.evaluate("user", "guild", 3, false, now));
+    }
+    assertEquals(Admission.USER_THROTTLED, controller.evaluate("user", "guild", 3, false, now));
+    assertEquals(Admission.ADMITTED, controller.evaluate("other", "guild", 3, false, now));
+  }
+
+  @Test
+  void guildRejectionRefundsTheUser() {
+    AdmissionController controller = new AdmissionController();
+    long now = System.nanoTime();
+    int cost = 5;
+    int users = AdmissionController.GUILD_CAPACITY / cost;
+    for (int i = 0; i < users; i++) {
+      assertEquals(Admission.ADMITTED, controller.evaluate("user-" + i, "busy", cost, false, now));
+    }
+    assertEquals(Admission.GUILD_THROTTLED, controller.evaluate("late", "busy", cost, false, now));
+    // Without the refund the late user would be short of a full bucket here
+    assertEquals(Admission.ADMITTED, controller.evaluate("late", "quiet", AdmissionController.USER_CAPACITY, false, now));
+  }
+
+  @Test
+  void directMessagesOnlyChargeTheUser() {
+    AdmissionController controller = new AdmissionController();
+    long now = System.nanoTime();
+    assertEquals(Admission.ADMITTED, controller.evaluate("user", null, 1, false, now));
+    assertEquals(1, controller.trackedBuckets());
+  }
+
+  @Test
+  void idleBucketsAreEvictedOnlyOncePerInterval() {
+    AdmissionController controller = new AdmissionController();
+    long now = System.nanoTime();
+    controller.evaluate("a", "guild", 1, false, now);
+    controller.evaluate("b", "guild", 1, false, now);
+    assertEquals(3, controller.trackedBuckets());
+
+    long refilled = now + TimeUnit.MINUTES.toNanos(5); // Long enough for every bucket to be full again
+    controller.evictIdle(refilled);
+    assertEquals(0, controller.trackedBuckets());
+
+    controller.evaluate("a", "guild", 1, false, refilled);
+    controller.evictIdle(refilled + AdmissionController.EVICTION_INTERVAL_NANOS - 1); // Still inside the interval
+    assertEquals(2, controller.trackedBuckets());
+  }
+
+  @Test
+  void bucketsThatAreNotFullSurviveEviction() {
+    AdmissionController controller = new AdmissionController();
+    long start = System.nanoTime();
+    long second = TimeUnit.SECONDS.toNanos(1);
+    controller.evaluate("early", "guild", 1, false, start);
+    long late = start + AdmissionController.EVICTION_INTERVAL_NANOS - second;
+    controller.evaluate("late", "guild", AdmissionController.USER_CAPACITY, false, late);
+    controller.evictIdle(late + second);
+    assertEquals(2, controller.trackedBuckets(), "Only the early user's bucket has refilled");
+  }
+
+}
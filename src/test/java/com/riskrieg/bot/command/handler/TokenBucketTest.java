@@ -0,0 +1,89 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.command.handler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void startsFull() {
+    TokenBucket bucket = new TokenBucket(10, 1.0, 0);
+    assertTrue(bucket.isFull(0));
+    assertTrue(bucket.tryConsume(10, 0));
+    assertFalse(bucket.tryConsume(1, 0));
+  }
+
+  @Test
+  void refillsProportionallyToElapsedTime() {
+    TokenBucket bucket = new TokenBucket(10, 2.0, 0);
+    assertTrue(bucket.tryConsume(10, 0));
+    assertFalse(bucket.tryConsume(2, SECOND / 2)); // Only one token back after half a second
+    assertTrue(bucket.tryConsume(2, SECOND));
+    assertFalse(bucket.tryConsume(1, SECOND));
+  }
+
+  @Test
+  void refillIsCappedAtCapacity() {
+    TokenBucket bucket = new TokenBucket(5, 1.0, 0);
+    assertTrue(bucket.tryConsume(5, 0));
+    assertTrue(bucket.isFull(60 * SECOND));
+    assertTrue(bucket.tryConsume(5, 60 * SECOND));
+    assertFalse(bucket.tryConsume(1, 60 * SECOND));
+  }
+
+  @Test
+  void clockGoingBackwardsDoesNotAddTokens() {
+    TokenBucket bucket = new TokenBucket(4, 1.0, 10 * SECOND);
+    assertTrue(bucket.tryConsume(4, 10 * SECOND));
+    assertFalse(bucket.tryConsume(1, 5 * SECOND));
+  }
+
+  @Test
+  void costLargerThanCapacityNeedsAFullBucket() {
+    TokenBucket bucket = new TokenBucket(5, 1.0, 0);
+    assertTrue(bucket.tryConsume(50, 0));
+    assertFalse(bucket.tryConsume(50, SECOND));
+    assertTrue(bucket.tryConsume(50, 5 * SECOND));
+  }
+
+  @Test
+  void refundIsCappedAtCapacity() {
+    TokenBucket bucket = new TokenBucket(5, 1.0, 0);
+    assertTrue(bucket.tryConsume(3, 0));
+    bucket.refund(3);
+    assertTrue(bucket.isFull(0));
+    bucket.refund(10);
+    assertTrue(bucket.tryConsume(5, 0));
+    assertFalse(bucket.tryConsume(1, 0));
+  }
+
+  @Test
+  void rejectsInvalidConfiguration() {
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1.0, 0));
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(5, 0.0, 0));
+  }
+
+}
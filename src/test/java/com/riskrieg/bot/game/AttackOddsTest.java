@@ -0,0 +1,93 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class AttackOddsTest {
+
+  private static final double EPSILON = 1e-12;
+
+  private static double enumerate(int attackRolls, int attackSides, int defenseRolls, int defenseSides) { // Counts every outcome of the dice the way Dice.max rolls them
+    long[] attackMax = maxCounts(attackRolls, attackSides);
+    long[] defenseMax = maxCounts(defenseRolls, defenseSides);
+    long wins = 0;
+    long total = 0;
+    for (int a = 0; a < attackMax.length; a++) {
+      for (int d = 0; d < defenseMax.length; d++) {
+        long outcomes = attackMax[a] * defenseMax[d];
+        total += outcomes;
+        if (a > d) {
+          wins += outcomes;
+        }
+      }
+    }
+    return (double) wins / total;
+  }
+
+  private static long[] maxCounts(int rolls, int sides) { // [k] = number of roll sequences whose highest die is k, 0 when nothing is rolled
+    long[] counts = new long[sides + 1];
+    int[] dice = new int[rolls];
+    while (true) {
+      int max = 0;
+      for (int die : dice) {
+        max = Math.max(max, die + 1);
+      }
+      counts[max]++;
+      int i = 0;
+      while (i < rolls && ++dice[i] == sides) {
+        dice[i++] = 0;
+      }
+      if (i == rolls) {
+        return counts;
+      }
+    }
+  }
+
+  @Test
+  void matchesEnumerationForTableSizes() {
+    int[] sides = {1, 2, 3, 6, StandardAttack.ATTACK_SIDES, StandardAttack.DEFENSE_SIDES, 12};
+    for (int attackSides : sides) {
+      for (int defenseSides : sides) {
+        for (int attackRolls = 0; attackRolls <= 3; attackRolls++) {
+          for (int defenseRolls = 0; defenseRolls <= 3; defenseRolls++) {
+            assertEquals(enumerate(attackRolls, attackSides, defenseRolls, defenseSides),
+                AttackOdds.successProbability(attackRolls, attackSides, defenseRolls, defenseSides), EPSILON,
+                attackRolls + "d" + attackSides + " vs " + defenseRolls + "d" + defenseSides);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void matchesEnumerationBeyondTheTables() {
+    assertEquals(enumerate(2, 40, 1, 6), AttackOdds.successProbability(2, 40, 1, 6), EPSILON);
+    assertEquals(enumerate(1, 8, 2, 40), AttackOdds.successProbability(1, 8, 2, 40), EPSILON);
+    assertEquals(enumerate(2, 33, 2, 33), AttackOdds.successProbability(2, 33, 2, 33), EPSILON);
+  }
+
+  @Test
+  void rollsOverloadAgrees() {
+    ClaimSnapshot.Rolls rolls = new ClaimSnapshot.Rolls(3, StandardAttack.ATTACK_SIDES, 2, StandardAttack.DEFENSE_SIDES);
+    assertEquals(AttackOdds.successProbability(3, StandardAttack.ATTACK_SIDES, 2, StandardAttack.DEFENSE_SIDES), AttackOdds.successProbability(rolls), 0.0);
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.riskrieg.core.api.game.GameConstants;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.game.territory.GameTerritory;
+import com.riskrieg.core.api.game.territory.TerritoryType;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ClaimSnapshotTest {
+
+  private static final NationIdentifier ATTACKER = new NationIdentifier("attacker");
+  private static final NationIdentifier DEFENDER = new NationIdentifier("defender");
+  private static final NationIdentifier ALLY = new NationIdentifier("ally"); // Allied with the attacker, which must not change the dice
+  private static final NationIdentifier LANDLESS = new NationIdentifier("landless");
+  private static final List<NationIdentifier> NATIONS = List.of(ATTACKER, DEFENDER, ALLY, LANDLESS);
+
+  private static final GameConstants CONSTANTS = GameConstants.standard();
+
+  private static final MapGraph GRAPH = MapGraph.build("test", identities("A", "B", "C", "D", "E", "F", "G", "H"), new int[][]{
+      {1, 2, 3}, // A
+      {0, 2, 3, 4}, // B
+      {0, 1, 3, 4, 5}, // C
+      {0, 1, 2, 5}, // D
+      {1, 2, 5, 6}, // E
+      {2, 3, 4, 6, 7}, // F
+      {4, 5, 7}, // G
+      {5, 6} // H
+  });
+
+  private static TerritoryIdentity[] identities(String... names) {
+    TerritoryIdentity[] identities = new TerritoryIdentity[names.length];
+    for (int i = 0; i < names.length; i++) {
+      identities[i] = new TerritoryIdentity(names[i]);
+    }
+    return identities;
+  }
+
+  private static Claim claim(NationIdentifier nation, String territory, TerritoryType type) {
+    return new Claim(nation, new GameTerritory(new TerritoryIdentity(territory), type));
+  }
+
+  private static Set<Claim> board() { // F is left unclaimed
+    Set<Claim> claims = new HashSet<>();
+    claims.add(claim(ATTACKER, "A", TerritoryType.CAPITAL));
+    claims.add(claim(ATTACKER, "B", TerritoryType.NORMAL));
+    claims.add(claim(DEFENDER, "C", TerritoryType.CAPITAL));
+    claims.add(claim(ALLY, "D", TerritoryType.NORMAL));
+    claims.add(claim(DEFENDER, "E", TerritoryType.NORMAL));
+    claims.add(claim(ALLY, "G", TerritoryType.CAPITAL));
+    claims.add(claim(DEFENDER, "H", TerritoryType.NORMAL));
+    return claims;
+  }
+
+  private static void assertMatchesLegacy(Set<Claim> claims) {
+    ClaimSnapshot snapshot = ClaimSnapshot.of(GRAPH, claims);
+    for (int v = 0; v < GRAPH.size(); v++) {
+      TerritoryIdentity identity = GRAPH.identity(v);
+      for (NationIdentifier attacker : NATIONS) {
+        for (NationIdentifier defender : NATIONS) {
+          if (attacker.equals(defender)) {
+            continue;
+          }
+          assertEquals(LegacyRolls.rolls(GRAPH, claims, attacker, defender, identity, CONSTANTS), snapshot.rolls(attacker, defender, identity, CONSTANTS),
+              attacker.id() + " attacking " + defender.id() + " at " + identity);
+        }
+      }
+    }
+  }
+
+  @Test
+  void rollsMatchSetBasedComputationOnEveryTerritory() {
+    assertMatchesLegacy(board());
+  }
+
+  @Test
+  void rollsMatchOnEmptyBoard() {
+    assertMatchesLegacy(Set.of());
+  }
+
+  @Test
+  void rollsMatchAfterCapitalChangesHands() {
+    Set<Claim> claims = board();
+    claims.remove(claim(DEFENDER, "C", TerritoryType.CAPITAL));
+    claims.add(claim(ATTACKER, "C", TerritoryType.CAPITAL));
+    assertMatchesLegacy(claims);
+  }
+
+  @Test
+  void capitalsAddAttackDiceAndDefenseSides() {
+    ClaimSnapshot.Rolls rolls = ClaimSnapshot.of(GRAPH, board()).rolls(ATTACKER, DEFENDER, new TerritoryIdentity("C"), CONSTANTS);
+    assertEquals(1 + (1 + CONSTANTS.capitalAttackBonus()) + 1, rolls.attackRolls()); // A is a capital, B is not, the ally's D adds nothing
+    assertEquals(1 + 1, rolls.defenseRolls()); // Only E, F is unclaimed
+    assertEquals(StandardAttack.ATTACK_SIDES, rolls.attackSides());
+    assertEquals(StandardAttack.DEFENSE_SIDES + 1 + CONSTANTS.capitalDefenseBonus(), rolls.defenseSides());
+  }
+
+}
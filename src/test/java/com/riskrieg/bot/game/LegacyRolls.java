@@ -0,0 +1,66 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import com.riskrieg.core.api.game.GameConstants;
+import com.riskrieg.core.api.game.territory.Claim;
+import com.riskrieg.core.api.game.territory.GameTerritory;
+import com.riskrieg.core.api.game.territory.TerritoryType;
+import com.riskrieg.core.api.identifier.NationIdentifier;
+import com.riskrieg.map.territory.TerritoryIdentity;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class LegacyRolls { // The set-based roll computation StandardAttack used before ClaimSnapshot, kept as the reference it must agree with
+
+  private LegacyRolls() {
+  }
+
+  static ClaimSnapshot.Rolls rolls(MapGraph graph, Set<Claim> claims, NationIdentifier attacker, NationIdentifier defender, TerritoryIdentity identity,
+      GameConstants constants) {
+    int attackRolls = 1;
+    int defenseRolls = 1;
+    int attackSides = StandardAttack.ATTACK_SIDES;
+    int defenseSides = StandardAttack.DEFENSE_SIDES;
+    var neighbors = graph.neighborNames(identity.toString()).stream().map(name -> graph.identity(graph.indexOf(name))).collect(Collectors.toSet());
+    for (TerritoryIdentity neighbor : neighbors) {
+      var attackerTerritories = claims.stream().filter(claim -> claim.identifier().equals(attacker)).map(Claim::territory).map(GameTerritory::identity)
+          .collect(Collectors.toSet());
+      var defenderTerritories = claims.stream().filter(claim -> claim.identifier().equals(defender)).map(Claim::territory).map(GameTerritory::identity)
+          .collect(Collectors.toSet());
+      if (attackerTerritories.contains(neighbor)) {
+        if (isCapital(neighbor, claims)) {
+          attackRolls += 1 + constants.capitalAttackBonus();
+        } else {
+          attackRolls++;
+        }
+      } else if (defenderTerritories.contains(neighbor)) {
+        defenseRolls++;
+        if (isCapital(identity, claims)) {
+          defenseSides += 1 + constants.capitalDefenseBonus();
+        }
+      }
+    }
+    return new ClaimSnapshot.Rolls(attackRolls, attackSides, defenseRolls, defenseSides);
+  }
+
+  private static boolean isCapital(TerritoryIdentity identity, Set<Claim> claims) {
+    return claims.stream().anyMatch(claim -> claim.territory().identity().equals(identity) && claim.territory().type() == TerritoryType.CAPITAL);
+  }
+
+}
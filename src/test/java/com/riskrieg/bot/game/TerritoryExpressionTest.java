@@ -0,0 +1,134 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.riskrieg.bot.game.TerritoryExpression.ErrorType;
+import com.riskrieg.bot.game.TerritoryExpression.Result;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TerritoryExpressionTest {
+
+  private static List<ErrorType> errorTypes(Result result) {
+    return result.errors().stream().map(TerritoryExpression.Error::type).toList();
+  }
+
+  @Test
+  void parsesSingleTerritoriesWithAnySeparator() {
+    Result result = TerritoryExpression.parse("1a, 2b|3c/4d\\5e;6f  7g");
+    assertTrue(result.isValid());
+    assertEquals(List.of("1A", "2B", "3C", "4D", "5E", "6F", "7G"), result.territories());
+  }
+
+  @Test
+  void duplicatesAreListedOnce() {
+    assertEquals(List.of("1A", "2A"), TerritoryExpression.parse("1a 2a 1A").territories());
+  }
+
+  @Test
+  void expandsRangesInEitherDirection() {
+    assertEquals(List.of("1A", "2A", "3A"), TerritoryExpression.parse("1a..3a").territories());
+    assertEquals(List.of("1A", "2A", "3A"), TerritoryExpression.parse("3A..1a").territories());
+    assertEquals(List.of("7BC"), TerritoryExpression.parse("7bc..7BC").territories());
+  }
+
+  @Test
+  void rangesAreCappedAtTheMaximumLength() {
+    int last = TerritoryExpression.MAX_RANGE_LENGTH;
+    assertEquals(last, TerritoryExpression.parse("1A.." + last + "A").territories().size());
+    assertEquals(List.of(ErrorType.RANGE_TOO_LARGE), errorTypes(TerritoryExpression.parse("1A.." + (last + 1) + "A")));
+    assertEquals(List.of(ErrorType.RANGE_TOO_LARGE), errorTypes(TerritoryExpression.parse("1A..1234567890A")));
+  }
+
+  @Test
+  void malformedRangesAreReported() {
+    assertEquals(List.of(ErrorType.MALFORMED_RANGE), errorTypes(TerritoryExpression.parse("A..3A")));
+    assertEquals(List.of(ErrorType.MALFORMED_RANGE), errorTypes(TerritoryExpression.parse("1A..3")));
+    assertEquals(List.of(ErrorType.MALFORMED_RANGE), errorTypes(TerritoryExpression.parse("1A..3A..5A")));
+    assertEquals(List.of(ErrorType.MISMATCHED_RANGE), errorTypes(TerritoryExpression.parse("1A..3B")));
+  }
+
+  @Test
+  void malformedTerritoriesAreReported() {
+    Result result = TerritoryExpression.parse("1A 2$ 3B");
+    assertEquals(List.of(ErrorType.MALFORMED_TERRITORY), errorTypes(result));
+    assertEquals("2$", result.errors().get(0).token());
+    assertEquals(3, result.errors().get(0).position());
+  }
+
+  @Test
+  void emptyInputIsAnError() {
+    assertEquals(List.of(ErrorType.EMPTY), errorTypes(TerritoryExpression.parse("")));
+    assertEquals(List.of(ErrorType.EMPTY), errorTypes(TerritoryExpression.parse(null)));
+    assertEquals(List.of(ErrorType.EMPTY), errorTypes(TerritoryExpression.parse(" , ; ")));
+  }
+
+  @Test
+  void exclusionsRemoveTerritoriesWhereverTheyAppear() {
+    assertEquals(List.of("1A", "3A"), TerritoryExpression.parse("1A..3A !2A").territories());
+    assertEquals(List.of("1A", "3A"), TerritoryExpression.parse("-2a 1A..3A").territories());
+    assertEquals(List.of("5A"), TerritoryExpression.parse("1A..5A -1A..4A").territories());
+    assertEquals(List.of("2A"), TerritoryExpression.parse("1A..3A !2A").excluded());
+  }
+
+  @Test
+  void excludingEverythingIsEmpty() {
+    assertEquals(List.of(ErrorType.EMPTY), errorTypes(TerritoryExpression.parse("1A !1A")));
+  }
+
+  @Test
+  void leadingZerosAreHandledTheSameInRangesAndSingleTerritories() {
+    assertEquals(List.of("1A"), TerritoryExpression.parse("01A").territories());
+    assertEquals(List.of("1A"), TerritoryExpression.parse("01a 1A").territories());
+    assertEquals(List.of("1A", "2A"), TerritoryExpression.parse("01A..02A").territories());
+    assertEquals(List.of("0A"), TerritoryExpression.parse("000A").territories());
+    assertEquals(List.of("2A"), TerritoryExpression.parse("1A 2A !001A").territories());
+  }
+
+  @Test
+  void validateReportsUnknownTerritoriesAndExclusions() {
+    Set<String> map = Set.of("1A", "2A", "3A");
+    Result valid = TerritoryExpression.parse("1A..3A !2A");
+    assertSame(valid, valid.validate(map::contains));
+
+    Result unknown = TerritoryExpression.parse("1A 9Z").validate(map::contains);
+    assertFalse(unknown.isValid());
+    assertEquals(List.of(ErrorType.UNKNOWN_TERRITORY), errorTypes(unknown));
+    assertEquals("9Z", unknown.errors().get(0).token());
+
+    Result badExclusion = TerritoryExpression.parse("1A..3A !2B").validate(map::contains);
+    assertEquals(List.of(ErrorType.UNKNOWN_EXCLUSION), errorTypes(badExclusion));
+    assertEquals("2B", badExclusion.errors().get(0).token());
+  }
+
+  @Test
+  void describeErrorsListsAtMostFive() {
+    Result result = TerritoryExpression.parse("a$ b$ c$ d$ e$ f$ g$");
+    assertEquals(7, result.errors().size());
+    String description = result.describeErrors();
+    assertEquals(6, description.split("\n").length);
+    assertTrue(description.endsWith("...and 2 more."));
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GameResultTest {
+
+  private static GameResult roundTrip(GameResult result) {
+    return GameResult.decode(result.encode());
+  }
+
+  @Test
+  void roundTripsPlainResult() {
+    Map<String, String> players = new LinkedHashMap<>();
+    players.put("100", "Alice");
+    players.put("200", "Bob");
+    GameResult result = new GameResult(1700000000000L, "42", "conquest", 17, Set.of("100"), players);
+    assertEquals(result, roundTrip(result));
+  }
+
+  @Test
+  void roundTripsNamesWithSeparators() {
+    Map<String, String> players = new LinkedHashMap<>();
+    players.put("1", "tab\there");
+    players.put("2", "comma, and more,");
+    players.put("3", "a=b==c");
+    players.put("4", "new\nline");
+    players.put("5", "%20 percent + plus");
+    players.put("6", "");
+    players.put("7", "\u00fcn\u00efc\u00f6d\u00e9 \ud83c\udfb2");
+    GameResult result = new GameResult(1L, "42", "brawl", 3, Set.of("1", "3"), players);
+
+    String encoded = result.encode();
+    assertFalse(encoded.contains("\n"));
+    assertEquals(6, encoded.split("\t", -1).length);
+    GameResult decoded = GameResult.decode(encoded);
+    assertEquals(result, decoded);
+    assertEquals(List.copyOf(players.keySet()), List.copyOf(decoded.players().keySet()));
+  }
+
+  @Test
+  void roundTripsResultWithoutWinners() {
+    GameResult result = new GameResult(5L, "42", "regicide", 0, Set.of(), Map.of("1", "Solo"));
+    assertEquals(result, roundTrip(result));
+  }
+
+  @Test
+  void rejectsTornLines() {
+    GameResult result = new GameResult(5L, "42", "regicide", 9, Set.of("1"), Map.of("1", "Solo"));
+    String encoded = result.encode();
+    assertThrows(IllegalArgumentException.class, () -> GameResult.decode(encoded.substring(0, encoded.lastIndexOf('\t'))));
+    assertThrows(IllegalArgumentException.class, () -> GameResult.decode("x\t42\tregicide\t9\t1\t1=Solo"));
+    assertThrows(IllegalArgumentException.class, () -> GameResult.decode("5\t42\tregicide\t9\t1\tSolo"));
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class StatisticsTest {
+
+  private static GameStats game(PlayerStats... players) {
+    Map<String, PlayerStats> byId = new HashMap<>();
+    for (PlayerStats player : players) {
+      byId.put(player.playerId(), player);
+    }
+    return new GameStats("group", "game", 0L, 0, 0, 0, 0, 0, 1, Map.copyOf(byId));
+  }
+
+  @Test
+  void claimMovesTerritoryBetweenAttackerAndDefenders() {
+    GameStats stats = game(PlayerStats.of("a", "A", 3), PlayerStats.of("b", "B", 5));
+    stats = Statistics.applyClaim(stats, "a", 1, 2, 1, 1, List.of("b", "b"), List.of("b"));
+
+    PlayerStats attacker = stats.players().get("a");
+    PlayerStats defender = stats.players().get("b");
+    assertEquals(6, attacker.held());
+    assertEquals(6, attacker.peak());
+    assertEquals(1, attacker.claimed());
+    assertEquals(2, attacker.attacksWon());
+    assertEquals(1, attacker.attacksLost());
+    assertEquals(1, attacker.capitalsTaken());
+    assertEquals(3, defender.held());
+    assertEquals(5, defender.peak());
+    assertEquals(2, defender.territoriesLost());
+    assertEquals(1, defender.defended());
+    assertEquals(3, stats.claims());
+    assertEquals(3, stats.attacks());
+    assertEquals(2, stats.attacksWon());
+    assertEquals(1, stats.capitalsTaken());
+  }
+
+  @Test
+  void unknownDefendersAreIgnored() {
+    GameStats stats = Statistics.applyClaim(game(PlayerStats.of("a", "A", 1)), "a", 0, 1, 0, 0, List.of(""), List.of());
+    assertEquals(2, stats.players().get("a").held());
+    assertEquals(1, stats.players().size());
+  }
+
+  @Test
+  void removalResetsHeldWithoutLoweringPeak() {
+    GameStats stats = game(PlayerStats.of("a", "A", 4), PlayerStats.of("b", "B", 7));
+    stats = Statistics.applyHeld(stats, Map.of("a", 4));
+    assertEquals(4, stats.players().get("a").held());
+    assertEquals(0, stats.players().get("b").held());
+    assertEquals(7, stats.players().get("b").peak());
+  }
+
+  @Test
+  void endTurnCountsTurnsAndDefeats() {
+    GameStats stats = game(PlayerStats.of("a", "A", 1), PlayerStats.of("b", "B", 1));
+    stats = Statistics.endTurn(stats, List.of());
+    stats = Statistics.endTurn(stats, List.of("b"));
+    stats = Statistics.endTurn(stats, List.of("b"));
+    assertEquals(3, stats.turns());
+    assertEquals(2, stats.players().get("b").defeatedOnTurn());
+    assertEquals(-1, stats.players().get("a").defeatedOnTurn());
+  }
+
+  @Test
+  void historyStaysBoundedAndKeepsTheLatestSample() {
+    GameStats stats = game(PlayerStats.of("a", "A", 0));
+    int turns = GameStats.MAX_SAMPLES * 5;
+    for (int turn = 1; turn <= turns; turn++) {
+      stats = Statistics.applyClaim(stats, "a", 1, 0, 0, 0, List.of(), List.of());
+      stats = Statistics.endTurn(stats, List.of());
+      assertTrue(stats.players().get("a").history().size() <= GameStats.MAX_SAMPLES);
+    }
+    List<Integer> history = stats.players().get("a").history();
+    assertEquals(turns, stats.turns());
+    assertTrue(stats.sampleEvery() > 1);
+    assertEquals(0, turns % stats.sampleEvery());
+    assertEquals(turns, (int) history.get(history.size() - 1));
+    for (int i = 1; i < history.size(); i++) {
+      assertTrue(history.get(i) > history.get(i - 1));
+    }
+  }
+
+  @Test
+  void alternatingAttacksKeepTheRunningTotalsConsistent() {
+    GameStats incremental = game(PlayerStats.of("a", "A", 2), PlayerStats.of("b", "B", 2));
+    for (int turn = 0; turn < 40; turn++) {
+      String attacker = turn % 2 == 0 ? "a" : "b";
+      String defender = turn % 2 == 0 ? "b" : "a";
+      incremental = Statistics.applyClaim(incremental, attacker, 0, 1, 1, 0, List.of(defender), List.of(defender));
+      incremental = Statistics.endTurn(incremental, List.of());
+    }
+    assertEquals(2, incremental.players().get("a").held());
+    assertEquals(2, incremental.players().get("b").held());
+    assertEquals(20, incremental.players().get("a").attacksWon());
+    assertEquals(20, incremental.players().get("b").territoriesLost());
+    assertEquals(40, incremental.claims());
+    assertEquals(80, incremental.attacks());
+    assertEquals(40, incremental.turns());
+  }
+
+}
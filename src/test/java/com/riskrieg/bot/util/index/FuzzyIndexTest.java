@@ -0,0 +1,137 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FuzzyIndexTest {
+
+  private static final FuzzyIndex COLORS = FuzzyIndex.of(List.of("Red", "Orange", "Yellow", "Green", "Blue", "Purple", "Brown", "Grey"));
+
+  @Test
+  void exactMatchHasDistanceZero() {
+    assertEquals(Optional.of(new FuzzyIndex.Match("Green", 0)), COLORS.closest("green", 0));
+    assertEquals(Optional.of(new FuzzyIndex.Match("Green", 0)), COLORS.closest("  GREEN ", 4));
+  }
+
+  @Test
+  void radiusIsInclusive() {
+    assertEquals(Optional.of(new FuzzyIndex.Match("Purple", 2)), COLORS.closest("purpel", 2));
+    assertEquals(Optional.empty(), COLORS.closest("purpel", 1));
+  }
+
+  @Test
+  void searchIsRankedByDistance() {
+    List<FuzzyIndex.Match> matches = COLORS.search("gren", 2, 10);
+    assertEquals(new FuzzyIndex.Match("Green", 1), matches.get(0));
+    for (int i = 1; i < matches.size(); i++) {
+      assertTrue(matches.get(i - 1).distance() <= matches.get(i).distance());
+    }
+  }
+
+  @Test
+  void tiesGoToTheValueAddedFirst() {
+    FuzzyIndex index = FuzzyIndex.of(List.of("cat", "bat", "hat"));
+    assertEquals(List.of(new FuzzyIndex.Match("cat", 1), new FuzzyIndex.Match("bat", 1), new FuzzyIndex.Match("hat", 1)), index.search("rat", 1, 10));
+    assertEquals("hat", FuzzyIndex.of(List.of("hat", "cat", "bat")).closest("rat", 1).orElseThrow().value());
+  }
+
+  @Test
+  void limitTruncatesAfterRanking() {
+    FuzzyIndex index = FuzzyIndex.of(List.of("abcd", "abce", "abc", "xbc"));
+    assertEquals(List.of(new FuzzyIndex.Match("abc", 0), new FuzzyIndex.Match("abcd", 1)), index.search("abc", 3, 2));
+    assertEquals(List.of(), index.search("abc", 3, 0));
+  }
+
+  @Test
+  void duplicatesKeepTheFirstSpelling() {
+    FuzzyIndex index = FuzzyIndex.of(Arrays.asList("Gold", "GOLD", "", null, "Silver"));
+    assertEquals(2, index.size());
+    assertEquals("Gold", index.closest("gold", 0).orElseThrow().value());
+  }
+
+  @Test
+  void emptyIndexFindsNothing() {
+    assertEquals(List.of(), FuzzyIndex.EMPTY.search("anything", 10, 10));
+    assertEquals(Optional.empty(), FuzzyIndex.of(List.of()).closest("a", 5));
+    assertEquals(List.of(), COLORS.search(null, 4, 10));
+  }
+
+  @Test
+  void matchesALinearScan() { // The triangle inequality pruning must never drop a match inside the radius
+    Random random = new Random(42);
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      words.add(randomWord(random));
+    }
+    FuzzyIndex index = FuzzyIndex.of(words);
+    for (int q = 0; q < 200; q++) {
+      String query = randomWord(random);
+      for (int radius = 0; radius <= 3; radius++) {
+        List<FuzzyIndex.Match> expected = new ArrayList<>();
+        List<String> seen = new ArrayList<>();
+        for (String word : words) {
+          if (seen.contains(word)) {
+            continue;
+          }
+          seen.add(word);
+          int distance = levenshtein(query, word);
+          if (distance <= radius) {
+            expected.add(new FuzzyIndex.Match(word, distance));
+          }
+        }
+        expected.sort((a, b) -> Integer.compare(a.distance(), b.distance())); // Stable, so insertion order breaks ties
+        assertEquals(expected, index.search(query, radius, Integer.MAX_VALUE), "query=" + query + " radius=" + radius);
+      }
+    }
+  }
+
+  private static String randomWord(Random random) {
+    char[] chars = new char[3 + random.nextInt(4)];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(4));
+    }
+    return new String(chars);
+  }
+
+  private static int levenshtein(String a, String b) {
+    int[][] d = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      d[i][0] = i;
+    }
+    for (int j = 0; j <= b.length(); j++) {
+      d[0][j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+      }
+    }
+    return d[a.length()][b.length()];
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+  private static final PrefixTrie TERRITORIES = PrefixTrie.of(List.of("Alaska", "Alberta", "Algeria", "Argentina", "Brazil", "alps"));
+
+  @Test
+  void searchReturnsMatchesInLexicographicOrder() {
+    assertEquals(List.of("Alaska", "Alberta", "Algeria", "alps"), TERRITORIES.search("al", 10));
+  }
+
+  @Test
+  void searchIsCaseInsensitiveAndKeepsOriginalSpelling() {
+    assertEquals(List.of("Brazil"), TERRITORIES.search("BRA", 10));
+    assertEquals(List.of("alps"), TERRITORIES.search("ALP", 10));
+  }
+
+  @Test
+  void searchStopsAtTheLimit() {
+    assertEquals(List.of("Alaska", "Alberta"), TERRITORIES.search("al", 2));
+    assertEquals(List.of(), TERRITORIES.search("al", 0));
+    assertEquals(List.of(), TERRITORIES.search("al", -1));
+  }
+
+  @Test
+  void emptyOrNullPrefixListsEverything() {
+    assertEquals(6, TERRITORIES.search("", 100).size());
+    assertEquals(6, TERRITORIES.search(null, 100).size());
+    assertEquals(List.of("Alaska", "Alberta", "Algeria"), TERRITORIES.search("  ", 3));
+  }
+
+  @Test
+  void unknownPrefixFindsNothing() {
+    assertEquals(List.of(), TERRITORIES.search("zz", 10));
+    assertEquals(List.of(), TERRITORIES.search("alaskan", 10));
+  }
+
+  @Test
+  void filterIsAppliedBeforeTheLimit() {
+    assertEquals(List.of("Algeria", "alps"), TERRITORIES.search("al", 2, value -> !value.startsWith("Al") || value.equals("Algeria")));
+  }
+
+  @Test
+  void containsMatchesWholeKeysOnly() {
+    assertTrue(TERRITORIES.contains("alaska"));
+    assertTrue(TERRITORIES.contains(" Brazil "));
+    assertFalse(TERRITORIES.contains("ala"));
+    assertFalse(TERRITORIES.contains("Alaskan"));
+  }
+
+  @Test
+  void blankAndDuplicateValuesAreNotCounted() {
+    PrefixTrie trie = PrefixTrie.of(Arrays.asList("Peru", "peru", " ", null, "Chile"));
+    assertEquals(2, trie.size());
+    assertEquals(List.of("peru"), trie.search("pe", 10)); // The last spelling added wins
+  }
+
+  @Test
+  void emptyTrieFindsNothing() {
+    assertEquals(0, PrefixTrie.EMPTY.size());
+    assertEquals(List.of(), PrefixTrie.EMPTY.search("", 10));
+    assertFalse(PrefixTrie.EMPTY.contains("a"));
+  }
+
+}
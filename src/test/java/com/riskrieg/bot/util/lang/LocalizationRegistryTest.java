@@ -0,0 +1,71 @@
+/*
+ *     Riskrieg, an open-source conflict simulation game.
+ *     Copyright (C) 2024 Aaron Yoder <aaronjyoder@gmail.com> and Contributors
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.riskrieg.bot.util.lang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocalizationRegistryTest {
+
+  private Path root;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    root = Files.createTempDirectory("lang");
+    Files.createDirectories(root.resolve("claim"));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(root)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  void unreadableBundleIsSkipped() throws IOException {
+    Files.writeString(root.resolve("claim/claim_en-US.properties"), "claim.name=claim\n", StandardCharsets.UTF_8);
+    Files.write(root.resolve("claim/claim_fr.properties"), new byte[]{'k', '=', (byte) 0xFF, (byte) 0xFE}); // Not valid UTF-8
+
+    LocalizationRegistry registry = LocalizationRegistry.load(root);
+    assertEquals("claim", registry.get(DiscordLocale.ENGLISH_US, "claim.name"));
+    assertEquals("claim", registry.get(DiscordLocale.FRENCH, "claim.name")); // Falls back to the default locale
+  }
+
+  @Test
+  void malformedEscapeIsSkipped() throws IOException {
+    Files.writeString(root.resolve("claim/claim_en-US.properties"), "claim.name=claim\n", StandardCharsets.UTF_8);
+    Files.writeString(root.resolve("claim/claim_de.properties"), "claim.name=\\uZZZZ\n", StandardCharsets.UTF_8);
+
+    LocalizationRegistry registry = LocalizationRegistry.load(root);
+    assertEquals(1, registry.locales().size());
+  }
+
+}